@@ -18,6 +18,7 @@ package io.gravitee.repository;
 import io.gravitee.repository.config.AbstractRepositoryTest;
 import io.gravitee.repository.management.api.search.ApiKeyCriteria.Builder;
 import io.gravitee.repository.management.model.ApiKey;
+import io.gravitee.repository.metrics.LatencyBudget;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -90,6 +91,7 @@ public class ApiKeyRepositoryTest extends AbstractRepositoryTest {
     }
 
     @Test
+    @LatencyBudget(p99 = "50ms")
     public void findBySubscriptionTest() throws Exception {
         Set<ApiKey> apiKeys = apiKeyRepository.findBySubscription("subscription1");
 
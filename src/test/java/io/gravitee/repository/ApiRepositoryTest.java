@@ -25,6 +25,8 @@ import io.gravitee.repository.management.model.Api;
 import io.gravitee.repository.management.model.ApiLifecycleState;
 import io.gravitee.repository.management.model.LifecycleState;
 import io.gravitee.repository.management.model.Visibility;
+import io.gravitee.repository.metrics.LatencyBudget;
+import io.gravitee.repository.utils.HeapFootprint;
 import org.junit.Test;
 
 import java.util.*;
@@ -183,6 +185,14 @@ public class ApiRepositoryTest extends AbstractRepositoryTest {
         assertNotNull("Api is null", apis.iterator().next());
     }
 
+    @Test
+    public void shouldSearchWithoutOneQueryPerApi() throws Exception {
+        List<Api> apis = assertMaxRoundTrips(5, () -> apiRepository.search(new ApiCriteria.Builder().build()));
+
+        assertNotNull(apis);
+        assertFalse("Api list is empty", apis.isEmpty());
+    }
+
     @Test
     public void deleteApiTest() throws Exception {
         Optional<Api> api = apiRepository.findById("api-to-delete");
@@ -201,6 +211,7 @@ public class ApiRepositoryTest extends AbstractRepositoryTest {
     }
 
     @Test
+    @LatencyBudget(p99 = "50ms")
     public void shouldFindByIds() {
         List<Api> apis = apiRepository.search(new ApiCriteria.Builder().ids("api-to-delete", "api-to-update", "unknown").build());
         assertNotNull(apis);
@@ -342,6 +353,21 @@ public class ApiRepositoryTest extends AbstractRepositoryTest {
         assertNull(apis.iterator().next().getDefinition());
     }
 
+    @Test
+    public void shouldShrinkApisWithoutDefinition() {
+        final ApiCriteria criteria = new ApiCriteria.Builder().version("1").build();
+        List<Api> apis = apiRepository.search(criteria);
+        List<Api> apisWithoutDefinition = apiRepository.search(criteria,
+                new ApiFieldExclusionFilter.Builder().excludeDefinition().build());
+        assertEquals(apis.size(), apisWithoutDefinition.size());
+
+        long definitions = apis.stream().mapToLong(api -> api.getDefinition() == null ? 0 : api.getDefinition().length()).sum();
+        assertTrue(definitions > 0);
+        long saved = HeapFootprint.of(apis) - HeapFootprint.of(apisWithoutDefinition);
+        assertTrue("APIs without definition retain " + saved + " bytes less than with their " + definitions
+                + " characters of definitions", saved >= definitions);
+    }
+
     @Test
     public void searchByPageable() {
         Page<Api> apiPage = apiRepository.search(new ApiCriteria.Builder().version("1").build(),
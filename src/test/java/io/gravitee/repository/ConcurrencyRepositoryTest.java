@@ -0,0 +1,787 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository;
+
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.management.model.*;
+import io.gravitee.repository.management.model.Dictionary;
+import io.gravitee.repository.management.model.flow.Flow;
+import io.gravitee.repository.management.model.flow.FlowReferenceType;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * Calls the repositories from several threads, on the same and on disjoint ids, then checks that no write was lost,
+ * that the deleted rows stay deleted and that an update after a delete is rejected.
+ *
+ * Every repository creating, updating, reading and deleting its models by a single id is called, the ones with
+ * composite keys (metadata, parameters...) or without delete (API keys, tickets...) being left out. Only the
+ * repositories keeping what is created are checked, the others (stubs) are skipped. The number of threads and of
+ * operations per thread can be changed with <code>tck.concurrency.threads</code> and
+ * <code>tck.concurrency.operations</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class ConcurrencyRepositoryTest extends AbstractRepositoryTest {
+
+    private final Logger logger = LoggerFactory.getLogger(ConcurrencyRepositoryTest.class);
+
+    @Value("${tck.concurrency.threads:8}")
+    private int threads;
+
+    @Value("${tck.concurrency.operations:20}")
+    private int operations;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/concurrency-tests/";
+    }
+
+    @Test
+    public void shouldSeeOneOfTheLastWritesOfConcurrentUpdates() throws Exception {
+        for (Target<?> target : statefulTargets()) {
+            checkConcurrentUpdates(target);
+        }
+    }
+
+    @Test
+    public void shouldKeepConcurrentWritesOnDisjointIds() throws Exception {
+        for (Target<?> target : statefulTargets()) {
+            checkDisjointWrites(target, threads, "disjoint");
+        }
+    }
+
+    @Test
+    public void shouldRejectUpdatesAfterConcurrentDelete() throws Exception {
+        for (Target<?> target : statefulTargets()) {
+            checkUpdatesAfterDelete(target);
+        }
+    }
+
+    @Test
+    public void shouldReportThroughputAsThreadsScale() throws Exception {
+        for (Target<?> target : statefulTargets()) {
+            for (int threadCount = 1; threadCount <= threads; threadCount *= 2) {
+                final long start = System.nanoTime();
+                checkDisjointWrites(target, threadCount, "throughput-" + threadCount);
+                final double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+                // each operation creates, updates, reads and deletes or reads again
+                final long calls = 4L * threadCount * operations;
+                logger.info(String.format("%s: %d threads, %.0f calls/s", target.name, threadCount, calls / seconds));
+            }
+        }
+    }
+
+    private <T> void checkConcurrentUpdates(final Target<T> target) throws Exception {
+        final String id = target.name + "-same-id";
+        target.create.call(target.factory.apply(id, "initial"));
+
+        runConcurrently(threads, thread -> {
+            for (int i = 0; i < operations; i++) {
+                target.update.call(target.factory.apply(id, "thread-" + thread + "-" + i));
+            }
+        });
+
+        final Set<String> lastWrites = new HashSet<>();
+        for (int thread = 0; thread < threads; thread++) {
+            lastWrites.add(written("thread-" + thread + "-" + (operations - 1)));
+        }
+        final Optional<T> found = target.findById.call(id);
+        assertTrue(target.name + " " + id + " has been lost", found.isPresent());
+        final String value = target.reader.apply(found.get());
+        assertTrue(target.name + " " + id + " is " + value + " instead of one of the last writes " + lastWrites,
+                lastWrites.contains(value));
+    }
+
+    private <T> void checkDisjointWrites(final Target<T> target, final int threadCount, final String prefix) throws Exception {
+        runConcurrently(threadCount, thread -> {
+            for (int i = 0; i < operations; i++) {
+                final String id = id(target, prefix, thread, i);
+                target.create.call(target.factory.apply(id, "created"));
+                target.update.call(target.factory.apply(id, "updated-" + i));
+                assertTrue(target.name + " " + id + " not found after its creation", target.findById.call(id).isPresent());
+                if (i % 2 == 0) {
+                    target.delete.call(id);
+                }
+            }
+        });
+
+        for (int thread = 0; thread < threadCount; thread++) {
+            for (int i = 0; i < operations; i++) {
+                final String id = id(target, prefix, thread, i);
+                final Optional<T> found = target.findById.call(id);
+                if (i % 2 == 0) {
+                    assertFalse(target.name + " " + id + " is still there after its deletion", found.isPresent());
+                } else {
+                    assertTrue(target.name + " " + id + " has been lost", found.isPresent());
+                    assertEquals(target.name + " " + id + " lost its update", written("updated-" + i),
+                            target.reader.apply(found.get()));
+                }
+            }
+        }
+    }
+
+    private <T> void checkUpdatesAfterDelete(final Target<T> target) throws Exception {
+        for (int thread = 0; thread < threads; thread++) {
+            target.create.call(target.factory.apply(id(target, "deleted", thread, 0), "created"));
+        }
+
+        // even threads delete the rows of the odd ones while those keep updating them
+        runConcurrently(threads, thread -> {
+            final String id = id(target, "deleted", thread - thread % 2 + 1, 0);
+            if (thread % 2 == 0) {
+                target.delete.call(id);
+                return;
+            }
+            for (int i = 0; i < operations; i++) {
+                try {
+                    target.update.call(target.factory.apply(id, "updated-" + i));
+                } catch (IllegalStateException ise) {
+                    // deleted in the meantime
+                    return;
+                }
+            }
+        });
+
+        for (int thread = 1; thread < threads; thread += 2) {
+            final String id = id(target, "deleted", thread, 0);
+            assertFalse(target.name + " " + id + " has been recreated by an update", target.findById.call(id).isPresent());
+            try {
+                target.update.call(target.factory.apply(id, "updated"));
+                fail(target.name + " " + id + " has been updated after its deletion");
+            } catch (IllegalStateException ise) {
+                // expected
+            }
+        }
+    }
+
+    private void runConcurrently(final int threadCount, final ThreadTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threadCount; thread++) {
+                final int current = thread;
+                futures.add(executor.submit(inNamespace(() -> {
+                    start.await();
+                    task.run(current);
+                    return null;
+                })));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ee) {
+                    if (ee.getCause() instanceof Error) {
+                        throw (Error) ee.getCause();
+                    }
+                    throw (Exception) ee.getCause();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Target<?>> statefulTargets() throws Exception {
+        final List<Target<?>> targets = new ArrayList<>();
+        for (Target<?> target : targets()) {
+            if (isStateful(target)) {
+                targets.add(target);
+            }
+        }
+        assumeFalse("None of the repositories keeps what is created", targets.isEmpty());
+        return targets;
+    }
+
+    private <T> boolean isStateful(final Target<T> target) throws Exception {
+        final String id = target.name + "-probe";
+        target.create.call(target.factory.apply(id, "probe"));
+        final Optional<T> created = target.findById.call(id);
+        if (!created.isPresent() || !written("probe").equals(target.reader.apply(created.get()))) {
+            return false;
+        }
+        target.delete.call(id);
+        return !target.findById.call(id).isPresent();
+    }
+
+    private static String id(final Target<?> target, final String prefix, final int thread, final int operation) {
+        return target.name + "-" + prefix + "-" + thread + "-" + operation;
+    }
+
+    /**
+     * Each value is written in two fields, to detect writes mixing the fields of concurrent updates.
+     */
+    private static String written(final String value) {
+        return value + '|' + value;
+    }
+
+    private List<Target<?>> targets() {
+        return Arrays.asList(
+                new Target<>("Api", (id, value) -> {
+                    final Api api = new Api();
+                    api.setId(id);
+                    api.setEnvironmentId("DEFAULT");
+                    api.setName(value);
+                    api.setDescription(value);
+                    api.setVersion("1");
+                    api.setVisibility(Visibility.PRIVATE);
+                    api.setLifecycleState(LifecycleState.STOPPED);
+                    api.setApiLifecycleState(ApiLifecycleState.CREATED);
+                    api.setCreatedAt(new Date(1439022010883L));
+                    api.setUpdatedAt(new Date());
+                    return api;
+                }, api -> api.getName() + '|' + api.getDescription(),
+                        apiRepository::create, apiRepository::update, apiRepository::findById,
+                        id -> { apiRepository.delete(id); return null; }),
+                new Target<>("Application", (id, value) -> {
+                    final Application application = new Application();
+                    application.setId(id);
+                    application.setEnvironmentId("DEFAULT");
+                    application.setName(value);
+                    application.setDescription(value);
+                    application.setStatus(ApplicationStatus.ACTIVE);
+                    application.setType(ApplicationType.SIMPLE);
+                    application.setCreatedAt(new Date(1439022010883L));
+                    application.setUpdatedAt(new Date());
+                    return application;
+                }, application -> application.getName() + '|' + application.getDescription(),
+                        applicationRepository::create, applicationRepository::update, applicationRepository::findById,
+                        id -> { applicationRepository.delete(id); return null; }),
+                new Target<>("Plan", (id, value) -> {
+                    final Plan plan = new Plan();
+                    plan.setId(id);
+                    plan.setApi("concurrency-api");
+                    plan.setName(value);
+                    plan.setDescription(value);
+                    plan.setSecurity(Plan.PlanSecurityType.API_KEY);
+                    plan.setValidation(Plan.PlanValidationType.AUTO);
+                    plan.setType(Plan.PlanType.API);
+                    plan.setStatus(Plan.Status.STAGING);
+                    plan.setCreatedAt(new Date(1439022010883L));
+                    plan.setUpdatedAt(new Date());
+                    return plan;
+                }, plan -> plan.getName() + '|' + plan.getDescription(),
+                        planRepository::create, planRepository::update, planRepository::findById,
+                        id -> { planRepository.delete(id); return null; }),
+                new Target<>("Subscription", (id, value) -> {
+                    final Subscription subscription = new Subscription();
+                    subscription.setId(id);
+                    subscription.setApi("concurrency-api");
+                    subscription.setPlan("concurrency-plan");
+                    subscription.setApplication("concurrency-application");
+                    subscription.setRequest(value);
+                    subscription.setReason(value);
+                    subscription.setStatus(Subscription.Status.PENDING);
+                    subscription.setCreatedAt(new Date(1439022010883L));
+                    subscription.setUpdatedAt(new Date());
+                    return subscription;
+                }, subscription -> subscription.getRequest() + '|' + subscription.getReason(),
+                        subscriptionRepository::create, subscriptionRepository::update,
+                        subscriptionRepository::findById,
+                        id -> { subscriptionRepository.delete(id); return null; }),
+                new Target<>("Tag", (id, value) -> {
+                    final Tag tag = new Tag();
+                    tag.setId(id);
+                    tag.setReferenceId("DEFAULT");
+                    tag.setReferenceType(TagReferenceType.ORGANIZATION);
+                    tag.setName(value);
+                    tag.setDescription(value);
+                    return tag;
+                }, tag -> tag.getName() + '|' + tag.getDescription(),
+                        tagRepository::create, tagRepository::update, tagRepository::findById,
+                        id -> { tagRepository.delete(id); return null; }),
+                new Target<>("Tenant", (id, value) -> {
+                    final Tenant tenant = new Tenant();
+                    tenant.setId(id);
+                    tenant.setReferenceId("DEFAULT");
+                    tenant.setReferenceType(TenantReferenceType.ORGANIZATION);
+                    tenant.setName(value);
+                    tenant.setDescription(value);
+                    return tenant;
+                }, tenant -> tenant.getName() + '|' + tenant.getDescription(),
+                        tenantRepository::create, tenantRepository::update, tenantRepository::findById,
+                        id -> { tenantRepository.delete(id); return null; }),
+                new Target<>("Category", (id, value) -> {
+                    final Category category = new Category();
+                    category.setId(id);
+                    category.setEnvironmentId("DEFAULT");
+                    category.setKey(id);
+                    category.setName(value);
+                    category.setDescription(value);
+                    category.setCreatedAt(new Date(1439022010883L));
+                    category.setUpdatedAt(new Date());
+                    return category;
+                }, category -> category.getName() + '|' + category.getDescription(),
+                        categoryRepository::create, categoryRepository::update, categoryRepository::findById,
+                        id -> { categoryRepository.delete(id); return null; }),
+                new Target<>("Event", (id, value) -> {
+                    final Event event = new Event();
+                    event.setId(id);
+                    event.setType(EventType.PUBLISH_API);
+                    event.setEnvironments(Collections.singleton("DEFAULT"));
+                    event.setPayload(value);
+                    event.setParentId(value);
+                    event.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(),
+                            "concurrency-api"));
+                    event.setCreatedAt(new Date(1439022010883L));
+                    event.setUpdatedAt(new Date());
+                    return event;
+                }, event -> event.getPayload() + '|' + event.getParentId(),
+                        eventRepository::create, eventRepository::update, eventRepository::findById,
+                        id -> { eventRepository.delete(id); return null; }),
+                new Target<>("Audit", (id, value) -> {
+                    final Audit audit = new Audit();
+                    audit.setId(id);
+                    audit.setReferenceId("concurrency-api");
+                    audit.setReferenceType(Audit.AuditReferenceType.API);
+                    audit.setEvent(value);
+                    audit.setPatch(value);
+                    audit.setUser("concurrency-user");
+                    audit.setCreatedAt(new Date());
+                    return audit;
+                }, audit -> audit.getEvent() + '|' + audit.getPatch(),
+                        auditRepository::create, auditRepository::update, auditRepository::findById,
+                        id -> { auditRepository.delete(id); return null; }),
+                new Target<>("Membership", (id, value) -> {
+                    final Membership membership = new Membership();
+                    membership.setId(id);
+                    membership.setMemberId("concurrency-user");
+                    membership.setMemberType(MembershipMemberType.USER);
+                    membership.setReferenceId("concurrency-api");
+                    membership.setReferenceType(MembershipReferenceType.API);
+                    membership.setRoleId(value);
+                    membership.setSource(value);
+                    membership.setCreatedAt(new Date(1439022010883L));
+                    membership.setUpdatedAt(new Date());
+                    return membership;
+                }, membership -> membership.getRoleId() + '|' + membership.getSource(),
+                        membershipRepository::create, membershipRepository::update, membershipRepository::findById,
+                        id -> { membershipRepository.delete(id); return null; }),
+                new Target<>("Page", (id, value) -> {
+                    final Page page = new Page();
+                    page.setId(id);
+                    page.setReferenceId("concurrency-api");
+                    page.setReferenceType(PageReferenceType.API);
+                    page.setType("MARKDOWN");
+                    page.setName(value);
+                    page.setContent(value);
+                    page.setCreatedAt(new Date(1439022010883L));
+                    page.setUpdatedAt(new Date());
+                    return page;
+                }, page -> page.getName() + '|' + page.getContent(),
+                        pageRepository::create, pageRepository::update, pageRepository::findById,
+                        id -> { pageRepository.delete(id); return null; }),
+                new Target<>("Role", (id, value) -> {
+                    final Role role = new Role();
+                    role.setId(id);
+                    role.setReferenceId("DEFAULT");
+                    role.setReferenceType(RoleReferenceType.ORGANIZATION);
+                    role.setScope(RoleScope.API);
+                    role.setName(value);
+                    role.setDescription(value);
+                    role.setPermissions(new int[0]);
+                    role.setCreatedAt(new Date(1439022010883L));
+                    role.setUpdatedAt(new Date());
+                    return role;
+                }, role -> role.getName() + '|' + role.getDescription(),
+                        roleRepository::create, roleRepository::update, roleRepository::findById,
+                        id -> { roleRepository.delete(id); return null; }),
+                new Target<>("Rating", (id, value) -> {
+                    final Rating rating = new Rating();
+                    rating.setId(id);
+                    rating.setReferenceId("concurrency-api");
+                    rating.setReferenceType(RatingReferenceType.API);
+                    rating.setUser("concurrency-user");
+                    rating.setRate((byte) 3);
+                    rating.setTitle(value);
+                    rating.setComment(value);
+                    rating.setCreatedAt(new Date(1439022010883L));
+                    rating.setUpdatedAt(new Date());
+                    return rating;
+                }, rating -> rating.getTitle() + '|' + rating.getComment(),
+                        ratingRepository::create, ratingRepository::update, ratingRepository::findById,
+                        id -> { ratingRepository.delete(id); return null; }),
+                new Target<>("RatingAnswer", (id, value) -> {
+                    final RatingAnswer answer = new RatingAnswer();
+                    answer.setId(id);
+                    answer.setRating("concurrency-rating");
+                    answer.setUser(value);
+                    answer.setComment(value);
+                    answer.setCreatedAt(new Date(1439022010883L));
+                    answer.setUpdatedAt(new Date());
+                    return answer;
+                }, answer -> answer.getUser() + '|' + answer.getComment(),
+                        ratingAnswerRepository::create, ratingAnswerRepository::update,
+                        ratingAnswerRepository::findById,
+                        id -> { ratingAnswerRepository.delete(id); return null; }),
+                new Target<>("User", (id, value) -> {
+                    final User user = new User();
+                    user.setId(id);
+                    user.setOrganizationId("DEFAULT");
+                    user.setSource("gravitee");
+                    user.setSourceId(id);
+                    user.setStatus(UserStatus.ACTIVE);
+                    user.setFirstname(value);
+                    user.setLastname(value);
+                    user.setCreatedAt(new Date(1439022010883L));
+                    user.setUpdatedAt(new Date());
+                    return user;
+                }, user -> user.getFirstname() + '|' + user.getLastname(),
+                        userRepository::create, userRepository::update, userRepository::findById,
+                        id -> { userRepository.delete(id); return null; }),
+                new Target<>("Group", (id, value) -> {
+                    final Group group = new Group();
+                    group.setId(id);
+                    group.setEnvironmentId("DEFAULT");
+                    group.setName(value);
+                    group.setApiPrimaryOwner(value);
+                    group.setCreatedAt(new Date(1439022010883L));
+                    group.setUpdatedAt(new Date());
+                    return group;
+                }, group -> group.getName() + '|' + group.getApiPrimaryOwner(),
+                        groupRepository::create, groupRepository::update, groupRepository::findById,
+                        id -> { groupRepository.delete(id); return null; }),
+                new Target<>("Environment", (id, value) -> {
+                    final Environment environment = new Environment();
+                    environment.setId(id);
+                    environment.setOrganizationId("DEFAULT");
+                    environment.setName(value);
+                    environment.setDescription(value);
+                    return environment;
+                }, environment -> environment.getName() + '|' + environment.getDescription(),
+                        environmentRepository::create, environmentRepository::update, environmentRepository::findById,
+                        id -> { environmentRepository.delete(id); return null; }),
+                new Target<>("Organization", (id, value) -> {
+                    final Organization organization = new Organization();
+                    organization.setId(id);
+                    organization.setName(value);
+                    organization.setDescription(value);
+                    return organization;
+                }, organization -> organization.getName() + '|' + organization.getDescription(),
+                        organizationRepository::create, organizationRepository::update,
+                        organizationRepository::findById,
+                        id -> { organizationRepository.delete(id); return null; }),
+                new Target<>("Dictionary", (id, value) -> {
+                    final Dictionary dictionary = new Dictionary();
+                    dictionary.setId(id);
+                    dictionary.setEnvironmentId("DEFAULT");
+                    dictionary.setType(DictionaryType.MANUAL);
+                    dictionary.setName(value);
+                    dictionary.setDescription(value);
+                    dictionary.setCreatedAt(new Date(1439022010883L));
+                    dictionary.setUpdatedAt(new Date());
+                    return dictionary;
+                }, dictionary -> dictionary.getName() + '|' + dictionary.getDescription(),
+                        dictionaryRepository::create, dictionaryRepository::update, dictionaryRepository::findById,
+                        id -> { dictionaryRepository.delete(id); return null; }),
+                new Target<>("ApiHeader", (id, value) -> {
+                    final ApiHeader header = new ApiHeader();
+                    header.setId(id);
+                    header.setEnvironmentId("DEFAULT");
+                    header.setName(value);
+                    header.setValue(value);
+                    header.setCreatedAt(new Date(1439022010883L));
+                    header.setUpdatedAt(new Date());
+                    return header;
+                }, header -> header.getName() + '|' + header.getValue(),
+                        apiHeaderRepository::create, apiHeaderRepository::update, apiHeaderRepository::findById,
+                        id -> { apiHeaderRepository.delete(id); return null; }),
+                new Target<>("Command", (id, value) -> {
+                    final Command command = new Command();
+                    command.setId(id);
+                    command.setEnvironmentId("DEFAULT");
+                    command.setFrom("concurrency-node");
+                    command.setTo(value);
+                    command.setContent(value);
+                    command.setCreatedAt(new Date(1439022010883L));
+                    command.setUpdatedAt(new Date());
+                    return command;
+                }, command -> command.getTo() + '|' + command.getContent(),
+                        commandRepository::create, commandRepository::update, commandRepository::findById,
+                        id -> { commandRepository.delete(id); return null; }),
+                new Target<>("IdentityProvider", (id, value) -> {
+                    final IdentityProvider identityProvider = new IdentityProvider();
+                    identityProvider.setId(id);
+                    identityProvider.setOrganizationId("DEFAULT");
+                    identityProvider.setType(IdentityProviderType.OIDC);
+                    identityProvider.setName(value);
+                    identityProvider.setDescription(value);
+                    identityProvider.setCreatedAt(new Date(1439022010883L));
+                    identityProvider.setUpdatedAt(new Date());
+                    return identityProvider;
+                }, identityProvider -> identityProvider.getName() + '|' + identityProvider.getDescription(),
+                        identityProviderRepository::create, identityProviderRepository::update,
+                        identityProviderRepository::findById,
+                        id -> { identityProviderRepository.delete(id); return null; }),
+                new Target<>("AlertTrigger", (id, value) -> {
+                    final AlertTrigger trigger = new AlertTrigger();
+                    trigger.setId(id);
+                    trigger.setReferenceId("concurrency-api");
+                    trigger.setReferenceType("API");
+                    trigger.setType("concurrency");
+                    trigger.setName(value);
+                    trigger.setDescription(value);
+                    trigger.setCreatedAt(new Date(1439022010883L));
+                    trigger.setUpdatedAt(new Date());
+                    return trigger;
+                }, trigger -> trigger.getName() + '|' + trigger.getDescription(),
+                        alertRepository::create, alertRepository::update, alertRepository::findById,
+                        id -> { alertRepository.delete(id); return null; }),
+                new Target<>("AlertEvent", (id, value) -> {
+                    final AlertEvent alertEvent = new AlertEvent();
+                    alertEvent.setId(id);
+                    alertEvent.setAlert(value);
+                    alertEvent.setMessage(value);
+                    alertEvent.setCreatedAt(new Date(1439022010883L));
+                    alertEvent.setUpdatedAt(new Date());
+                    return alertEvent;
+                }, alertEvent -> alertEvent.getAlert() + '|' + alertEvent.getMessage(),
+                        alertEventRepository::create, alertEventRepository::update, alertEventRepository::findById,
+                        id -> { alertEventRepository.delete(id); return null; }),
+                new Target<>("Entrypoint", (id, value) -> {
+                    final Entrypoint entrypoint = new Entrypoint();
+                    entrypoint.setId(id);
+                    entrypoint.setReferenceId("DEFAULT");
+                    entrypoint.setReferenceType(EntrypointReferenceType.ORGANIZATION);
+                    entrypoint.setValue(value);
+                    entrypoint.setTags(value);
+                    return entrypoint;
+                }, entrypoint -> entrypoint.getValue() + '|' + entrypoint.getTags(),
+                        entrypointRepository::create, entrypointRepository::update, entrypointRepository::findById,
+                        id -> { entrypointRepository.delete(id); return null; }),
+                new Target<>("Invitation", (id, value) -> {
+                    final Invitation invitation = new Invitation();
+                    invitation.setId(id);
+                    invitation.setReferenceId("concurrency-api");
+                    invitation.setReferenceType("API");
+                    invitation.setEmail(value);
+                    invitation.setApiRole(value);
+                    invitation.setCreatedAt(new Date(1439022010883L));
+                    invitation.setUpdatedAt(new Date());
+                    return invitation;
+                }, invitation -> invitation.getEmail() + '|' + invitation.getApiRole(),
+                        invitationRepository::create, invitationRepository::update, invitationRepository::findById,
+                        id -> { invitationRepository.delete(id); return null; }),
+                new Target<>("ClientRegistrationProvider", (id, value) -> {
+                    final ClientRegistrationProvider provider = new ClientRegistrationProvider();
+                    provider.setId(id);
+                    provider.setName(value);
+                    provider.setDescription(value);
+                    provider.setDiscoveryEndpoint("http://localhost/.well-known/openid-configuration");
+                    provider.setCreatedAt(new Date(1439022010883L));
+                    provider.setUpdatedAt(new Date());
+                    return provider;
+                }, provider -> provider.getName() + '|' + provider.getDescription(),
+                        clientRegistrationProviderRepository::create, clientRegistrationProviderRepository::update,
+                        clientRegistrationProviderRepository::findById,
+                        id -> { clientRegistrationProviderRepository.delete(id); return null; }),
+                new Target<>("Workflow", (id, value) -> {
+                    final Workflow workflow = new Workflow();
+                    workflow.setId(id);
+                    workflow.setReferenceId("concurrency-api");
+                    workflow.setReferenceType("API");
+                    workflow.setType("REVIEW");
+                    workflow.setUser("concurrency-user");
+                    workflow.setState(value);
+                    workflow.setComment(value);
+                    workflow.setCreatedAt(new Date());
+                    return workflow;
+                }, workflow -> workflow.getState() + '|' + workflow.getComment(),
+                        workflowRepository::create, workflowRepository::update, workflowRepository::findById,
+                        id -> { workflowRepository.delete(id); return null; }),
+                new Target<>("QualityRule", (id, value) -> {
+                    final QualityRule qualityRule = new QualityRule();
+                    qualityRule.setId(id);
+                    qualityRule.setName(value);
+                    qualityRule.setDescription(value);
+                    qualityRule.setWeight(1);
+                    qualityRule.setCreatedAt(new Date(1439022010883L));
+                    qualityRule.setUpdatedAt(new Date());
+                    return qualityRule;
+                }, qualityRule -> qualityRule.getName() + '|' + qualityRule.getDescription(),
+                        qualityRuleRepository::create, qualityRuleRepository::update, qualityRuleRepository::findById,
+                        id -> { qualityRuleRepository.delete(id); return null; }),
+                new Target<>("Dashboard", (id, value) -> {
+                    final Dashboard dashboard = new Dashboard();
+                    dashboard.setId(id);
+                    dashboard.setReferenceId("DEFAULT");
+                    dashboard.setReferenceType("PLATFORM");
+                    dashboard.setName(value);
+                    dashboard.setDefinition(value);
+                    dashboard.setCreatedAt(new Date(1439022010883L));
+                    dashboard.setUpdatedAt(new Date());
+                    return dashboard;
+                }, dashboard -> dashboard.getName() + '|' + dashboard.getDefinition(),
+                        dashboardRepository::create, dashboardRepository::update, dashboardRepository::findById,
+                        id -> { dashboardRepository.delete(id); return null; }),
+                new Target<>("Theme", (id, value) -> {
+                    final Theme theme = new Theme();
+                    theme.setId(id);
+                    theme.setReferenceId("DEFAULT");
+                    theme.setReferenceType("ENVIRONMENT");
+                    theme.setName(value);
+                    theme.setDefinition(value);
+                    theme.setCreatedAt(new Date(1439022010883L));
+                    theme.setUpdatedAt(new Date());
+                    return theme;
+                }, theme -> theme.getName() + '|' + theme.getDefinition(),
+                        themeRepository::create, themeRepository::update, themeRepository::findById,
+                        id -> { themeRepository.delete(id); return null; }),
+                new Target<>("Token", (id, value) -> {
+                    final Token token = new Token();
+                    token.setId(id);
+                    token.setReferenceId("concurrency-user");
+                    token.setReferenceType("USER");
+                    token.setName(value);
+                    token.setToken(value);
+                    token.setCreatedAt(new Date(1439022010883L));
+                    return token;
+                }, token -> token.getName() + '|' + token.getToken(),
+                        tokenRepository::create, tokenRepository::update, tokenRepository::findById,
+                        id -> { tokenRepository.delete(id); return null; }),
+                new Target<>("PortalNotification", (id, value) -> {
+                    final PortalNotification notification = new PortalNotification();
+                    notification.setId(id);
+                    notification.setUser("concurrency-user");
+                    notification.setTitle(value);
+                    notification.setMessage(value);
+                    notification.setCreatedAt(new Date(1439022010883L));
+                    return notification;
+                }, notification -> notification.getTitle() + '|' + notification.getMessage(),
+                        portalNotificationRepository::create, portalNotificationRepository::update,
+                        portalNotificationRepository::findById,
+                        id -> { portalNotificationRepository.delete(id); return null; }),
+                new Target<>("GenericNotificationConfig", (id, value) -> {
+                    final GenericNotificationConfig config = new GenericNotificationConfig();
+                    config.setId(id);
+                    config.setReferenceId("concurrency-api");
+                    config.setReferenceType(NotificationReferenceType.API);
+                    config.setNotifier("default-email");
+                    config.setName(value);
+                    config.setConfig(value);
+                    config.setCreatedAt(new Date(1439022010883L));
+                    config.setUpdatedAt(new Date());
+                    return config;
+                }, config -> config.getName() + '|' + config.getConfig(),
+                        genericNotificationConfigRepository::create, genericNotificationConfigRepository::update,
+                        genericNotificationConfigRepository::findById,
+                        id -> { genericNotificationConfigRepository.delete(id); return null; }),
+                new Target<>("NotificationTemplate", (id, value) -> {
+                    final NotificationTemplate template = new NotificationTemplate();
+                    template.setId(id);
+                    template.setReferenceId("DEFAULT");
+                    template.setReferenceType(NotificationTemplateReferenceType.ORGANIZATION);
+                    template.setHook("CONCURRENCY");
+                    template.setScope("API");
+                    template.setType(NotificationTemplateType.EMAIL);
+                    template.setTitle(value);
+                    template.setContent(value);
+                    template.setCreatedAt(new Date(1439022010883L));
+                    template.setUpdatedAt(new Date());
+                    return template;
+                }, template -> template.getTitle() + '|' + template.getContent(),
+                        notificationTemplateRepository::create, notificationTemplateRepository::update,
+                        notificationTemplateRepository::findById,
+                        id -> { notificationTemplateRepository.delete(id); return null; }),
+                new Target<>("Flow", (id, value) -> {
+                    final Flow flow = new Flow();
+                    flow.setId(id);
+                    flow.setReferenceId("DEFAULT");
+                    flow.setReferenceType(FlowReferenceType.ORGANIZATION);
+                    flow.setName(value);
+                    flow.setCondition(value);
+                    flow.setCreatedAt(new Date(1439022010883L));
+                    flow.setUpdatedAt(new Date());
+                    return flow;
+                }, flow -> flow.getName() + '|' + flow.getCondition(),
+                        flowRepository::create, flowRepository::update, flowRepository::findById,
+                        id -> { flowRepository.delete(id); return null; }),
+                new Target<>("Installation", (id, value) -> {
+                    final Installation installation = new Installation();
+                    installation.setId(id);
+                    final Map<String, String> information = new HashMap<>();
+                    information.put("first", value);
+                    information.put("second", value);
+                    installation.setAdditionalInformation(information);
+                    installation.setCreatedAt(new Date(1439022010883L));
+                    installation.setUpdatedAt(new Date());
+                    return installation;
+                }, installation -> installation.getAdditionalInformation().get("first") + '|'
+                        + installation.getAdditionalInformation().get("second"),
+                        installationRepository::create, installationRepository::update,
+                        installationRepository::findById,
+                        id -> { installationRepository.delete(id); return null; }),
+                new Target<>("Promotion", (id, value) -> {
+                    final Promotion promotion = new Promotion();
+                    promotion.setId(id);
+                    promotion.setApiId("concurrency-api");
+                    promotion.setSourceEnvCockpitId("concurrency-source");
+                    promotion.setTargetEnvCockpitId("concurrency-target");
+                    promotion.setStatus(PromotionStatus.CREATED);
+                    promotion.setApiDefinition(value);
+                    promotion.setTargetEnvName(value);
+                    promotion.setCreatedAt(new Date(1439022010883L));
+                    promotion.setUpdatedAt(new Date());
+                    return promotion;
+                }, promotion -> promotion.getApiDefinition() + '|' + promotion.getTargetEnvName(),
+                        promotionRepository::create, promotionRepository::update, promotionRepository::findById,
+                        id -> { promotionRepository.delete(id); return null; })
+        );
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Call<I, O> {
+        O call(I input) throws Exception;
+    }
+
+    private class Target<T> {
+        private final String name;
+        private final BiFunction<String, String, T> factory;
+        private final Function<T, String> reader;
+        private final Call<T, T> create;
+        private final Call<T, T> update;
+        private final Call<String, Optional<T>> findById;
+        private final Call<String, Void> delete;
+
+        private Target(String name, BiFunction<String, String, T> factory, Function<T, String> reader, Call<T, T> create,
+                       Call<T, T> update, Call<String, Optional<T>> findById, Call<String, Void> delete) {
+            this.name = name;
+            this.factory = factory;
+            this.reader = reader;
+            this.create = create;
+            this.update = update;
+            this.findById = findById;
+            this.delete = delete;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository;
+
+import io.gravitee.repository.capability.EventChanges;
+import io.gravitee.repository.capability.EventCursor;
+import io.gravitee.repository.capability.EventFeed;
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Reads the event fixtures and events created by the tests through {@link EventFeed}. It checks the order by
+ * <code>updatedAt</code> then id across pages, ties on <code>updatedAt</code>, the criteria, resuming from a cursor
+ * token, and reads while other threads create events.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventRepositoryFeedTest extends AbstractRepositoryTest {
+
+    private static final long AFTER_FIXTURES = 1470000000000L;
+
+    private EventFeed feed;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    @Before
+    public void setUpFeed() {
+        assumeTrue("The event repository doesn't implement " + EventFeed.class.getSimpleName(), eventRepository instanceof EventFeed);
+        feed = (EventFeed) eventRepository;
+    }
+
+    @Test
+    public void shouldReadAllEventsInOrder() throws Exception {
+        EventChanges changes = feed.changes(null, EventCursor.START, 3);
+        assertEquals(asList("event1", "event2", "event3"), ids(changes.getEvents()));
+
+        changes = feed.changes(null, changes.getNext(), 3);
+        assertEquals(asList("event4", "event5", "event6"), ids(changes.getEvents()));
+
+        changes = feed.changes(null, changes.getNext(), 3);
+        assertEquals(singletonList("event7"), ids(changes.getEvents()));
+
+        final EventCursor end = changes.getNext();
+        changes = feed.changes(null, end, 3);
+        assertTrue(changes.getEvents().isEmpty());
+        assertEquals("The cursor must not move when there is nothing to read", end, changes.getNext());
+    }
+
+    @Test
+    public void shouldReadTiesOnUpdatedAtOnce() throws Exception {
+        final EventCursor end = drain(null, EventCursor.START, 10).getNext();
+        for (String id : asList("tie-c", "tie-a", "tie-e", "tie-b", "tie-d")) {
+            eventRepository.create(event(id, AFTER_FIXTURES, EventType.PUBLISH_API));
+        }
+
+        final List<String> read = new ArrayList<>();
+        EventCursor cursor = end;
+        for (int i = 0; i < 3; i++) {
+            final EventChanges changes = feed.changes(null, cursor, 2);
+            assertTrue("At most 2 events must be read", changes.getEvents().size() <= 2);
+            read.addAll(ids(changes.getEvents()));
+            cursor = changes.getNext();
+        }
+        assertEquals(asList("tie-a", "tie-b", "tie-c", "tie-d", "tie-e"), read);
+        assertTrue(feed.changes(null, cursor, 2).getEvents().isEmpty());
+    }
+
+    @Test
+    public void shouldReadOnlyNewerEvents() throws Exception {
+        final EventCursor end = drain(null, EventCursor.START, 10).getNext();
+
+        eventRepository.create(event("new-event", AFTER_FIXTURES, EventType.START_API));
+        final Event updated = eventRepository.findById("event1").get();
+        updated.setUpdatedAt(new Date(AFTER_FIXTURES + 1));
+        eventRepository.update(updated);
+
+        final EventChanges changes = feed.changes(null, end, 10);
+        assertEquals(asList("new-event", "event1"), ids(changes.getEvents()));
+        assertTrue(feed.changes(null, changes.getNext(), 10).getEvents().isEmpty());
+    }
+
+    @Test
+    public void shouldFilterOnCriteria() throws Exception {
+        final List<Event> started = drain(new EventCriteria.Builder().types(EventType.START_API).build(),
+                EventCursor.START, 1).getEvents();
+        assertEquals(asList("event5", "event6"), ids(started));
+
+        final List<Event> defaultEnvironment = drain(new EventCriteria.Builder().environments(singletonList("DEFAULT")).build(),
+                EventCursor.START, 2).getEvents();
+        assertFalse(defaultEnvironment.isEmpty());
+        defaultEnvironment.forEach(event -> assertTrue(event.getEnvironments().contains("DEFAULT")));
+        assertOrdered(defaultEnvironment);
+    }
+
+    @Test
+    public void shouldResumeFromToken() throws Exception {
+        final EventChanges first = feed.changes(null, EventCursor.START, 2);
+        final EventCursor resumed = EventCursor.parse(first.getNext().toString());
+        assertEquals(first.getNext(), resumed);
+        assertEquals(asList("event3", "event4"), ids(feed.changes(null, resumed, 2).getEvents()));
+    }
+
+    /**
+     * Reads the changes while events are created concurrently. An event can only be missed when it became visible
+     * after the start of a read which moved the cursor past it: the writers are expected to set <code>updatedAt</code>
+     * when their change becomes visible, which concurrent writers can't do exactly. Every other event must be read.
+     */
+    @Test
+    public void shouldReadConcurrentInsertsInOrderAndOnce() throws Exception {
+        final int writers = 4;
+        final int eventsPerWriter = 50;
+        final AtomicLong clock = new AtomicLong(AFTER_FIXTURES);
+        final AtomicLong readsStarted = new AtomicLong();
+        final Map<String, Long> readsStartedWhenCreated = new ConcurrentHashMap<>();
+        final EventCursor end = drain(null, EventCursor.START, 10).getNext();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        final List<Future<Void>> writes = new ArrayList<>();
+        final Set<String> read = new HashSet<>();
+        // the sequence number of each read, taken before it started, and the cursor it returned
+        final List<Map.Entry<Long, EventCursor>> reads = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < writers; writer++) {
+                final int current = writer;
+                writes.add(executor.submit(inNamespace(() -> {
+                    for (int i = 0; i < eventsPerWriter; i++) {
+                        // several writers may get the same timestamp, ties are broken by the ids
+                        final String id = "concurrent-" + current + "-" + i;
+                        eventRepository.create(event(id, clock.incrementAndGet() / 2 * 2, EventType.PUBLISH_API));
+                        readsStartedWhenCreated.put(id, readsStarted.get());
+                    }
+                    return null;
+                })));
+            }
+
+            EventCursor cursor = end;
+            while (!writes.stream().allMatch(Future::isDone)) {
+                cursor = readInto(cursor, read, readsStarted, reads);
+            }
+            for (Future<Void> write : writes) {
+                write.get();
+            }
+            EventCursor previous;
+            do {
+                previous = cursor;
+                cursor = readInto(cursor, read, readsStarted, reads);
+            } while (!cursor.equals(previous));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<Event> all = drain(null, EventCursor.START, 25).getEvents();
+        assertEquals(7 + writers * eventsPerWriter, all.size());
+        assertEquals(all.size(), ids(all).stream().distinct().count());
+        assertOrdered(all);
+
+        for (Event event : all) {
+            if (!readsStartedWhenCreated.containsKey(event.getId()) || read.contains(event.getId())) {
+                continue;
+            }
+            final Map.Entry<Long, EventCursor> passed = reads.stream()
+                    .filter(each -> !each.getValue().isBefore(event.getUpdatedAt().getTime(), event.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError(event.getId() + " never read"));
+            assertTrue(event.getId() + " created before the start of the read skipping it",
+                    passed.getKey() <= readsStartedWhenCreated.get(event.getId()));
+        }
+    }
+
+    /**
+     * Reads the changes after the cursor, checking that they come after it, in order and for the first time.
+     */
+    private EventCursor readInto(final EventCursor cursor, final Set<String> read, final AtomicLong readsStarted,
+                                 final List<Map.Entry<Long, EventCursor>> reads) throws Exception {
+        final long started = readsStarted.incrementAndGet();
+        final EventChanges changes = feed.changes(null, cursor, 10);
+        EventCursor previous = cursor;
+        for (Event event : changes.getEvents()) {
+            assertTrue(event.getId() + " read before its cursor", previous.isBefore(event.getUpdatedAt().getTime(), event.getId()));
+            assertTrue(event.getId() + " read twice", read.add(event.getId()));
+            previous = EventCursor.after(event.getUpdatedAt().getTime(), event.getId());
+        }
+        assertEquals(previous, changes.getNext());
+        reads.add(new AbstractMap.SimpleImmutableEntry<>(started, changes.getNext()));
+        return changes.getNext();
+    }
+
+    /**
+     * @return all the events after the cursor, read by the given number at a time, with the cursor after the last one
+     */
+    private EventChanges drain(final EventCriteria criteria, final EventCursor from, final int limit) throws Exception {
+        final List<Event> events = new ArrayList<>();
+        EventCursor cursor = from;
+        EventChanges changes;
+        do {
+            changes = feed.changes(criteria, cursor, limit);
+            assertTrue(changes.getEvents().size() <= limit);
+            events.addAll(changes.getEvents());
+            cursor = changes.getNext();
+        } while (!changes.getEvents().isEmpty());
+        return new EventChanges(events, cursor);
+    }
+
+    private static void assertOrdered(final List<Event> events) {
+        for (int i = 1; i < events.size(); i++) {
+            final Event previous = events.get(i - 1);
+            assertTrue(events.get(i).getId() + " read out of order", EventCursor.after(previous.getUpdatedAt().getTime(), previous.getId())
+                    .isBefore(events.get(i).getUpdatedAt().getTime(), events.get(i).getId()));
+        }
+    }
+
+    private static Event event(final String id, final long updatedAt, final EventType type) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setEnvironments(singleton("DEFAULT"));
+        event.setPayload("{}");
+        event.setCreatedAt(new Date(updatedAt));
+        event.setUpdatedAt(new Date(updatedAt));
+        return event;
+    }
+
+    private static List<String> ids(final List<Event> events) {
+        return events.stream().map(Event::getId).collect(toList());
+    }
+
+}
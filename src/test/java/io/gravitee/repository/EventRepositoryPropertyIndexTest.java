@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository;
+
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.metrics.LatencyBudgetRunner;
+import io.gravitee.repository.metrics.LatencyHistogram;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Searches of the events on their properties (<code>EventCriteria.property</code>) over generated histories, checked
+ * for correctness then timed as the history grows: the latency must grow sub-linearly with the number of events, as
+ * it does when the properties are indexed, and not linearly as with a full scan.
+ *
+ * The history first holds the events of <code>tck.propertyIndex.scaleFactor</code> (0.1, that is 10,000 events),
+ * then <code>tck.propertyIndex.growth</code> (10) times more events of other APIs. The median latency of the searches
+ * on the large history must not exceed the one on the small history multiplied by the growth to the power of
+ * <code>tck.budgets.propertyIndex.exponent</code> (0.5), plus half a millisecond of noise.
+ *
+ * As it loads about 200,000 events and times the searches, it only runs with the latency budgets
+ * (<code>tck.budgets.enabled=true</code>), and not while other test classes run in parallel: it is reported as
+ * skipped otherwise. The latencies are exported with the latency budgets.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventRepositoryPropertyIndexTest extends AbstractRepositoryTest {
+
+    private static final String API_ID = Event.EventProperties.API_ID.getValue();
+    private static final int WARMUP = 50;
+    private static final int REPEAT = 100;
+    /**
+     * Latency added to the allowed one, as the variations of the shortest searches are mostly noise.
+     */
+    private static final long NOISE = 500_000L;
+
+    @Value("${tck.propertyIndex.scaleFactor:0.1}")
+    private double scaleFactor;
+
+    @Value("${tck.propertyIndex.growth:10}")
+    private int growth;
+
+    @Value("${tck.budgets.propertyIndex.exponent:0.5}")
+    private double exponent;
+
+    @Value("${tck.budgets.enabled:false}")
+    private boolean budgets;
+
+    @Value("${tck.parallel:false}")
+    private boolean parallel;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    @Before
+    public void checkEnabled() {
+        assumeTrue("The scaling of the event property searches is only checked with tck.budgets.enabled=true", budgets);
+        assumeFalse("The scaling of the event property searches can't be timed while other test classes run", parallel);
+    }
+
+    @Test
+    public void searchBySingleProperty() throws Exception {
+        final DatasetGenerator history = new DatasetGenerator.Builder().scaleFactor(scaleFactor).build();
+        final int apiCount = history.getApiCount();
+
+        assertSubLinear("searchBySingleProperty", history,
+                run -> new EventCriteria.Builder().property(API_ID, history.apiId(run % apiCount)).build(),
+                index -> index % apiCount == 0);
+    }
+
+    @Test
+    public void searchByThousandValuesProperty() throws Exception {
+        final DatasetGenerator history = new DatasetGenerator.Builder().scaleFactor(scaleFactor).build();
+        final int apiCount = history.getApiCount();
+        final int known = Math.min(10, apiCount);
+
+        assertSubLinear("searchByThousandValuesProperty", history, run -> {
+            final List<String> apiIds = new ArrayList<>(1000);
+            for (int i = 0; i < known; i++) {
+                apiIds.add(history.apiId((run + i) % apiCount));
+            }
+            while (apiIds.size() < 1000) {
+                apiIds.add("unknown-api-" + apiIds.size());
+            }
+            return new EventCriteria.Builder().property(API_ID, apiIds).build();
+        }, index -> index % apiCount < known);
+    }
+
+    /**
+     * Checks then times the searches on the history, then on the history grown with events of other APIs.
+     *
+     * @param criteria the criteria of each run
+     * @param expected whether the event at the given index of the history is found by the criteria of the first run
+     */
+    private void assertSubLinear(final String name, final DatasetGenerator history, final IntFunction<EventCriteria> criteria,
+                                 final IntPredicate expected) throws Exception {
+        createEvents(history);
+        final List<String> expectedIds = new ArrayList<>();
+        for (int index = history.getEventCount() - 1; index >= 0; index--) {
+            if (expected.test(index)) {
+                expectedIds.add(history.eventId(index));
+            }
+        }
+        assertEquals(expectedIds, ids(eventRepository.search(criteria.apply(0))));
+        final long small = measure(name, history.getEventCount(), criteria);
+
+        final DatasetGenerator others = new DatasetGenerator.Builder()
+                .scaleFactor(scaleFactor * (growth - 1))
+                .seed(history.getSeed() + 1)
+                .build();
+        createEvents(others);
+        assertEquals(expectedIds, ids(eventRepository.search(criteria.apply(0))));
+        final long large = measure(name, history.getEventCount() + others.getEventCount(), criteria);
+
+        final double allowed = small * Math.pow(growth, exponent) + NOISE;
+        assertTrue(String.format("%s grows from %.3fms to %.3fms as the history grows %d times, %.3fms allowed: "
+                        + "are the event properties indexed?", name, small / 1_000_000d, large / 1_000_000d, growth,
+                allowed / 1_000_000d), large <= allowed);
+    }
+
+    /**
+     * @return the median latency of the searches, recorded with the latency budgets
+     */
+    private long measure(final String name, final int events, final IntFunction<EventCriteria> criteria) throws Exception {
+        final List<EventCriteria> runs = new ArrayList<>(REPEAT);
+        for (int run = 0; run < REPEAT; run++) {
+            runs.add(criteria.apply(run));
+        }
+        for (int run = 0; run < WARMUP; run++) {
+            eventRepository.search(runs.get(run));
+        }
+        final LatencyHistogram histogram = LatencyBudgetRunner.BUDGETS.histogram(
+                getClass().getSimpleName() + '.' + name + '@' + events);
+        histogram.reset();
+        for (final EventCriteria run : runs) {
+            final long start = System.nanoTime();
+            eventRepository.search(run);
+            histogram.record(System.nanoTime() - start);
+        }
+        return histogram.getValueAtPercentile(50);
+    }
+
+    private void createEvents(final DatasetGenerator history) throws Exception {
+        final List<Event> batch = new ArrayList<>(BULK_SIZE);
+        for (int index = 0; index < history.getEventCount(); index++) {
+            batch.add(history.event(index));
+            if (batch.size() == BULK_SIZE) {
+                createModels(Event.class, batch);
+                batch.clear();
+            }
+        }
+        createModels(Event.class, batch);
+    }
+
+    private static List<String> ids(final List<Event> events) {
+        return events.stream().map(Event::getId).collect(toList());
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository;
+
+import io.gravitee.repository.capability.EventPurge;
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Purges the event fixtures with {@link EventPurge} at several times, then thousands of created events by small
+ * batches, and checks that the latest event of each API is still there and still found by the searches running
+ * during the purge.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventRepositoryPurgeTest extends AbstractRepositoryTest {
+
+    private static final long AFTER_FIXTURES = 1470000000000L;
+    private static final String API_ID = Event.EventProperties.API_ID.getValue();
+
+    private EventPurge purge;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    @Before
+    public void setUpPurge() {
+        assumeTrue("The event repository doesn't implement " + EventPurge.class.getSimpleName(), eventRepository instanceof EventPurge);
+        purge = (EventPurge) eventRepository;
+    }
+
+    @Test
+    public void shouldPurgeOlderEventsKeepingTheLatestOfEachApi() throws Exception {
+        assertEquals(2, purge.purge(1462060800000L, 100));
+
+        assertEquals(asList("event7", "event6", "event5", "event4", "event2"), remainingIds());
+    }
+
+    @Test
+    public void shouldKeepTheLatestEventOfEachApiOnly() throws Exception {
+        assertEquals(4, purge.purge(Long.MAX_VALUE, 100));
+
+        assertEquals(asList("event6", "event4", "event2"), remainingIds());
+    }
+
+    @Test
+    public void shouldNotPurgeNewerEvents() throws Exception {
+        assertEquals(0, purge.purge(1451606400000L, 100));
+
+        assertEquals(7, remainingIds().size());
+    }
+
+    @Test
+    public void shouldPurgeByBatches() throws Exception {
+        createEvents(10, 1000);
+
+        assertEquals(4 + 990, purge.purge(AFTER_FIXTURES + 1000, 7));
+
+        final List<String> expected = new ArrayList<>();
+        for (int i = 999; i >= 990; i--) {
+            expected.add("purged-" + i);
+        }
+        expected.addAll(asList("event6", "event4", "event2"));
+        assertEquals(expected, remainingIds());
+        assertEquals(0, purge.purge(AFTER_FIXTURES + 1000, 7));
+    }
+
+    @Test
+    public void shouldKeepTheLatestEventsVisibleToConcurrentSearches() throws Exception {
+        final int apis = 20;
+        createEvents(apis, 2000);
+        final int pollers = 4;
+        final CountDownLatch started = new CountDownLatch(pollers);
+        final AtomicBoolean purged = new AtomicBoolean();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(pollers);
+        final List<Future<Integer>> polls = new ArrayList<>();
+        try {
+            for (int poller = 0; poller < pollers; poller++) {
+                final int first = poller;
+                polls.add(executor.submit(inNamespace(() -> {
+                    int count = 0;
+                    do {
+                        final int api = (first + count) % apis;
+                        final List<Event> events = eventRepository.search(
+                                new EventCriteria.Builder().property(API_ID, "purged-api-" + api).build());
+                        assertFalse("No event left for purged-api-" + api, events.isEmpty());
+                        assertEquals("purged-" + (2000 - apis + api), events.get(0).getId());
+                        if (count++ == 0) {
+                            started.countDown();
+                        }
+                    } while (!purged.get());
+                    return count;
+                })));
+            }
+
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            try {
+                assertEquals(4 + 2000 - apis, purge.purge(AFTER_FIXTURES + 2000, 50));
+            } finally {
+                purged.set(true);
+            }
+            for (Future<Integer> poll : polls) {
+                assertTrue(poll.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(apis + 3, remainingIds().size());
+    }
+
+    /**
+     * Creates events after the fixtures, the event <code>i</code> belonging to the API <code>i % apis</code>.
+     */
+    private void createEvents(final int apis, final int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            final Event event = new Event();
+            event.setId("purged-" + i);
+            event.setType(EventType.PUBLISH_API);
+            event.setEnvironments(singleton("DEFAULT"));
+            event.setProperties(singletonMap(API_ID, "purged-api-" + i % apis));
+            event.setPayload("{}");
+            event.setCreatedAt(new Date(AFTER_FIXTURES + i));
+            event.setUpdatedAt(event.getCreatedAt());
+            eventRepository.create(event);
+        }
+    }
+
+    private List<String> remainingIds() throws Exception {
+        return eventRepository.search(new EventCriteria.Builder().build()).stream().map(Event::getId).collect(toList());
+    }
+}
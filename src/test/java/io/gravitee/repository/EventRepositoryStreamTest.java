@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository;
+
+import io.gravitee.repository.capability.EventStream;
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import io.gravitee.repository.metrics.ResourceUsage;
+import io.gravitee.repository.utils.HeapFootprint;
+import io.reactivex.subscribers.DefaultSubscriber;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compares {@link EventStream} with the <code>List</code> search, then streams a few thousand created events to check
+ * that the stream holds the backpressure, that cancelled streams leak neither threads nor file descriptors, and that
+ * the heap doesn't hold the whole result halfway through a stream.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventRepositoryStreamTest extends AbstractRepositoryTest {
+
+    private static final long AFTER_FIXTURES = 1470000000000L;
+    private static final String API_ID = Event.EventProperties.API_ID.getValue();
+
+    /**
+     * The heap and the resources of the JVM can't be measured while other test classes run.
+     */
+    @Value("${tck.parallel:false}")
+    private boolean parallel;
+
+    private EventStream stream;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    @Before
+    public void setUpStream() {
+        assumeTrue("The event repository doesn't implement " + EventStream.class.getSimpleName(), eventRepository instanceof EventStream);
+        stream = (EventStream) eventRepository;
+    }
+
+    @Test
+    public void shouldStreamInSearchOrder() throws Exception {
+        for (EventCriteria criteria : asList(
+                new EventCriteria.Builder().build(),
+                new EventCriteria.Builder().property(API_ID, asList("api-1", "api-3")).build(),
+                new EventCriteria.Builder().environments(singletonList("DEFAULT")).build(),
+                new EventCriteria.Builder().from(1451606400000L).to(1470157767000L)
+                        .types(EventType.START_API, EventType.STOP_API).build())) {
+            assertEquals(ids(eventRepository.search(criteria)), ids(stream.stream(criteria).toList().blockingGet()));
+        }
+        assertEquals(asList("event7", "event6", "event5", "event4", "event3", "event2", "event1"),
+                ids(stream.stream(null).toList().blockingGet()));
+    }
+
+    @Test
+    public void shouldStreamLargeResultsOnce() throws Exception {
+        createEvents("streamed-api", 2500, 16);
+
+        final List<Event> events = stream.stream(new EventCriteria.Builder().property(API_ID, "streamed-api").build())
+                .toList().blockingGet();
+        assertEquals(2500, events.size());
+        assertEquals(2500, ids(events).stream().distinct().count());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i).getId() + " streamed out of order",
+                    !events.get(i).getUpdatedAt().after(events.get(i - 1).getUpdatedAt()));
+        }
+    }
+
+    @Test
+    public void shouldHonourBackpressure() throws Exception {
+        createEvents("streamed-api", 2500, 16);
+
+        final TestSubscriber<Event> subscriber = stream.stream(new EventCriteria.Builder().property(API_ID, "streamed-api").build())
+                .test(0);
+        subscriber.assertNoValues().assertNotTerminated();
+
+        subscriber.request(3);
+        subscriber.awaitCount(3);
+        subscriber.assertValueCount(3).assertNoErrors().assertNotComplete();
+
+        subscriber.cancel();
+        assertTrue(subscriber.isCancelled());
+        subscriber.assertValueCount(3).assertNotTerminated();
+
+        assertEquals(10L, (long) stream.stream(null).take(10).count().blockingGet());
+    }
+
+    @Test
+    public void shouldReleaseResourcesOnCancel() throws Exception {
+        assumeFalse(parallel);
+        createEvents("streamed-api", 2500, 16);
+        final EventCriteria criteria = new EventCriteria.Builder().property(API_ID, "streamed-api").build();
+
+        cancelStreams(criteria, 20);
+        final ResourceUsage before = ResourceUsage.sample();
+        cancelStreams(criteria, 100);
+        final ResourceUsage after = ResourceUsage.sample();
+
+        assertTrue("Threads leaked by cancelled streams: " + before.getThreads() + " then " + after.getThreads(),
+                after.getThreads() - before.getThreads() < 10);
+        if (before.getFileDescriptors() >= 0) {
+            assertTrue("File descriptors leaked by cancelled streams: " + before.getFileDescriptors() + " then "
+                    + after.getFileDescriptors(), after.getFileDescriptors() - before.getFileDescriptors() < 20);
+        }
+    }
+
+    @Test
+    public void shouldStreamWithBoundedHeap() throws Exception {
+        assumeFalse(parallel);
+        final int count = 1000;
+        createEvents("heavy-api", count, 32 * 1024);
+        final EventCriteria criteria = new EventCriteria.Builder().property(API_ID, "heavy-api").build();
+        final long searched = HeapFootprint.of(eventRepository.search(criteria));
+
+        final long before = ResourceUsage.sample().getHeapAfterGc();
+        final long[] during = new long[1];
+        final int[] streamed = new int[1];
+        stream.stream(criteria).blockingSubscribe(new DefaultSubscriber<Event>() {
+            @Override
+            protected void onStart() {
+                request(1);
+            }
+
+            @Override
+            public void onNext(Event event) {
+                if (++streamed[0] == count / 2) {
+                    during[0] = ResourceUsage.sample().getHeapAfterGc();
+                }
+                request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable.getMessage());
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertEquals(count, streamed[0]);
+        assertTrue("The stream holds " + (during[0] - before) + " bytes half way, the whole result being " + searched
+                + " bytes", during[0] - before < searched / 4);
+    }
+
+    private void cancelStreams(final EventCriteria criteria, final int times) {
+        for (int i = 0; i < times; i++) {
+            stream.stream(criteria).take(1).blockingFirst();
+            stream.stream(criteria).test(0).cancel();
+        }
+    }
+
+    /**
+     * Creates events of the given API after the fixtures, five of them sharing each <code>updatedAt</code>, with a
+     * distinct payload of the given size.
+     */
+    private void createEvents(final String apiId, final int count, final int payloadSize) throws Exception {
+        final char[] payload = new char[payloadSize];
+        Arrays.fill(payload, 'a');
+        for (int i = 0; i < count; i++) {
+            final Event event = new Event();
+            event.setId(apiId + "-" + i);
+            event.setType(EventType.PUBLISH_API);
+            event.setEnvironments(singleton("DEFAULT"));
+            event.setProperties(Collections.singletonMap(API_ID, apiId));
+            payload[i % payloadSize] = (char) ('a' + i % 26);
+            event.setPayload(new String(payload));
+            event.setCreatedAt(new Date(AFTER_FIXTURES + i / 5));
+            event.setUpdatedAt(event.getCreatedAt());
+            eventRepository.create(event);
+        }
+    }
+
+    private static List<String> ids(final List<Event> events) {
+        return events.stream().map(Event::getId).collect(toList());
+    }
+}
@@ -22,6 +22,7 @@ import io.gravitee.repository.management.api.search.EventCriteria;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.Event;
 import io.gravitee.repository.management.model.EventType;
+import io.gravitee.repository.metrics.LatencyBudget;
 import org.junit.Test;
 
 import java.util.*;
@@ -166,6 +167,7 @@ public class EventRepositoryTest extends AbstractRepositoryTest {
     }
 
     @Test
+    @LatencyBudget(p99 = "50ms")
     public void searchByCollectionProperty() throws Exception {
         Page<Event> eventPage = eventRepository.search(
                 new EventCriteria.Builder()
@@ -61,6 +61,46 @@ public class FlowRepositoryTest extends AbstractRepositoryTest {
         assertEquals(flows.get(0).getOperator(), FlowOperator.STARTS_WITH);
     }
 
+    @Test
+    public void shouldFindByReferenceWithoutOneQueryPerFlow() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            Flow flow = new Flow();
+            flow.setId("flow-round-trips-" + i);
+            flow.setName("round-trips-" + i);
+            flow.setCreatedAt(new Date(1470157767000L));
+            flow.setUpdatedAt(new Date(1470157767000L));
+            flow.setEnabled(true);
+            flow.setMethods(new HashSet<>(Arrays.asList(HttpMethod.GET, HttpMethod.POST)));
+            flow.setPath("/");
+            flow.setOperator(FlowOperator.STARTS_WITH);
+            flow.setReferenceId("orga-round-trips");
+            flow.setReferenceType(FlowReferenceType.ORGANIZATION);
+            flow.setOrder(i);
+            flow.setPre(Arrays.asList(step("pre-step-1", 1), step("pre-step-2", 2)));
+            flow.setPost(Arrays.asList(step("post-step-1", 1), step("post-step-2", 2)));
+            flow.setConsumers(Arrays.asList(new FlowConsumer(FlowConsumerType.TAG, "tag-1")));
+            flowRepository.create(flow);
+        }
+
+        List<Flow> flows = assertMaxRoundTrips(5, () -> flowRepository.findByReference(FlowReferenceType.ORGANIZATION, "orga-round-trips"));
+
+        assertEquals(50, flows.size());
+        for (Flow flow : flows) {
+            assertEquals(2, flow.getPre().size());
+            assertEquals(2, flow.getPost().size());
+            assertEquals(1, flow.getConsumers().size());
+            assertEquals(2, flow.getMethods().size());
+        }
+    }
+
+    private FlowStep step(String name, int order) {
+        FlowStep step = new FlowStep();
+        step.setName(name);
+        step.setPolicy("policy");
+        step.setOrder(order);
+        return step;
+    }
+
     @Test
     public void shouldCreate() throws TechnicalException {
         Flow flow = new Flow();
@@ -18,6 +18,7 @@ package io.gravitee.repository;
 import io.gravitee.repository.config.AbstractRepositoryTest;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.media.model.Media;
+import io.gravitee.repository.utils.HeapFootprint;
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 
@@ -111,6 +112,24 @@ public class MediaRepositoryTest extends AbstractRepositoryTest {
         assertNull(optionalAfter.get().getData());
     }
 
+    @Test
+    public void shouldShrinkMediaWithoutContent() throws Exception {
+        String fileName = "stars.png";
+        byte[] fileBytes = getFileBytes(fileName);
+        String hashString = getHashString(fileBytes);
+
+        createMedia(fileName, fileBytes, fileBytes.length, hashString, "2233445566", null);
+
+        Optional<Media> withContent = mediaRepository.findByHash(hashString);
+        Optional<Media> withoutContent = mediaRepository.findByHash(hashString, false);
+        assertTrue(withContent.isPresent());
+        assertTrue(withoutContent.isPresent());
+
+        long saved = HeapFootprint.of(withContent.get()) - HeapFootprint.of(withoutContent.get());
+        assertTrue("Media without content retains " + saved + " bytes less than with its " + fileBytes.length
+                + " bytes of content", saved >= fileBytes.length);
+    }
+
     @Test
     public void shouldFindAllForAnAPI() throws Exception {
         String fileName = "stars.png";
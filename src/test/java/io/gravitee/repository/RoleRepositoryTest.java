@@ -52,6 +52,14 @@ public class RoleRepositoryTest extends AbstractRepositoryTest {
         assertEquals(4, roles.size());
     }
 
+    @Test
+    public void shouldFindAllWithoutOneQueryPerRole() throws Exception {
+        final Set<Role> roles = assertMaxRoundTrips(3, () -> roleRepository.findAll());
+
+        assertNotNull(roles);
+        assertEquals(4, roles.size());
+    }
+
     @Test
     public void shouldFindAllByReferenceIdAndReferenceType() throws Exception {
         final Set<Role> roles = roleRepository.findAllByReferenceIdAndReferenceType(REFERENCE_ID, REFERENCE_TYPE);
@@ -21,6 +21,7 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.search.SubscriptionCriteria;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.Subscription;
+import io.gravitee.repository.metrics.LatencyBudget;
 import org.junit.Test;
 
 import java.util.Date;
@@ -44,6 +45,7 @@ public class SubscriptionRepositoryTest extends AbstractRepositoryTest {
     }
 
     @Test
+    @LatencyBudget(p99 = "50ms")
     public void shouldFindByPlan() throws TechnicalException {
         List<Subscription> subscriptions = this.subscriptionRepository.search(
                 new SubscriptionCriteria.Builder()
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.config.PropertySourceRepositoryInitializer;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.metrics.RunTags;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of the repository benchmarks.
+ *
+ * The Spring context is built exactly as for {@link AbstractRepositoryTest} (same component scan, same
+ * {@link PropertySourceRepositoryInitializer}, same "test" profile) so any implementation providing a
+ * <code>TestRepositoryInitializer</code> for the TCK can be benchmarked as is. Fixtures are loaded once per trial
+ * from {@link #getTestCasesPath()}, followed by a generated dataset when a positive {@link #scaleFactor} is given
+ * (for instance <code>-p scaleFactor=10</code>).
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractRepositoryBenchmark extends AbstractRepositoryTest {
+
+    @Param("0")
+    public double scaleFactor;
+
+    @Param("42")
+    public long seed;
+
+    protected DatasetGenerator dataset;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        RunTags.scaleFactor(scaleFactor);
+        context = createContext();
+        context.refresh();
+
+        context.getAutowireCapableBeanFactory().autowireBean(this);
+        setUp();
+
+        if (scaleFactor > 0) {
+            dataset = new DatasetGenerator.Builder().scaleFactor(scaleFactor).seed(seed).build();
+            createDataset(dataset);
+        }
+    }
+
+    /**
+     * @return the context of the repositories, not refreshed yet
+     */
+    protected AnnotationConfigApplicationContext createContext() {
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("test");
+        new PropertySourceRepositoryInitializer().initialize(context);
+        context.register(ContextConfiguration.class);
+        return context;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws Exception {
+        try {
+            tearDown();
+            releaseSnapshot();
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.search.ApiKeyCriteria;
+import io.gravitee.repository.management.model.ApiKey;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+import static java.util.Collections.singleton;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiKeyRepositoryBenchmark extends AbstractRepositoryBenchmark {
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/apikey-tests/";
+    }
+
+    @Benchmark
+    public List<ApiKey> findByCriteriaWithoutTimeRange() throws TechnicalException {
+        return apiKeyRepository.findByCriteria(new ApiKeyCriteria.Builder()
+                .includeRevoked(false)
+                .plans(singleton("plan1"))
+                .build());
+    }
+
+    @Benchmark
+    public List<ApiKey> findByCriteriaWithTimeRange() throws TechnicalException {
+        return apiKeyRepository.findByCriteria(new ApiKeyCriteria.Builder()
+                .includeRevoked(false)
+                .from(1486771200000L)
+                .to(1486771400000L)
+                .plans(singleton("plan1"))
+                .build());
+    }
+
+    @Benchmark
+    public List<ApiKey> findByCriteriaWithExpireAtBetweenDates() throws TechnicalException {
+        return apiKeyRepository.findByCriteria(new ApiKeyCriteria.Builder()
+                .expireAfter(1439022010000L)
+                .expireBefore(1439022020000L)
+                .build());
+    }
+}
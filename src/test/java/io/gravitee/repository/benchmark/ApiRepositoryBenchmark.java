@@ -0,0 +1,77 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Api;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+import static io.gravitee.repository.management.model.ApiLifecycleState.PUBLISHED;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiRepositoryBenchmark extends AbstractRepositoryBenchmark {
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/api-tests/";
+    }
+
+    @Benchmark
+    public List<Api> searchAll() {
+        return apiRepository.search(new ApiCriteria.Builder().build());
+    }
+
+    @Benchmark
+    public List<Api> searchByIds() {
+        return apiRepository.search(new ApiCriteria.Builder().ids("api-to-delete", "api-to-update", "unknown").build());
+    }
+
+    @Benchmark
+    public List<Api> searchByEnvironments() {
+        return apiRepository.search(new ApiCriteria.Builder().environments(asList("DEV", "DEVS")).build());
+    }
+
+    @Benchmark
+    public List<Api> searchByGroups() {
+        return apiRepository.search(new ApiCriteria.Builder().groups("api-group", "unknown").build());
+    }
+
+    @Benchmark
+    public List<Api> searchByLifecycleStates() {
+        return apiRepository.search(new ApiCriteria.Builder().lifecycleStates(singletonList(PUBLISHED)).build());
+    }
+
+    @Benchmark
+    public List<Api> searchExcludingDefinition() {
+        return apiRepository.search(new ApiCriteria.Builder().version("1").build(),
+                new ApiFieldExclusionFilter.Builder().excludeDefinition().build());
+    }
+
+    @Benchmark
+    public Page<Api> searchByPageable() {
+        return apiRepository.search(new ApiCriteria.Builder().version("1").build(),
+                new PageableBuilder().pageNumber(0).pageSize(2).build());
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.capability.EventPurge;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.metrics.LatencyHistogram;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purges the older half of a generated history with {@link EventPurge} while gateway nodes poll
+ * <code>EventRepository.search</code> as in {@link GatewaySync}, and compares the latencies of the polls before and
+ * during the purge: as the purge deletes the events by batches, the polls should go on while it runs. The run fails
+ * when a poll waits for more than half of the purge. It is configured with system properties:
+ * <ul>
+ *     <li><code>purge.scaleFactor</code>: the size of the generated history, 1 by default (100,000 events)</li>
+ *     <li><code>purge.before</code>: the part of the history to purge, 0.5 by default</li>
+ *     <li><code>purge.batchSize</code>: the number of events deleted per batch, 1000 by default</li>
+ *     <li><code>purge.pollers</code>: the number of threads polling the events, 8 by default</li>
+ *     <li><code>purge.baseline</code>: the duration of the polls measured before the purge in seconds, after a
+ *     second of warm-up, 5 by default</li>
+ *     <li><code>purge.seed</code>: the seed of the generated history, 42 by default</li>
+ * </ul>
+ *
+ * Run it with the <code>load</code> profile and <code>-Dload.mainClass=io.gravitee.repository.benchmark.EventPurging</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventPurging extends AbstractRepositoryBenchmark {
+
+    private static final long WINDOW = TimeUnit.HOURS.toMillis(1);
+
+    private final LatencyHistogram baseline = new LatencyHistogram();
+    private final LatencyHistogram duringPurge = new LatencyHistogram();
+    private volatile LatencyHistogram polls = new LatencyHistogram();
+    private volatile boolean stopped;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    public static void main(String[] args) throws Exception {
+        final EventPurging purging = new EventPurging();
+        purging.scaleFactor = Double.parseDouble(System.getProperty("purge.scaleFactor", "1"));
+        purging.seed = Long.parseLong(System.getProperty("purge.seed", String.valueOf(DatasetGenerator.DEFAULT_SEED)));
+        final double before = Double.parseDouble(System.getProperty("purge.before", "0.5"));
+        final int batchSize = Integer.parseInt(System.getProperty("purge.batchSize", "1000"));
+        final int pollers = Integer.parseInt(System.getProperty("purge.pollers", "8"));
+        final long baselineDuration = Long.parseLong(System.getProperty("purge.baseline", "5"));
+
+        final PrintWriter writer = new PrintWriter(System.out);
+        purging.setUpTrial();
+        final ExecutorService executor = Executors.newFixedThreadPool(pollers);
+        try {
+            if (!(purging.eventRepository instanceof EventPurge)) {
+                throw new IllegalStateException("The event repository doesn't implement " + EventPurge.class.getSimpleName());
+            }
+            final List<Future<?>> running = new ArrayList<>(pollers);
+            for (int i = 0; i < pollers; i++) {
+                final int poller = i;
+                running.add(executor.submit(() -> {
+                    purging.poll(poller);
+                    return null;
+                }));
+            }
+            // the polls of the first second warm the JVM up and are not counted
+            TimeUnit.SECONDS.sleep(1);
+            purging.polls = purging.baseline;
+            TimeUnit.SECONDS.sleep(baselineDuration);
+
+            purging.polls = purging.duringPurge;
+            final long start = System.nanoTime();
+            final long deleted = ((EventPurge) purging.eventRepository).purge(
+                    DatasetGenerator.HISTORY_START + (long) (before * DatasetGenerator.HISTORY_DURATION), batchSize);
+            final long elapsed = System.nanoTime() - start;
+            purging.stopped = true;
+            for (Future<?> poller : running) {
+                poller.get();
+            }
+
+            final double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+            writer.println(String.format("Purged %d of %d events by batches of %d in %.3fs (%.0f events/s)", deleted,
+                    purging.dataset.getEventCount(), batchSize, seconds, deleted / seconds));
+            writer.println(String.format("%8s %8s %12s %10s %10s %10s", "polls", "count", "polls/s", "p50 (ms)",
+                    "p99 (ms)", "max (ms)"));
+            writer.println(line("before", purging.baseline, TimeUnit.SECONDS.toNanos(baselineDuration)));
+            writer.println(line("during", purging.duringPurge, elapsed));
+            writer.flush();
+
+            if (purging.duringPurge.getMax() > elapsed / 2) {
+                throw new IllegalStateException(String.format("A poll waited %.3fms during a purge of %.3fms: the purge "
+                        + "blocks the searches", purging.duringPurge.getMax() / 1_000_000d, elapsed / 1_000_000d));
+            }
+        } finally {
+            purging.stopped = true;
+            executor.shutdownNow();
+            purging.tearDownTrial();
+        }
+    }
+
+    /**
+     * Polls a random hour of the generated history, one environment after the other, until stopped.
+     */
+    private void poll(final int poller) throws Exception {
+        final SplittableRandom random = new SplittableRandom(seed + poller);
+        final List<String> environments = dataset.getEnvironments();
+        for (int i = 0; !stopped; i++) {
+            final long from = DatasetGenerator.HISTORY_START + (long) (random.nextDouble() * (DatasetGenerator.HISTORY_DURATION - WINDOW));
+            final LatencyHistogram histogram = polls;
+            final long start = System.nanoTime();
+            eventRepository.search(GatewaySync.syncCriteria(from, from + WINDOW, environments.get(i % environments.size())));
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    private static String line(final String phase, final LatencyHistogram histogram, final long elapsed) {
+        return String.format("%8s %8d %12.1f %10.3f %10.3f %10.3f", phase, histogram.getCount(),
+                histogram.getCount() / (elapsed / (double) TimeUnit.SECONDS.toNanos(1)),
+                histogram.getValueAtPercentile(50) / 1_000_000d, histogram.getValueAtPercentile(99) / 1_000_000d,
+                histogram.getMax() / 1_000_000d);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.capability.EventChanges;
+import io.gravitee.repository.capability.EventCursor;
+import io.gravitee.repository.capability.EventFeed;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EventRepositoryBenchmark extends AbstractRepositoryBenchmark {
+
+    private List<String> thousandApiIds;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    @Benchmark
+    public Page<Event> searchByMultipleEventType() {
+        return eventRepository.search(
+                new EventCriteria.Builder().from(1451606400000L).to(1470157767000L)
+                        .types(EventType.START_API, EventType.STOP_API).build(),
+                new PageableBuilder().pageNumber(0).pageSize(2).build());
+    }
+
+    @Benchmark
+    public Page<Event> searchByAPIId() {
+        return eventRepository.search(
+                new EventCriteria.Builder()
+                        .from(1451606400000L).to(1470157767000L)
+                        .property(Event.EventProperties.API_ID.getValue(), "api-1")
+                        .build(),
+                new PageableBuilder().pageNumber(0).pageSize(10).build());
+    }
+
+    @Benchmark
+    public List<Event> searchByCollectionProperty() {
+        return eventRepository.search(
+                new EventCriteria.Builder()
+                        .from(1451606400000L).to(1470157767000L)
+                        .property(Event.EventProperties.API_ID.getValue(), asList("api-1", "api-3"))
+                        .build());
+    }
+
+    @Benchmark
+    public List<Event> searchByEnvironments() {
+        return eventRepository.search(
+                new EventCriteria.Builder()
+                        .environments(asList("DEFAULT", "OTHER_ENV"))
+                        .build());
+    }
+
+    /**
+     * One poll of a gateway node, see {@link GatewaySync}: the last hour of the generated history, or the time range
+     * of the test fixtures when there is none.
+     */
+    @Benchmark
+    public List<Event> gatewaySync() {
+        if (dataset == null) {
+            return eventRepository.search(GatewaySync.syncCriteria(1451606400000L, 1470157767000L, "DEFAULT"));
+        }
+        final long to = DatasetGenerator.HISTORY_START + DatasetGenerator.HISTORY_DURATION;
+        return eventRepository.search(GatewaySync.syncCriteria(to - 3_600_000L, to, DatasetGenerator.DEFAULT_ENVIRONMENT));
+    }
+
+    /**
+     * The same poll with {@link EventFeed}: as a node reads the changes after its cursor instead of re-reading an hour,
+     * only the last second (the polling interval) is read, or all the test fixtures when there is no generated history.
+     *
+     * JMH can't skip a benchmark: when the repository doesn't implement {@link EventFeed}, this one fails on its first
+     * call, with the reason, and JMH goes on with the next ones.
+     */
+    @Benchmark
+    public EventChanges gatewayFeed() throws Exception {
+        if (!(eventRepository instanceof EventFeed)) {
+            throw new UnsupportedOperationException("The event repository doesn't implement "
+                    + EventFeed.class.getSimpleName() + ", skipping " + getClass().getSimpleName() + ".gatewayFeed");
+        }
+        final EventFeed eventFeed = (EventFeed) eventRepository;
+        if (dataset == null) {
+            return eventFeed.changes(GatewaySync.feedCriteria("DEFAULT"), EventCursor.START, 1000);
+        }
+        final long to = DatasetGenerator.HISTORY_START + DatasetGenerator.HISTORY_DURATION;
+        return eventFeed.changes(GatewaySync.feedCriteria(DatasetGenerator.DEFAULT_ENVIRONMENT),
+                EventCursor.after(to - 1_000L, ""), 1000);
+    }
+
+    /**
+     * The events of one API, as the history grows with the scale factor (100 events per API): an indexed search
+     * doesn't slow down with it.
+     */
+    @Benchmark
+    public List<Event> searchBySingleApiId() {
+        return eventRepository.search(new EventCriteria.Builder()
+                .property(Event.EventProperties.API_ID.getValue(), dataset == null ? "api-1" : dataset.apiId(0))
+                .build());
+    }
+
+    /**
+     * The events of a thousand APIs, ten of them existing, as the history grows with the scale factor.
+     */
+    @Benchmark
+    public List<Event> searchByThousandApiIds() {
+        if (thousandApiIds == null) {
+            final List<String> apiIds = new ArrayList<>(1000);
+            for (int i = 0; i < 10; i++) {
+                apiIds.add(dataset == null ? "api-" + i : dataset.apiId(i % dataset.getApiCount()));
+            }
+            while (apiIds.size() < 1000) {
+                apiIds.add("unknown-api-" + apiIds.size());
+            }
+            thousandApiIds = apiIds;
+        }
+        return eventRepository.search(new EventCriteria.Builder()
+                .property(Event.EventProperties.API_ID.getValue(), thousandApiIds)
+                .build());
+    }
+}
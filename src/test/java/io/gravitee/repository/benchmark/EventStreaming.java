@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.capability.EventStream;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.metrics.ResourceUsage;
+import io.reactivex.subscribers.DefaultSubscriber;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates over all the events of a generated history, with a search without bounds then with {@link EventStream},
+ * and reports the time taken and the growth of the heap after a full GC, sampled while the events are iterated. The
+ * heap grows with the history when the events are returned as a list, and should stay flat when they are streamed.
+ * It is configured with system properties:
+ * <ul>
+ *     <li><code>stream.scaleFactor</code>: the size of the generated history, 1 by default (100,000 events)</li>
+ *     <li><code>stream.sampleEvery</code>: the number of events iterated between two samples of the heap, 10000 by
+ *     default</li>
+ *     <li><code>stream.seed</code>: the seed of the generated history, 42 by default</li>
+ * </ul>
+ *
+ * Run it with the <code>load</code> profile and <code>-Dload.mainClass=io.gravitee.repository.benchmark.EventStreaming</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventStreaming extends AbstractRepositoryBenchmark {
+
+    private static final EventCriteria ALL_EVENTS = new EventCriteria.Builder().build();
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    public static void main(String[] args) throws Exception {
+        final EventStreaming streaming = new EventStreaming();
+        streaming.scaleFactor = Double.parseDouble(System.getProperty("stream.scaleFactor", "1"));
+        streaming.seed = Long.parseLong(System.getProperty("stream.seed", String.valueOf(DatasetGenerator.DEFAULT_SEED)));
+        final int sampleEvery = Integer.parseInt(System.getProperty("stream.sampleEvery", "10000"));
+
+        final PrintWriter writer = new PrintWriter(System.out);
+        streaming.setUpTrial();
+        try {
+            if (!(streaming.eventRepository instanceof EventStream)) {
+                throw new IllegalStateException("The event repository doesn't implement " + EventStream.class.getSimpleName());
+            }
+            writer.println(String.format("%8s %10s %10s %14s %18s", "mode", "events", "time (s)", "events/s", "heap growth (MB)"));
+            writer.println(streaming.search());
+            writer.println(streaming.stream(sampleEvery));
+        } finally {
+            streaming.tearDownTrial();
+        }
+        writer.flush();
+    }
+
+    private String search() throws Exception {
+        final long before = ResourceUsage.sample().getHeapAfterGc();
+        final long start = System.nanoTime();
+        final List<Event> events = eventRepository.search(ALL_EVENTS);
+        final long elapsed = System.nanoTime() - start;
+        final long growth = ResourceUsage.sample().getHeapAfterGc() - before;
+        return line("search", events.size(), elapsed, growth);
+    }
+
+    /**
+     * Streams the events one at a time, sampling the heap every given number of events.
+     */
+    private String stream(final int sampleEvery) {
+        final long before = ResourceUsage.sample().getHeapAfterGc();
+        final long[] growth = new long[1];
+        final long[] count = new long[1];
+        final long[] sampling = new long[1];
+        final long start = System.nanoTime();
+        ((EventStream) eventRepository).stream(ALL_EVENTS).blockingSubscribe(new DefaultSubscriber<Event>() {
+            @Override
+            protected void onStart() {
+                request(1);
+            }
+
+            @Override
+            public void onNext(Event event) {
+                if (++count[0] % sampleEvery == 0) {
+                    final long sampled = System.nanoTime();
+                    growth[0] = Math.max(growth[0], ResourceUsage.sample().getHeapAfterGc() - before);
+                    sampling[0] += System.nanoTime() - sampled;
+                }
+                request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                throw new IllegalStateException("Unable to stream the events", throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return line("stream", count[0], System.nanoTime() - start - sampling[0], growth[0]);
+    }
+
+    private static String line(final String mode, final long events, final long elapsed, final long growth) {
+        final double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format("%8s %10d %10.3f %14.0f %18.1f", mode, events, seconds, events / seconds,
+                growth / (1024d * 1024d));
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.capability.EventChanges;
+import io.gravitee.repository.capability.EventCursor;
+import io.gravitee.repository.capability.EventFeed;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import io.gravitee.repository.metrics.LatencyHistogram;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Simulates gateway nodes synchronizing with the management repository: each node polls
+ * <code>EventRepository.search</code> at a fixed interval with a sliding from/to window, the API deployment event
+ * types and its environment, as <code>EventRepositoryTest.searchByMultipleEventType</code> and
+ * <code>searchByEnvironmentsAll</code> do.
+ *
+ * The polls are started by the {@link LoadGenerator} at the rate of all the nodes together, the nodes taking turns, so
+ * the latencies include the time a poll waits for the backend to catch up. Each node has its own clock in the
+ * generated history, starting at a random point of it and moving forward by the polling interval at each poll, and
+ * searches the window ending at its clock: as on a gateway, consecutive windows overlap by all but the interval, so
+ * each event is returned by every poll of the window it is in. A node starts over at the beginning of the history
+ * once at its end. For each history size then each number of nodes, it reports the per-poll latencies, the
+ * throughput and the number of events returned per poll.
+ *
+ * In the <code>feed</code> mode, the nodes read the changes after their own cursor with {@link EventFeed} instead, a
+ * given number of events at a time, so that each event is read once instead of once per overlapping window. Each node
+ * starts from a random point of the history, catches up by reading full batches, then keeps its cursor as a gateway
+ * does: as the history doesn't grow during the run, its next polls find no changes.
+ *
+ * It is configured with system properties:
+ * <ul>
+ *     <li><code>sync.mode</code>: <code>window</code> (by default) or <code>feed</code></li>
+ *     <li><code>sync.nodes</code>: the numbers of gateway nodes, 10,50,100,200 by default</li>
+ *     <li><code>sync.scaleFactors</code>: the sizes of the generated history, 0.1,1 by default (SF1 is 100,000
+ *     events)</li>
+ *     <li><code>sync.interval</code>: the polling interval of each node in milliseconds, 1000 by default</li>
+ *     <li><code>sync.window</code>: the time of the history covered by each poll in seconds, 3600 by default</li>
+ *     <li><code>sync.limit</code>: the maximum number of events read per poll in the <code>feed</code> mode, 1000 by
+ *     default</li>
+ *     <li><code>sync.duration</code>: the duration of each step in seconds, 10 by default</li>
+ *     <li><code>sync.threads</code>: the number of worker threads, 64 by default</li>
+ *     <li><code>sync.seed</code>: the seed of the generated history, 42 by default</li>
+ * </ul>
+ *
+ * Run it with the <code>load</code> profile and <code>-Dload.mainClass=io.gravitee.repository.benchmark.GatewaySync</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class GatewaySync extends AbstractRepositoryBenchmark {
+
+    static final EventType[] SYNC_TYPES = {
+            EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API};
+
+    private AtomicLongArray clocks;
+    private AtomicReferenceArray<EventCursor> feedCursors;
+    private final AtomicLong turn = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private long interval;
+    private long window;
+    private boolean feed;
+    private int limit;
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/event-tests/";
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int[] nodes = Arrays.stream(System.getProperty("sync.nodes", "10,50,100,200").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        final double[] scaleFactors = Arrays.stream(System.getProperty("sync.scaleFactors", "0.1,1").split(","))
+                .map(String::trim)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        final long interval = Long.parseLong(System.getProperty("sync.interval", "1000"));
+        final long window = TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty("sync.window", "3600")));
+        final boolean feed = "feed".equals(System.getProperty("sync.mode", "window"));
+        final int limit = Integer.parseInt(System.getProperty("sync.limit", "1000"));
+        final long duration = Long.parseLong(System.getProperty("sync.duration", "10"));
+        final int threads = Integer.parseInt(System.getProperty("sync.threads", "64"));
+        final long seed = Long.parseLong(System.getProperty("sync.seed", String.valueOf(DatasetGenerator.DEFAULT_SEED)));
+
+        final PrintWriter writer = new PrintWriter(System.out);
+        final List<String> summary = new ArrayList<>();
+        summary.add(String.format("%12s %10s %6s %12s %14s %10s %10s %10s %13s", "scaleFactor", "events", "nodes",
+                "target (/s)", "throughput (/s)", "p50 (ms)", "p99 (ms)", "max (ms)", "events/poll"));
+        for (final double scaleFactor : scaleFactors) {
+            final GatewaySync sync = new GatewaySync();
+            sync.scaleFactor = scaleFactor;
+            sync.seed = seed;
+            sync.interval = interval;
+            sync.window = window;
+            sync.feed = feed;
+            sync.limit = limit;
+            sync.setUpTrial();
+            try {
+                if (feed && !(sync.eventRepository instanceof EventFeed)) {
+                    throw new IllegalStateException("The event repository doesn't implement " + EventFeed.class.getSimpleName());
+                }
+                for (final int nodeCount : nodes) {
+                    final double rate = nodeCount * (double) TimeUnit.SECONDS.toMillis(1) / interval;
+                    writer.println(String.format("Scale factor %s, %d nodes polling every %dms", scaleFactor, nodeCount, interval));
+                    final LoadGenerator.Result result = new LoadGenerator(threads, seed)
+                            .run(sync.workload(nodeCount), rate, duration, TimeUnit.SECONDS);
+                    result.report(writer);
+
+                    final LatencyHistogram latency = result.getStats().get(sync.operation()).getLatency();
+                    summary.add(String.format("%12s %10d %6d %12.1f %14.1f %10.3f %10.3f %10.3f %13.1f", scaleFactor,
+                            sync.dataset.getEventCount(), nodeCount, rate, result.getThroughput(),
+                            latency.getValueAtPercentile(50) / 1_000_000d, latency.getValueAtPercentile(99) / 1_000_000d,
+                            latency.getMax() / 1_000_000d,
+                            latency.getCount() == 0 ? 0 : sync.events.get() / (double) latency.getCount()));
+                }
+            } finally {
+                sync.tearDownTrial();
+            }
+        }
+        summary.forEach(writer::println);
+        writer.flush();
+    }
+
+    /**
+     * Polls of the given number of nodes, node <code>i</code> synchronizing the environment <code>i % 3</code> of the
+     * generated history from a random point of it.
+     */
+    protected Workload workload(final int nodeCount) {
+        clocks = new AtomicLongArray(nodeCount);
+        feedCursors = new AtomicReferenceArray<>(nodeCount);
+        final SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < nodeCount; i++) {
+            final long start = DatasetGenerator.HISTORY_START + (long) (random.nextDouble() * DatasetGenerator.HISTORY_DURATION);
+            clocks.set(i, Math.max(start, firstWindowEnd()));
+            feedCursors.set(i, EventCursor.after(start, ""));
+        }
+        turn.set(0);
+        events.set(0);
+        return new Workload.Builder()
+                .operation(operation(), 1, r -> {
+                    final int node = (int) (turn.getAndIncrement() % nodeCount);
+                    if (feed) {
+                        pollChanges(node);
+                    } else {
+                        poll(node);
+                    }
+                })
+                .build();
+    }
+
+    private String operation() {
+        return feed ? "EventFeed.changes" : "EventRepository.search";
+    }
+
+    /**
+     * Searches the window ending at the clock of the node, then moves the clock forward by the polling interval.
+     */
+    private void poll(final int node) throws Exception {
+        final long to = clocks.getAndUpdate(node, clock -> {
+            final long next = clock + interval;
+            return next > DatasetGenerator.HISTORY_START + DatasetGenerator.HISTORY_DURATION ? firstWindowEnd() : next;
+        });
+        final List<Event> found = eventRepository.search(syncCriteria(to - window, to,
+                dataset.getEnvironments().get(node % dataset.getEnvironments().size())));
+        events.addAndGet(found.size());
+    }
+
+    /**
+     * @return the end of the first window fully in the history
+     */
+    private long firstWindowEnd() {
+        return DatasetGenerator.HISTORY_START + Math.min(window, DatasetGenerator.HISTORY_DURATION);
+    }
+
+    /**
+     * Reads the next changes of the node and moves its cursor after them, the cursor staying where it is when there
+     * are none. As the polls of a node may overlap when the calls fall behind the arrival rate, the cursor is only
+     * moved forward: a poll finishing after a later one doesn't move it back.
+     */
+    private void pollChanges(final int node) throws Exception {
+        final EventChanges changes = ((EventFeed) eventRepository).changes(
+                feedCriteria(dataset.getEnvironments().get(node % dataset.getEnvironments().size())),
+                feedCursors.get(node), limit);
+        final EventCursor next = changes.getNext();
+        feedCursors.accumulateAndGet(node, next,
+                (current, read) -> current.isBefore(read.getUpdatedAt(), read.getId()) ? read : current);
+        events.addAndGet(changes.getEvents().size());
+    }
+
+    /**
+     * The criteria of a gateway synchronizing the given environment.
+     */
+    static EventCriteria syncCriteria(final long from, final long to, final String environment) {
+        return new EventCriteria.Builder()
+                .from(from)
+                .to(to)
+                .types(SYNC_TYPES)
+                .environments(singletonList(environment))
+                .build();
+    }
+
+    /**
+     * The criteria of a gateway reading the changes of the given environment from a cursor.
+     */
+    static EventCriteria feedCriteria(final String environment) {
+        return new EventCriteria.Builder()
+                .types(SYNC_TYPES)
+                .environments(singletonList(environment))
+                .build();
+    }
+}
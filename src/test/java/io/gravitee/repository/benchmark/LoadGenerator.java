@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.metrics.LatencyHistogram;
+
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load generator: the operations of a {@link Workload} are started at a fixed arrival rate, whatever the
+ * time the previous ones take, by a pool of worker threads.
+ *
+ * The latency of each call is measured from the time it was supposed to start, not from the time a worker picked it
+ * up: when the repository can't keep up, the queueing delay is part of the latency instead of being hidden by a
+ * slower arrival rate (coordinated omission). The service time, measured from the actual start of the call, is
+ * reported next to it. The operations still queued when the pending ones are no longer waited for are not run: their
+ * latency is recorded up to that time, so that an overloaded step doesn't look faster than it is.
+ *
+ * @author GraviteeSource Team
+ */
+public class LoadGenerator {
+
+    private final int threads;
+    private final long seed;
+
+    public LoadGenerator(final int threads, final long seed) {
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Runs the workload at each rate in turn, writing the report of each step.
+     */
+    public void ramp(final Workload workload, final double[] rates, final long duration, final TimeUnit unit,
+                     final PrintWriter writer) throws InterruptedException {
+        for (final double rate : rates) {
+            run(workload, rate, duration, unit).report(writer);
+        }
+    }
+
+    /**
+     * Runs the workload at the given rate (operations per second) during the given duration, then waits for the
+     * pending operations as long again at most.
+     *
+     * @throws IllegalArgumentException if the rate is not positive or above one operation per nanosecond
+     */
+    public Result run(final Workload workload, final double rate, final long duration, final TimeUnit unit)
+            throws InterruptedException {
+        final long period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        if (!(rate > 0) || period <= 0) {
+            throw new IllegalArgumentException("The rate must be between 0 and 1e9 operations per second: " + rate);
+        }
+        final Result result = new Result(workload, rate);
+        final SplittableRandom random = new SplittableRandom(seed);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "load-" + result.threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final long start = System.nanoTime();
+        final long end = start + unit.toNanos(duration);
+        try {
+            for (long intendedStart = start; intendedStart < end; intendedStart += period) {
+                final long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                final Workload.Operation operation = workload.next(random);
+                final SplittableRandom operationRandom = random.split();
+                result.scheduled.incrementAndGet();
+                executor.execute(new Call(result, operation, operationRandom, intendedStart));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(duration, unit)) {
+            final List<Runnable> dropped = executor.shutdownNow();
+            final long now = System.nanoTime();
+            for (final Runnable call : dropped) {
+                ((Call) call).drop(now);
+            }
+        }
+        result.elapsed = System.nanoTime() - start;
+        return result;
+    }
+
+    private static class Call implements Runnable {
+
+        private final Result result;
+        private final Workload.Operation operation;
+        private final SplittableRandom random;
+        private final long intendedStart;
+
+        private Call(final Result result, final Workload.Operation operation, final SplittableRandom random,
+                     final long intendedStart) {
+            this.result = result;
+            this.operation = operation;
+            this.random = random;
+            this.intendedStart = intendedStart;
+        }
+
+        @Override
+        public void run() {
+            result.call(operation, random, intendedStart);
+        }
+
+        private void drop(final long now) {
+            result.drop(operation, intendedStart, now);
+        }
+    }
+
+    public static class Result {
+
+        private final double rate;
+        private final Map<String, Stats> stats = new LinkedHashMap<>();
+        private final AtomicInteger threadCount = new AtomicInteger();
+        private final AtomicLong scheduled = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile long elapsed;
+
+        private Result(final Workload workload, final double rate) {
+            this.rate = rate;
+            for (final Workload.Operation operation : workload.getOperations()) {
+                stats.put(operation.getName(), new Stats());
+            }
+        }
+
+        private void call(final Workload.Operation operation, final SplittableRandom random, final long intendedStart) {
+            final Stats operationStats = stats.get(operation.getName());
+            final long actualStart = System.nanoTime();
+            try {
+                operation.getCall().call(random);
+            } catch (Exception e) {
+                operationStats.errors.incrementAndGet();
+            }
+            final long now = System.nanoTime();
+            operationStats.latency.record(now - intendedStart);
+            operationStats.service.record(now - actualStart);
+            completed.incrementAndGet();
+        }
+
+        private void drop(final Workload.Operation operation, final long intendedStart, final long now) {
+            final Stats operationStats = stats.get(operation.getName());
+            operationStats.latency.record(now - intendedStart);
+            operationStats.dropped.incrementAndGet();
+            dropped.incrementAndGet();
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public long getScheduled() {
+            return scheduled.get();
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        /**
+         * @return the operations still queued at the end of the step, which were not run
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * @return the completed operations per second
+         */
+        public double getThroughput() {
+            return elapsed == 0 ? 0 : completed.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        }
+
+        public Map<String, Stats> getStats() {
+            return stats;
+        }
+
+        public void report(final PrintWriter writer) {
+            writer.println(String.format(
+                    "Target rate %.0f/s, throughput %.1f/s, %d scheduled, %d dropped, %d not completed", rate,
+                    getThroughput(), getScheduled(), getDropped(), getScheduled() - getCompleted() - getDropped()));
+            writer.println(String.format("  %-40s %8s %7s %7s %12s %12s %12s %12s %12s", "operation", "count",
+                    "errors", "dropped", "p50 (ms)", "p99 (ms)", "p99.9 (ms)", "max (ms)", "svc p99 (ms)"));
+            for (final Map.Entry<String, Stats> entry : stats.entrySet()) {
+                final LatencyHistogram latency = entry.getValue().latency;
+                writer.println(String.format("  %-40s %8d %7d %7d %12.3f %12.3f %12.3f %12.3f %12.3f",
+                        entry.getKey(), latency.getCount(), entry.getValue().errors.get(),
+                        entry.getValue().dropped.get(), millis(latency.getValueAtPercentile(50)),
+                        millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                        millis(latency.getMax()), millis(entry.getValue().service.getValueAtPercentile(99))));
+            }
+            writer.flush();
+        }
+
+        private static double millis(final long nanos) {
+            return nanos / 1_000_000d;
+        }
+    }
+
+    public static class Stats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        /**
+         * @return the latencies from the intended start of the calls, up to the end of the step for the dropped ones
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return the latencies from the actual start of the calls
+         */
+        public LatencyHistogram getService() {
+            return service;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipMemberType;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MembershipRepositoryBenchmark extends AbstractRepositoryBenchmark {
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/membership-tests/";
+    }
+
+    @Benchmark
+    public Set<Membership> findByReferenceAndRoleId() throws TechnicalException {
+        return membershipRepository.findByReferenceAndRoleId(MembershipReferenceType.API, "api1", null);
+    }
+
+    @Benchmark
+    public Set<Membership> findByReferencesAndRoleId() throws TechnicalException {
+        return membershipRepository.findByReferencesAndRoleId(MembershipReferenceType.API, asList("api2", "api3"), "API_OWNER");
+    }
+
+    @Benchmark
+    public Set<Membership> findByMemberIdAndMemberTypeAndReferenceType() throws TechnicalException {
+        return membershipRepository.findByMemberIdAndMemberTypeAndReferenceType("user1", MembershipMemberType.USER, MembershipReferenceType.API);
+    }
+
+    @Benchmark
+    public Set<Membership> findByMemberIdsAndMemberTypeAndReferenceType() throws TechnicalException {
+        return membershipRepository.findByMemberIdsAndMemberTypeAndReferenceType(asList("user2", "user3"), MembershipMemberType.USER, MembershipReferenceType.API);
+    }
+}
@@ -0,0 +1,490 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.config.AbstractRepositoryTest;
+import io.gravitee.repository.config.PropertySourceRepositoryInitializer;
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.api.search.*;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.*;
+import io.gravitee.repository.metrics.LatencyHistogram;
+import io.gravitee.repository.metrics.ThreadAllocations;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+
+import java.beans.PropertyDescriptor;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+
+/**
+ * Loads the same generated dataset into two implementations, replays the same randomized stream of queries against
+ * both, and reports the queries whose results differ along with a side by side comparison of their latencies and of
+ * the bytes they allocate.
+ *
+ * Each implementation is the Spring context built from the test configuration & data initializer classes (whose name
+ * contains 'Test') found in a base package, for instance <code>io.gravitee.repository.mongodb</code> and
+ * <code>io.gravitee.repository.jdbc</code>. It is configured with system properties:
+ * <ul>
+ *     <li><code>diff.left</code> and <code>diff.right</code>: the base packages of the two implementations, both
+ *     <code>io.gravitee.repository.config</code> (the in-memory repositories) by default</li>
+ *     <li><code>diff.queries</code>: the number of compared queries, 10,000 by default</li>
+ *     <li><code>diff.warmup</code>: the number of queries run first, whose latencies are not reported, 1,000 by
+ *     default</li>
+ *     <li><code>diff.scaleFactor</code> and <code>diff.seed</code>: the generated dataset and the query stream, 0.1
+ *     and 42 by default</li>
+ *     <li><code>diff.mismatches</code>: the number of mismatches printed in full, 10 by default</li>
+ * </ul>
+ * The run fails when any query returns different results, an exception thrown by both implementations with the same
+ * type being considered the same result.
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryDiff extends AbstractRepositoryBenchmark {
+
+    public static final String DEFAULT_PACKAGE = "io.gravitee.repository.config";
+
+    private static final int PAGE_SIZE = 10;
+    private static final int MISMATCH_CONTEXT = 120;
+
+    private final String basePackage;
+
+    public RepositoryDiff(final String basePackage) {
+        this.basePackage = basePackage;
+    }
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/apikey-tests/";
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(new RepositoryDiff(System.getProperty("diff.left", DEFAULT_PACKAGE)),
+                new RepositoryDiff(System.getProperty("diff.right", DEFAULT_PACKAGE)));
+    }
+
+    protected static void run(final RepositoryDiff left, final RepositoryDiff right) throws Exception {
+        final double scaleFactor = Double.parseDouble(System.getProperty("diff.scaleFactor", "0.1"));
+        final long seed = Long.parseLong(System.getProperty("diff.seed", String.valueOf(DatasetGenerator.DEFAULT_SEED)));
+        final int queries = Integer.parseInt(System.getProperty("diff.queries", "10000"));
+        final int warmup = Integer.parseInt(System.getProperty("diff.warmup", "1000"));
+        final int printed = Integer.parseInt(System.getProperty("diff.mismatches", "10"));
+
+        for (final RepositoryDiff side : Arrays.asList(left, right)) {
+            side.scaleFactor = scaleFactor;
+            side.seed = seed;
+        }
+        final long mismatches;
+        left.setUpTrial();
+        try {
+            right.setUpTrial();
+            try {
+                mismatches = left.compare(right, queries, warmup, printed, new PrintWriter(System.out));
+            } finally {
+                right.tearDownTrial();
+            }
+        } finally {
+            left.tearDownTrial();
+        }
+        if (mismatches > 0) {
+            throw new IllegalStateException(mismatches + " queries returned different results");
+        }
+    }
+
+    /**
+     * Only the configuration classes of {@link #basePackage} are loaded, so that several implementations can be on
+     * the classpath.
+     */
+    @Override
+    protected AnnotationConfigApplicationContext createContext() {
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("test");
+        new PropertySourceRepositoryInitializer().initialize(context);
+        final ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(context, false);
+        scanner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*Test.*")));
+        scanner.addExcludeFilter(new AssignableTypeFilter(AbstractRepositoryTest.class));
+        scanner.addExcludeFilter(new AssignableTypeFilter(ContextConfiguration.class));
+        scanner.scan(basePackage);
+        return context;
+    }
+
+    /**
+     * @return the number of queries whose results differ
+     */
+    public long compare(final RepositoryDiff other, final int queries, final int warmup, final int printed,
+                        final PrintWriter out) {
+        final List<Operation> operations = operations();
+        final int totalWeight = operations.stream().mapToInt(operation -> operation.weight).sum();
+        final Map<String, Comparison> comparisons = new TreeMap<>();
+        final SplittableRandom random = new SplittableRandom(seed);
+        long mismatches = 0;
+
+        for (int i = 0; i < warmup + queries; i++) {
+            final Operation operation = pick(operations, random.nextInt(totalWeight));
+            final Map<String, Object> parameters = new LinkedHashMap<>();
+            final Query query = operation.factory.create(random, parameters);
+
+            // alternate which side goes first so that neither one always runs on a warmer cache
+            final Outcome mine;
+            final Outcome theirs;
+            if (i % 2 == 0) {
+                mine = execute(query);
+                theirs = other.execute(query);
+            } else {
+                theirs = other.execute(query);
+                mine = execute(query);
+            }
+
+            final Comparison comparison = comparisons.computeIfAbsent(operation.name, name -> new Comparison());
+            if (i >= warmup) {
+                comparison.record(mine, theirs);
+            }
+            if (!mine.result.equals(theirs.result)) {
+                comparison.mismatches++;
+                if (mismatches++ < printed) {
+                    printMismatch(out, other, operation.name, parameters, mine.result, theirs.result);
+                }
+            }
+        }
+
+        printReport(out, other, comparisons, mismatches);
+        return mismatches;
+    }
+
+    /**
+     * The queries replayed against both implementations, subclasses can override it to add their own.
+     */
+    protected List<Operation> operations() {
+        final List<Operation> operations = new ArrayList<>();
+        operations.add(new Operation("ApiRepository.search", 20, (random, parameters) -> {
+            final ApiCriteria.Builder criteria = new ApiCriteria.Builder();
+            if (random.nextBoolean()) {
+                criteria.environmentId(parameter(parameters, "environmentId", environment(random)));
+            }
+            switch (random.nextInt(4)) {
+                case 0:
+                    criteria.version(parameter(parameters, "version", String.valueOf(1 + random.nextInt(3))));
+                    break;
+                case 1:
+                    criteria.label(parameter(parameters, "label", "label-" + random.nextInt(10)));
+                    break;
+                case 2:
+                    criteria.category(parameter(parameters, "category", "category-" + random.nextInt(10)));
+                    break;
+                default:
+                    criteria.visibility(parameter(parameters, "visibility", random.nextBoolean() ? Visibility.PUBLIC : Visibility.PRIVATE));
+            }
+            final ApiCriteria built = criteria.build();
+            final Pageable pageable = pageable(random, parameters);
+            return side -> side.apiRepository.search(built, pageable);
+        }));
+        operations.add(new Operation("EventRepository.search", 25, (random, parameters) -> {
+            final long from = DatasetGenerator.HISTORY_START + (long) (random.nextDouble() * DatasetGenerator.HISTORY_DURATION);
+            final EventCriteria.Builder criteria = new EventCriteria.Builder()
+                    .from(parameter(parameters, "from", from))
+                    .to(parameter(parameters, "to", from + (long) (random.nextDouble() * DatasetGenerator.HISTORY_DURATION / 4)))
+                    .property(Event.EventProperties.API_ID.getValue(), parameter(parameters, "api", apiId(random)));
+            if (random.nextBoolean()) {
+                criteria.types(parameter(parameters, "type", random.nextBoolean() ? EventType.PUBLISH_API : EventType.START_API));
+            }
+            final EventCriteria built = criteria.build();
+            final Pageable pageable = pageable(random, parameters);
+            return side -> side.eventRepository.search(built, pageable);
+        }));
+        operations.add(new Operation("SubscriptionRepository.search", 15, (random, parameters) -> {
+            final SubscriptionCriteria.Builder criteria = new SubscriptionCriteria.Builder();
+            if (random.nextBoolean()) {
+                criteria.apis(singleton(parameter(parameters, "api", apiId(random))));
+            } else {
+                criteria.applications(singleton(parameter(parameters, "application",
+                        dataset.applicationId(random.nextInt(dataset.getApplicationCount())))));
+            }
+            if (random.nextBoolean()) {
+                criteria.statuses(singleton(parameter(parameters, "status", Subscription.Status.ACCEPTED)));
+            }
+            final SubscriptionCriteria built = criteria.build();
+            return side -> side.subscriptionRepository.search(built);
+        }));
+        operations.add(new Operation("ApiKeyRepository.findByCriteria", 15, (random, parameters) -> {
+            final ApiKeyCriteria built = new ApiKeyCriteria.Builder()
+                    .plans(singleton(parameter(parameters, "plan", dataset.planId(2 * random.nextInt(dataset.getApiCount())))))
+                    .includeRevoked(parameter(parameters, "includeRevoked", random.nextBoolean()))
+                    .build();
+            return side -> side.apiKeyRepository.findByCriteria(built);
+        }));
+        operations.add(new Operation("AuditRepository.search", 10, (random, parameters) -> {
+            final AuditCriteria.Builder criteria = new AuditCriteria.Builder()
+                    .references(Audit.AuditReferenceType.API, singletonList(parameter(parameters, "api", apiId(random))));
+            if (random.nextBoolean()) {
+                criteria.events(singletonList(parameter(parameters, "event", Api.AuditEvent.API_UPDATED.name())));
+            }
+            final AuditCriteria built = criteria.build();
+            final Pageable pageable = pageable(random, parameters);
+            return side -> side.auditRepository.search(built, pageable);
+        }));
+        operations.add(new Operation("ApplicationRepository.search", 5, (random, parameters) -> {
+            final ApplicationCriteria built = new ApplicationCriteria.Builder()
+                    .name(parameter(parameters, "name", "application-" + random.nextInt(10)))
+                    .environmentIds(singletonList(parameter(parameters, "environmentId", environment(random))))
+                    .build();
+            final Pageable pageable = pageable(random, parameters);
+            return side -> side.applicationRepository.search(built, pageable);
+        }));
+        operations.add(new Operation("MembershipRepository.findByMemberIdAndMemberTypeAndReferenceType", 5, (random, parameters) -> {
+            final String user = parameter(parameters, "user", dataset.userId(random.nextInt(dataset.getUserCount())));
+            final MembershipReferenceType referenceType = parameter(parameters, "referenceType",
+                    random.nextBoolean() ? MembershipReferenceType.API : MembershipReferenceType.APPLICATION);
+            return side -> side.membershipRepository.findByMemberIdAndMemberTypeAndReferenceType(user, MembershipMemberType.USER, referenceType);
+        }));
+        operations.add(new Operation("UserRepository.search", 5, (random, parameters) -> {
+            final UserCriteria built = new UserCriteria.Builder()
+                    .statuses(parameter(parameters, "status", random.nextBoolean() ? UserStatus.ACTIVE : UserStatus.PENDING))
+                    .build();
+            final Pageable pageable = pageable(random, parameters);
+            return side -> side.userRepository.search(built, pageable);
+        }));
+        return operations;
+    }
+
+    @FunctionalInterface
+    protected interface Query {
+
+        Object call(RepositoryDiff side) throws Exception;
+    }
+
+    @FunctionalInterface
+    protected interface QueryFactory {
+
+        /**
+         * @param parameters where to put the random parameters of the query, printed with its mismatches
+         */
+        Query create(SplittableRandom random, Map<String, Object> parameters);
+    }
+
+    protected static class Operation {
+
+        private final String name;
+        private final int weight;
+        private final QueryFactory factory;
+
+        public Operation(final String name, final int weight, final QueryFactory factory) {
+            this.name = name;
+            this.weight = weight;
+            this.factory = factory;
+        }
+    }
+
+    protected static <T> T parameter(final Map<String, Object> parameters, final String name, final T value) {
+        parameters.put(name, value);
+        return value;
+    }
+
+    private String apiId(final SplittableRandom random) {
+        return dataset.apiId(random.nextInt(dataset.getApiCount()));
+    }
+
+    private String environment(final SplittableRandom random) {
+        return dataset.getEnvironments().get(random.nextInt(dataset.getEnvironments().size()));
+    }
+
+    private static Pageable pageable(final SplittableRandom random, final Map<String, Object> parameters) {
+        return new PageableBuilder().pageNumber(parameter(parameters, "page", random.nextInt(3))).pageSize(PAGE_SIZE).build();
+    }
+
+    private static Operation pick(final List<Operation> operations, final int value) {
+        int cumulated = 0;
+        for (final Operation operation : operations) {
+            cumulated += operation.weight;
+            if (value < cumulated) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("No operation for " + value);
+    }
+
+    private Outcome execute(final Query query) {
+        final long allocatedBefore = ThreadAllocations.allocatedBytes();
+        final long start = System.nanoTime();
+        Object result;
+        try {
+            result = query.call(this);
+        } catch (Exception e) {
+            result = e;
+        }
+        final long latency = System.nanoTime() - start;
+        final long allocated = ThreadAllocations.allocatedBytes() - allocatedBefore;
+        return new Outcome(latency, allocated, result instanceof Exception ? "error " + result.getClass().getName() : render(result));
+    }
+
+    private static final class Outcome {
+
+        private final long latency;
+        private final long allocated;
+        private final String result;
+
+        private Outcome(final long latency, final long allocated, final String result) {
+            this.latency = latency;
+            this.allocated = allocated;
+            this.result = result;
+        }
+    }
+
+    private static final class Comparison {
+
+        private final LatencyHistogram mine = new LatencyHistogram();
+        private final LatencyHistogram theirs = new LatencyHistogram();
+        private long myAllocations;
+        private long theirAllocations;
+        private long mismatches;
+
+        private void record(final Outcome mine, final Outcome theirs) {
+            this.mine.record(mine.latency);
+            this.theirs.record(theirs.latency);
+            myAllocations += mine.allocated;
+            theirAllocations += theirs.allocated;
+        }
+    }
+
+    /**
+     * Renders a result so that two equal results have the same rendering whatever the implementation: the models are
+     * rendered property by property, the sets and the maps sorted.
+     */
+    static String render(final Object result) {
+        final StringBuilder rendering = new StringBuilder();
+        render(result, rendering);
+        return rendering.toString();
+    }
+
+    private static void render(final Object value, final StringBuilder rendering) {
+        if (value instanceof Optional) {
+            render(((Optional<?>) value).orElse(null), rendering);
+        } else if (value instanceof Date) {
+            rendering.append(((Date) value).getTime());
+        } else if (value instanceof Page) {
+            final Page<?> page = (Page<?>) value;
+            rendering.append("Page{pageNumber=").append(page.getPageNumber())
+                    .append(", pageElements=").append(page.getPageElements())
+                    .append(", totalElements=").append(page.getTotalElements())
+                    .append(", content=");
+            render(page.getContent(), rendering);
+            rendering.append('}');
+        } else if (value instanceof Map) {
+            final SortedMap<String, String> entries = new TreeMap<>();
+            ((Map<?, ?>) value).forEach((key, entry) -> entries.put(render(key), render(entry)));
+            rendering.append(entries);
+        } else if (value instanceof List) {
+            rendering.append('[');
+            for (final Object element : (List<?>) value) {
+                render(element, rendering);
+                rendering.append(", ");
+            }
+            rendering.append(']');
+        } else if (value instanceof Collection) {
+            final List<String> elements = new ArrayList<>();
+            ((Collection<?>) value).forEach(element -> elements.add(render(element)));
+            Collections.sort(elements);
+            rendering.append(elements);
+        } else if (value != null && value.getClass().getName().startsWith("io.gravitee.repository.")) {
+            renderModel(value, rendering);
+        } else {
+            rendering.append(value);
+        }
+    }
+
+    private static void renderModel(final Object model, final StringBuilder rendering) {
+        final Class<?> modelClass = modelClass(model.getClass());
+        rendering.append(modelClass.getSimpleName()).append('{');
+        final PropertyDescriptor[] properties = BeanUtils.getPropertyDescriptors(modelClass);
+        Arrays.sort(properties, Comparator.comparing(PropertyDescriptor::getName));
+        for (final PropertyDescriptor property : properties) {
+            if (property.getReadMethod() != null && !"class".equals(property.getName())) {
+                rendering.append(property.getName()).append('=');
+                try {
+                    render(property.getReadMethod().invoke(model), rendering);
+                } catch (ReflectiveOperationException e) {
+                    rendering.append("error ").append(e.getClass().getName());
+                }
+                rendering.append(", ");
+            }
+        }
+        rendering.append('}');
+    }
+
+    /**
+     * @return the class of the model, and not the one generated for its proxy or its mock
+     */
+    private static Class<?> modelClass(final Class<?> type) {
+        Class<?> modelClass = type;
+        while (modelClass.getSuperclass() != null
+                && (modelClass.getName().contains("$$") || modelClass.getName().contains("$MockitoMock$"))) {
+            modelClass = modelClass.getSuperclass();
+        }
+        return modelClass;
+    }
+
+    private void printMismatch(final PrintWriter out, final RepositoryDiff other, final String name, final Map<String, Object> parameters,
+                               final String mine, final String theirs) {
+        int position = 0;
+        while (position < mine.length() && position < theirs.length() && mine.charAt(position) == theirs.charAt(position)) {
+            position++;
+        }
+        out.println("Mismatch on " + name + " " + parameters + " at character " + position + ":");
+        out.println("  " + basePackage + ": " + excerpt(mine, position));
+        out.println("  " + other.basePackage + ": " + excerpt(theirs, position));
+        out.flush();
+    }
+
+    private static String excerpt(final String rendering, final int position) {
+        final int from = Math.max(0, position - MISMATCH_CONTEXT);
+        final int to = Math.min(rendering.length(), position + MISMATCH_CONTEXT);
+        return (from > 0 ? "..." : "") + rendering.substring(from, to) + (to < rendering.length() ? "..." : "");
+    }
+
+    private void printReport(final PrintWriter out, final RepositoryDiff other, final Map<String, Comparison> comparisons,
+                             final long mismatches) {
+        out.println(String.format("Left: %s, right: %s, %d mismatches", basePackage, other.basePackage, mismatches));
+        out.println(String.format("  %-62s %7s %10s %12s %12s %12s %12s %8s %12s %12s", "operation", "count", "mismatches",
+                "left p50", "left p99", "right p50", "right p99", "p99 x", "left B/call", "right B/call"));
+        comparisons.forEach((name, comparison) -> {
+            final long count = comparison.mine.getCount();
+            final long myP99 = comparison.mine.getValueAtPercentile(99);
+            final long theirP99 = comparison.theirs.getValueAtPercentile(99);
+            out.println(String.format("  %-62s %7d %10d %9.3f ms %9.3f ms %9.3f ms %9.3f ms %8.2f %12s %12s", name, count,
+                    comparison.mismatches,
+                    millis(comparison.mine.getValueAtPercentile(50)), millis(myP99),
+                    millis(comparison.theirs.getValueAtPercentile(50)), millis(theirP99),
+                    myP99 == 0 ? 0d : theirP99 / (double) myP99,
+                    bytesPerCall(comparison.myAllocations, count), bytesPerCall(comparison.theirAllocations, count)));
+        });
+        out.flush();
+    }
+
+    private static String bytesPerCall(final long bytes, final long count) {
+        return !ThreadAllocations.isSupported() || count == 0 ? "n/a" : String.valueOf(bytes / count);
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
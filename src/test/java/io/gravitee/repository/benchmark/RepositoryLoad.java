@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.api.search.ApiKeyCriteria;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Event;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singleton;
+
+/**
+ * Runs a {@link Workload} of repository calls against a generated dataset with the {@link LoadGenerator}, ramping
+ * the arrival rate up step by step, and prints the throughput and latency percentiles of each step.
+ *
+ * The default workload is made of 70% of API key searches by plan, 20% of event searches by API and 10% of
+ * subscription searches by API, subclasses can override {@link #workload()}. It is configured with system properties:
+ * <ul>
+ *     <li><code>load.rates</code>: the arrival rates (operations per second) of the steps, 100,200,400,800 by
+ *     default</li>
+ *     <li><code>load.duration</code>: the duration of each step in seconds, 10 by default</li>
+ *     <li><code>load.threads</code>: the number of worker threads, 64 by default</li>
+ *     <li><code>load.scaleFactor</code> and <code>load.seed</code>: the generated dataset, 1 and 42 by default</li>
+ * </ul>
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryLoad extends AbstractRepositoryBenchmark {
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/apikey-tests/";
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(new RepositoryLoad());
+    }
+
+    protected static void run(final RepositoryLoad load) throws Exception {
+        load.scaleFactor = Double.parseDouble(System.getProperty("load.scaleFactor", "1"));
+        load.seed = Long.parseLong(System.getProperty("load.seed", String.valueOf(DatasetGenerator.DEFAULT_SEED)));
+        final double[] rates = Arrays.stream(System.getProperty("load.rates", "100,200,400,800").split(","))
+                .map(String::trim)
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+        final long duration = Long.parseLong(System.getProperty("load.duration", "10"));
+        final int threads = Integer.parseInt(System.getProperty("load.threads", "64"));
+
+        load.setUpTrial();
+        try {
+            new LoadGenerator(threads, load.seed)
+                    .ramp(load.workload(), rates, duration, TimeUnit.SECONDS, new PrintWriter(System.out));
+        } finally {
+            load.tearDownTrial();
+        }
+    }
+
+    protected Workload workload() {
+        return new Workload.Builder()
+                .operation("ApiKeyRepository.findByCriteria", 70, random -> apiKeyRepository.findByCriteria(
+                        new ApiKeyCriteria.Builder()
+                                .includeRevoked(false)
+                                // the API key plan of a random API
+                                .plans(singleton(dataset.planId(2 * random.nextInt(dataset.getApiCount()))))
+                                .build()))
+                .operation("EventRepository.search", 20, random -> eventRepository.search(
+                        new EventCriteria.Builder()
+                                .from(DatasetGenerator.HISTORY_START)
+                                .to(DatasetGenerator.HISTORY_START + DatasetGenerator.HISTORY_DURATION)
+                                .property(Event.EventProperties.API_ID.getValue(), dataset.apiId(random.nextInt(dataset.getApiCount())))
+                                .build(),
+                        new PageableBuilder().pageNumber(0).pageSize(10).build()))
+                .operation("SubscriptionRepository.search", 10, random -> subscriptionRepository.search(
+                        new SubscriptionCriteria.Builder()
+                                .apis(singleton(dataset.apiId(random.nextInt(dataset.getApiCount()))))
+                                .build()))
+                .build();
+    }
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.metrics.ResourceUsage;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Endurance run detecting the resources a repository implementation leaks over thousands of
+ * <code>TestRepositoryInitializer</code> setUp/tearDown cycles: cached statements, session maps, Rx subscriptions...
+ *
+ * Each cycle either runs the given TCK classes with JUnit, their tests going through the initializer lifecycle as
+ * usual, or runs the operations of the {@link RepositoryLoad} workload (subclasses can override {@link #workload()}),
+ * then tears the store down and sets it up again with the test fixtures and a generated dataset. The heap after a
+ * full GC, the live threads and the open file descriptors are sampled every few cycles, and the run fails when, past
+ * the warm-up, their least squares slope exceeds the allowed growth per 1,000 cycles. It is configured with system
+ * properties:
+ * <ul>
+ *     <li><code>soak.classes</code>: the TCK classes to run at each cycle, simple names of the
+ *     <code>io.gravitee.repository</code> package or fully qualified ones, none by default to run the workload</li>
+ *     <li><code>soak.duration</code>: the maximum duration of the run in seconds, 3600 by default</li>
+ *     <li><code>soak.cycles</code>: the maximum number of cycles, unlimited (0) by default</li>
+ *     <li><code>soak.operations</code>: the number of workload operations per cycle, 100 by default</li>
+ *     <li><code>soak.sampleEvery</code>: the number of cycles between two samples, 50 by default</li>
+ *     <li><code>soak.warmup</code>: the number of cycles ignored by the slopes (JIT, pools and caches filling up), 200
+ *     by default</li>
+ *     <li><code>soak.maxHeapGrowth</code>, <code>soak.maxThreadGrowth</code> and
+ *     <code>soak.maxFileDescriptorGrowth</code>: the allowed growth per 1,000 cycles, in MB, threads and file
+ *     descriptors, 1, 0.5 and 0.5 by default</li>
+ *     <li><code>soak.scaleFactor</code> and <code>soak.seed</code>: the dataset generated at each cycle, 0.01 and 42
+ *     by default</li>
+ * </ul>
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositorySoak extends RepositoryLoad {
+
+    private static final String TCK_PACKAGE = "io.gravitee.repository.";
+    private static final double MB = 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        run(new RepositorySoak());
+    }
+
+    protected static void run(final RepositorySoak soak) throws Exception {
+        final String classes = System.getProperty("soak.classes", "").trim();
+        final long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(System.getProperty("soak.duration", "3600")));
+        final long maxCycles = Long.parseLong(System.getProperty("soak.cycles", "0"));
+        final int sampleEvery = Integer.parseInt(System.getProperty("soak.sampleEvery", "50"));
+        final long warmup = Long.parseLong(System.getProperty("soak.warmup", "200"));
+
+        final Cycle cycle;
+        if (classes.isEmpty()) {
+            soak.scaleFactor = Double.parseDouble(System.getProperty("soak.scaleFactor", "0.01"));
+            soak.seed = Long.parseLong(System.getProperty("soak.seed", String.valueOf(DatasetGenerator.DEFAULT_SEED)));
+            soak.setUpTrial();
+            cycle = soak.workloadCycle(Integer.parseInt(System.getProperty("soak.operations", "100")));
+        } else {
+            cycle = tckCycle(classes.split(","));
+        }
+
+        final List<Sample> samples = new ArrayList<>();
+        final long start = System.nanoTime();
+        try {
+            samples.add(new Sample(0, ResourceUsage.sample()));
+            System.out.println(String.format("%10s %10s %12s %8s %8s", "cycle", "elapsed(s)", "heap(MB)", "threads", "fds"));
+            print(samples.get(0), start);
+            for (long cycles = 1; (maxCycles <= 0 || cycles <= maxCycles) && System.nanoTime() - start < duration; cycles++) {
+                cycle.run();
+                if (cycles % sampleEvery == 0) {
+                    final Sample sample = new Sample(cycles, ResourceUsage.sample());
+                    samples.add(sample);
+                    print(sample, start);
+                }
+            }
+        } finally {
+            if (classes.isEmpty()) {
+                soak.tearDownTrial();
+            }
+        }
+
+        final List<String> leaks = new ArrayList<>();
+        final List<Sample> measured = new ArrayList<>();
+        samples.stream().filter(sample -> sample.cycle >= warmup).forEach(measured::add);
+        if (measured.size() < 3) {
+            System.out.println("Only " + measured.size() + " samples past the " + warmup
+                    + " warm-up cycles, run longer to measure the growth");
+            return;
+        }
+        check("Heap after GC (MB)", measured, sample -> sample.usage.getHeapAfterGc() / MB,
+                Double.parseDouble(System.getProperty("soak.maxHeapGrowth", "1")), leaks);
+        check("Threads", measured, sample -> sample.usage.getThreads(),
+                Double.parseDouble(System.getProperty("soak.maxThreadGrowth", "0.5")), leaks);
+        if (measured.get(0).usage.getFileDescriptors() >= 0) {
+            check("File descriptors", measured, sample -> sample.usage.getFileDescriptors(),
+                    Double.parseDouble(System.getProperty("soak.maxFileDescriptorGrowth", "0.5")), leaks);
+        }
+        if (!leaks.isEmpty()) {
+            throw new IllegalStateException("Resources growing over the cycles: " + String.join(", ", leaks));
+        }
+    }
+
+    /**
+     * A cycle running the workload on the store set up by the previous one (or by the trial), then tearing it down and
+     * setting it up again with the test fixtures and the generated dataset.
+     *
+     * With an initializer supporting snapshots, {@link #tearDown()} only restores the fixtures and {@link #setUp()}
+     * would do nothing: the snapshot is then released, which tears the store down, so that each cycle goes through the
+     * tearDown and setUp of the initializer, as a TCK class does.
+     */
+    private Cycle workloadCycle(final int operations) {
+        final Workload workload = workload();
+        final SplittableRandom random = new SplittableRandom(seed);
+        return () -> {
+            for (int i = 0; i < operations; i++) {
+                workload.next(random).getCall().call(random);
+            }
+            tearDown();
+            releaseSnapshot();
+            setUp();
+            createDataset(dataset);
+        };
+    }
+
+    private static Cycle tckCycle(final String[] names) throws ClassNotFoundException {
+        final Class<?>[] classes = new Class<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i].trim();
+            classes[i] = Class.forName(name.contains(".") ? name : TCK_PACKAGE + name);
+        }
+        final JUnitCore junit = new JUnitCore();
+        return () -> {
+            final Result result = junit.run(classes);
+            if (!result.wasSuccessful()) {
+                final Failure failure = result.getFailures().get(0);
+                throw new IllegalStateException(result.getFailureCount() + " test(s) failed, first one: "
+                        + failure.getTestHeader(), failure.getException());
+            }
+        };
+    }
+
+    private static void check(final String resource, final List<Sample> samples, final ToDoubleFunction<Sample> value,
+                              final double maxGrowth, final List<String> leaks) {
+        final double growth = slope(samples, value) * 1_000;
+        final boolean leaking = growth > maxGrowth;
+        System.out.println(String.format("%-20s %+10.3f per 1,000 cycles (max %.3f)%s", resource, growth, maxGrowth,
+                leaking ? " LEAK" : ""));
+        if (leaking) {
+            leaks.add(resource);
+        }
+    }
+
+    /**
+     * @return the least squares slope of the values over the cycles
+     */
+    private static double slope(final List<Sample> samples, final ToDoubleFunction<Sample> value) {
+        double meanCycle = 0;
+        double meanValue = 0;
+        for (final Sample sample : samples) {
+            meanCycle += sample.cycle;
+            meanValue += value.applyAsDouble(sample);
+        }
+        meanCycle /= samples.size();
+        meanValue /= samples.size();
+
+        double covariance = 0;
+        double variance = 0;
+        for (final Sample sample : samples) {
+            covariance += (sample.cycle - meanCycle) * (value.applyAsDouble(sample) - meanValue);
+            variance += (sample.cycle - meanCycle) * (sample.cycle - meanCycle);
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+
+    private static void print(final Sample sample, final long start) {
+        System.out.println(String.format("%10d %10d %12.1f %8d %8d", sample.cycle,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), sample.usage.getHeapAfterGc() / MB,
+                sample.usage.getThreads(), sample.usage.getFileDescriptors()));
+    }
+
+    @FunctionalInterface
+    private interface Cycle {
+        void run() throws Exception;
+    }
+
+    private static final class Sample {
+        private final long cycle;
+        private final ResourceUsage usage;
+
+        private Sample(final long cycle, final ResourceUsage usage) {
+            this.cycle = cycle;
+            this.usage = usage;
+        }
+    }
+}
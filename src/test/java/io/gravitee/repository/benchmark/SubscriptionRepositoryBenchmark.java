@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Subscription;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+import static java.util.Collections.singleton;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SubscriptionRepositoryBenchmark extends AbstractRepositoryBenchmark {
+
+    @Override
+    protected String getTestCasesPath() {
+        return "/data/subscription-tests/";
+    }
+
+    @Benchmark
+    public List<Subscription> searchByPlan() throws TechnicalException {
+        return subscriptionRepository.search(new SubscriptionCriteria.Builder()
+                .plans(singleton("plan1"))
+                .build());
+    }
+
+    @Benchmark
+    public List<Subscription> searchByApplication() throws TechnicalException {
+        return subscriptionRepository.search(new SubscriptionCriteria.Builder()
+                .applications(singleton("app1"))
+                .build());
+    }
+
+    @Benchmark
+    public Page<Subscription> searchBetweenDatesPageable() throws TechnicalException {
+        return subscriptionRepository.search(new SubscriptionCriteria.Builder()
+                        .from(1339022010883L)
+                        .to(1839022010883L)
+                        .build(),
+                new PageableBuilder().pageNumber(0).pageSize(2).build());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted mix of repository operations run by the {@link LoadGenerator}, for instance 70% of API key searches, 20%
+ * of event searches and 10% of subscription searches:
+ *
+ * <pre>
+ * new Workload.Builder()
+ *         .operation("ApiKeyRepository.findByCriteria", 70, random -&gt; ...)
+ *         .operation("EventRepository.search", 20, random -&gt; ...)
+ *         .operation("SubscriptionRepository.search", 10, random -&gt; ...)
+ *         .build();
+ * </pre>
+ *
+ * @author GraviteeSource Team
+ */
+public class Workload {
+
+    private final List<Operation> operations;
+    private final int[] cumulativeWeights;
+
+    private Workload(final List<Operation> operations) {
+        this.operations = Collections.unmodifiableList(operations);
+        this.cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).getWeight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return an operation picked according to the weights
+     */
+    public Operation next(final SplittableRandom random) {
+        final int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    /**
+     * A repository call, the given random being used to pick its parameters (ids, dates...).
+     */
+    @FunctionalInterface
+    public interface Call {
+        void call(SplittableRandom random) throws Exception;
+    }
+
+    public static class Operation {
+        private final String name;
+        private final int weight;
+        private final Call call;
+
+        private Operation(final String name, final int weight, final Call call) {
+            this.name = name;
+            this.weight = weight;
+            this.call = call;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public Call getCall() {
+            return call;
+        }
+    }
+
+    public static class Builder {
+        private final List<Operation> operations = new ArrayList<>();
+
+        public Builder operation(final String name, final int weight, final Call call) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("The weight of " + name + " must be positive");
+            }
+            operations.add(new Operation(name, weight, call));
+            return this;
+        }
+
+        public Workload build() {
+            if (operations.isEmpty()) {
+                throw new IllegalStateException("A workload needs at least one operation");
+            }
+            return new Workload(new ArrayList<>(operations));
+        }
+    }
+}
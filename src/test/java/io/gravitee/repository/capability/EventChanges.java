@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.capability;
+
+import io.gravitee.repository.management.model.Event;
+
+import java.util.List;
+
+/**
+ * Events read from the incremental feed ({@link EventFeed}), with the cursor to read the next ones from.
+ *
+ * @author GraviteeSource Team
+ */
+public class EventChanges {
+
+    private final List<Event> events;
+    private final EventCursor next;
+
+    public EventChanges(final List<Event> events, final EventCursor next) {
+        this.events = events;
+        this.next = next;
+    }
+
+    /**
+     * @return the events, ordered by <code>updatedAt</code> then id
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the cursor after the last event, the given one when no event has been read
+     */
+    public EventCursor getNext() {
+        return next;
+    }
+}
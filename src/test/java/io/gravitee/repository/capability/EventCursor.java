@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.capability;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Position in the incremental feed of the events ({@link EventFeed}): the <code>updatedAt</code> and the id of the
+ * last event read, the events being ordered on both.
+ *
+ * Callers are not supposed to build cursors but to give back the one returned with the previous changes, possibly
+ * after a restart from its {@link #toString() opaque token} with {@link #parse(String)}.
+ *
+ * @author GraviteeSource Team
+ */
+public final class EventCursor {
+
+    /**
+     * Before the first event.
+     */
+    public static final EventCursor START = new EventCursor(Long.MIN_VALUE, "");
+
+    private final long updatedAt;
+    private final String id;
+
+    private EventCursor(final long updatedAt, final String id) {
+        this.updatedAt = updatedAt;
+        this.id = id;
+    }
+
+    /**
+     * @return the cursor right after the event of the given <code>updatedAt</code> and id
+     */
+    public static EventCursor after(final long updatedAt, final String id) {
+        return new EventCursor(updatedAt, Objects.requireNonNull(id, "The id of a cursor is required"));
+    }
+
+    /**
+     * @param token a token returned by {@link #toString()}
+     */
+    public static EventCursor parse(final String token) {
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalArgumentException("Invalid event cursor " + token, iae);
+        }
+        final int separator = decoded.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid event cursor " + token);
+        }
+        try {
+            return new EventCursor(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid event cursor " + token, nfe);
+        }
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return <code>true</code> if the event of the given <code>updatedAt</code> and id comes after this cursor
+     */
+    public boolean isBefore(final long eventUpdatedAt, final String eventId) {
+        return eventUpdatedAt > updatedAt || (eventUpdatedAt == updatedAt && eventId.compareTo(id) > 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final EventCursor that = (EventCursor) o;
+        return updatedAt == that.updatedAt && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(updatedAt, id);
+    }
+
+    /**
+     * @return the opaque token of the cursor
+     */
+    @Override
+    public String toString() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((updatedAt + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.capability;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.search.EventCriteria;
+
+/**
+ * Incremental read of the events. A gateway keeps the cursor returned by each read and asks for the events updated
+ * after it, so it reads every event once. With <code>EventRepository.search</code>, it searches overlapping from/to
+ * windows and drops the events it already has.
+ *
+ * @author GraviteeSource Team
+ */
+public interface EventFeed {
+
+    /**
+     * Reads the events coming after the cursor, ordered by <code>updatedAt</code> then id, so that ties on
+     * <code>updatedAt</code> are neither skipped nor read twice across calls.
+     *
+     * An event created or updated with an <code>updatedAt</code> older than a cursor already returned (a slow
+     * transaction, a clock skew between nodes...) is not read from that cursor: the writers are expected to set
+     * <code>updatedAt</code> when their change becomes visible. The events without <code>updatedAt</code> are not read.
+     *
+     * @param criteria the types, environments and properties of the events, <code>null</code> for all of them; the
+     * from/to bounds, when given, are applied as well
+     * @param after the cursor returned by the previous call, {@link EventCursor#START} to read from the first event
+     * @param limit the maximum number of events to read
+     */
+    EventChanges changes(EventCriteria criteria, EventCursor after, int limit) throws TechnicalException;
+}
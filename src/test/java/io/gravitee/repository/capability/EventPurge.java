@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.capability;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+
+/**
+ * Retention of the events: deletes in bulk the events that the gateways no longer need to read, so that the events
+ * no longer grow without bound. <code>EventRepository</code> only deletes one event id at a time.
+ *
+ * @author GraviteeSource Team
+ */
+public interface EventPurge {
+
+    /**
+     * Deletes the events updated before the given time, except the latest event of each API (the events sharing the
+     * same <code>api_id</code> property, ordered by <code>updatedAt</code> then id) so that the deployment state of
+     * every API can still be read. The events without <code>api_id</code> updated before that time are all deleted,
+     * the events without <code>updatedAt</code> are kept.
+     *
+     * The events are deleted by batches, each one being a short write (a transaction, a bulk delete...), so that the
+     * searches running meanwhile are not blocked until the end of the purge. An event created during the purge is
+     * never deleted in place of the latest event of its API.
+     *
+     * @param before the time, in milliseconds, before which the events are deleted
+     * @param batchSize the maximum number of events deleted per batch
+     * @return the number of deleted events
+     */
+    long purge(long before, int batchSize) throws TechnicalException;
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.capability;
+
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.reactivex.Flowable;
+
+/**
+ * Search of the events returning a <code>Flowable</code> instead of the <code>List</code> of
+ * <code>EventRepository.search(EventCriteria)</code>. A search without time bounds then no longer loads the whole
+ * history in memory: the subscriber pulls the events from the backend as it consumes them.
+ *
+ * @author GraviteeSource Team
+ */
+public interface EventStream {
+
+    /**
+     * Streams the events matching the criteria in the order of <code>EventRepository.search</code>: the most recently
+     * updated first, the events without <code>updatedAt</code> last. The ties are returned in an order of the
+     * implementation's choosing, each event being emitted once.
+     *
+     * Nothing is read before the subscription. The events are then read by batches (a cursor, a keyset pagination...)
+     * as they are requested, only a bounded number of them being held at any time, and the backend resources are
+     * released when the subscriber cancels or the stream terminates.
+     *
+     * @param criteria the criteria of the events, <code>null</code> for all of them
+     */
+    Flowable<Event> stream(EventCriteria criteria);
+}
@@ -0,0 +1,27 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * Event repository capabilities that the TCK specifies before they are added to the repository API.
+ *
+ * These interfaces are a staging shim. They ship in the test jar, so a backend module can only implement them from its
+ * test sources, for instance in the test configuration that registers its repositories. They will move to
+ * <code>io.gravitee.repository.management.api</code> unchanged once their contracts are settled, and the shim will
+ * then be removed. Each one is checked by its own test class, which skips its tests when the event repository doesn't
+ * implement it.
+ *
+ * @author GraviteeSource Team
+ */
+package io.gravitee.repository.capability;
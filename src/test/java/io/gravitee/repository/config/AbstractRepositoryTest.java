@@ -17,39 +17,55 @@ package io.gravitee.repository.config;
 
 import io.gravitee.node.api.Monitoring;
 import io.gravitee.node.api.NodeMonitoringRepository;
+import io.gravitee.repository.config.FixtureCache.Fixture;
+import io.gravitee.repository.dataset.DatasetGenerator;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.*;
 import io.gravitee.repository.management.model.*;
 import io.gravitee.repository.management.model.flow.Flow;
 import io.gravitee.repository.media.api.MediaRepository;
+import io.gravitee.repository.metrics.LatencyBudgetRunner;
+import io.gravitee.repository.metrics.RepositoryLatencyPostProcessor;
 import org.apache.commons.io.FilenameUtils;
-import org.codehaus.jackson.map.ObjectMapper;
-import org.codehaus.jackson.map.type.TypeFactory;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.rules.TestRule;
+import org.junit.runners.model.Statement;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
-import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import static java.lang.Class.forName;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.util.StringUtils.capitalize;
 
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
  */
-@RunWith(SpringJUnit4ClassRunner.class)
+@RunWith(LatencyBudgetRunner.class)
 @ContextConfiguration(
         loader = AnnotationConfigContextLoader.class,
         initializers = {PropertySourceRepositoryInitializer.class})
@@ -58,10 +74,42 @@ public abstract class AbstractRepositoryTest {
 
     private static final String MODEL_PACKAGE = "io.gravitee.repository.management.model.";
     private static final String JSON_EXTENSION = "json";
+    protected static final int BULK_SIZE = 1_000;
 
     @Inject
     private TestRepositoryInitializer testRepositoryInitializer;
 
+    /**
+     * Number of threads creating the fixtures, 1 by default. Can be raised in repository.properties for backends
+     * whose queries do not depend on the insertion order.
+     */
+    @Value("${tck.fixtures.parallelism:1}")
+    private int fixturesParallelism;
+
+    /**
+     * Whether the test classes run concurrently (surefire <code>parallel=classes</code>), each one in its own
+     * namespace when the initializer supports them, one at a time otherwise.
+     */
+    @Value("${tck.parallel:false}")
+    private boolean parallel;
+
+    /**
+     * Size in bytes above which a fixture file is not cached but parsed as a stream, its models being created by
+     * batches of {@link #BULK_SIZE} as they are read (10 MB by default). {@link #mapToModel(File, Class)} is not called
+     * for those files.
+     */
+    @Value("${tck.fixtures.streamingThreshold:10485760}")
+    private long fixturesStreamingThreshold;
+
+    /**
+     * Whether the models of the test data without a registered {@link ModelLoader} are skipped, as they were before
+     * the loaders were registered, instead of failing the test (<code>false</code> by default).
+     */
+    @Value("${tck.fixtures.skipUnregisteredModels:false}")
+    private boolean skipUnregisteredModels;
+
+    private volatile ModelLoaders modelLoaders;
+
     @Inject
     protected ApplicationRepository applicationRepository;
     @Inject
@@ -161,182 +209,352 @@ public abstract class AbstractRepositoryTest {
     @Inject
     protected PromotionRepository promotionRepository;
 
-    private final ObjectMapper mapper = new ObjectMapper();
-
     protected abstract String getTestCasesPath();
 
+    /**
+     * Test class whose fixtures are loaded in the snapshot currently held by each initializer and namespace (the
+     * <code>null</code> one when the test classes share the store), several contexts (and then initializers) being
+     * possibly open at the same time, for instance by the differential runs.
+     */
+    private static final Map<TestRepositoryInitializer, Map<String, Class<?>>> SNAPSHOT_CLASSES = new IdentityHashMap<>();
+
+    /**
+     * Held by the thread of the running test class when the test classes run concurrently but share the store.
+     */
+    private static final ReentrantLock SHARED_STORE = new ReentrantLock();
+
+    /**
+     * Releases the snapshot of the test class once all its tests have been run, and lets the next test class use the
+     * shared store.
+     */
+    @ClassRule
+    public static final TestRule CLASS_SNAPSHOT = (base, description) -> new Statement() {
+        @Override
+        public void evaluate() throws Throwable {
+            try {
+                base.evaluate();
+            } finally {
+                try {
+                    releaseSnapshots(description.getTestClass());
+                } finally {
+                    while (SHARED_STORE.isHeldByCurrentThread()) {
+                        SHARED_STORE.unlock();
+                    }
+                }
+            }
+        }
+    };
+
     @Before
     public void setUp() throws Exception {
-        testRepositoryInitializer.setUp();
-
-        final File file = new File(AbstractRepositoryTest.class.getResource(getTestCasesPath()).toURI());
+        final String namespace = namespace();
+        if (namespace != null) {
+            testRepositoryInitializer.useNamespace(namespace);
+        } else if (parallel && !SHARED_STORE.isHeldByCurrentThread()) {
+            SHARED_STORE.lock();
+        }
 
-        final File[] collectionsDumps = file.listFiles(
-                pathname -> pathname.isFile()
-                        && JSON_EXTENSION.equalsIgnoreCase(FilenameUtils.getExtension(pathname.toString())));
-        for (final File collectionsDump : asList(collectionsDumps).stream().sorted((o1, o2) -> o2.getName().compareTo(o1.getName())).collect(Collectors.toList())) {
-            final Class c = getClassFromFileName(FilenameUtils.getBaseName(collectionsDump.getName()));
-            for (final Object object : mapToModel(collectionsDump, c)) {
-                createModel(object);
+        if (!testRepositoryInitializer.supportsSnapshot()) {
+            testRepositoryInitializer.setUp();
+            createFixtures();
+        } else if (!getClass().equals(snapshotClass(testRepositoryInitializer, namespace))) {
+            releaseSnapshot(testRepositoryInitializer, namespace);
+            testRepositoryInitializer.setUp();
+            createFixtures();
+            testRepositoryInitializer.snapshot();
+            synchronized (SNAPSHOT_CLASSES) {
+                SNAPSHOT_CLASSES.computeIfAbsent(testRepositoryInitializer, initializer -> new HashMap<>())
+                        .put(namespace, getClass());
             }
         }
     }
 
     @After
     public void tearDown() throws Exception {
-        testRepositoryInitializer.tearDown();
+        final String namespace = namespace();
+        try {
+            if (getClass().equals(snapshotClass(testRepositoryInitializer, namespace))) {
+                testRepositoryInitializer.restore();
+            } else {
+                testRepositoryInitializer.tearDown();
+            }
+        } finally {
+            if (namespace != null) {
+                testRepositoryInitializer.useNamespace(null);
+            }
+        }
     }
 
-    private void createModel(Object object) throws TechnicalException {
-        if (object instanceof Application) {
-            applicationRepository.create((Application) object);
-        }
-        else if (object instanceof Api) {
-            apiRepository.create((Api) object);
-        }
-        else if (object instanceof User) {
-            userRepository.create((User) object);
-        }
-        else if (object instanceof Event) {
-            eventRepository.create((Event) object);
-        }
-        else if (object instanceof ApiKey) {
-            final ApiKey apiKey = (ApiKey) object;
-            apiKeyRepository.create(apiKey);
-        }
-        else if (object instanceof Category) {
-            categoryRepository.create((Category) object);
-        }
-        else if (object instanceof Group) {
-            groupRepository.create((Group) object);
-        }
-        else if (object instanceof Membership) {
-            membershipRepository.create((Membership) object);
-        }
-        else if (object instanceof Plan) {
-            planRepository.create((Plan) object);
-        }
-        else if (object instanceof Tag) {
-            tagRepository.create((Tag) object);
-        }
-        else if (object instanceof Page) {
-            pageRepository.create((Page) object);
-        }
-        else if (object instanceof Subscription) {
-            subscriptionRepository.create((Subscription) object);
-        }
-        else if (object instanceof Tenant) {
-            tenantRepository.create((Tenant) object);
-        }
-        else if (object instanceof Metadata) {
-            metadataRepository.create((Metadata) object);
-        }
-        else if (object instanceof Role) {
-            roleRepository.create((Role) object);
-        }
-        else if (object instanceof Audit) {
-            auditRepository.create((Audit) object);
-        }
-        else if (object instanceof Rating) {
-            ratingRepository.create((Rating) object);
-        }
-        else if (object instanceof RatingAnswer) {
-            ratingAnswerRepository.create((RatingAnswer) object);
-        }
-        else if (object instanceof PortalNotification) {
-            portalNotificationRepository.create((PortalNotification) object);
-        }
-        else if (object instanceof PortalNotificationConfig) {
-            portalNotificationConfigRepository.create((PortalNotificationConfig) object);
-        }
-        else if (object instanceof GenericNotificationConfig) {
-            genericNotificationConfigRepository.create((GenericNotificationConfig) object);
-        }
-        else if (object instanceof Parameter) {
-            parameterRepository.create((Parameter) object);
-        }
-        else if (object instanceof Dictionary) {
-            dictionaryRepository.create((Dictionary) object);
-        }
-        else if (object instanceof ApiHeader) {
-            apiHeaderRepository.create((ApiHeader) object);
-        }
-        else if (object instanceof Command) {
-            commandRepository.create((Command) object);
-        }
-        else if (object instanceof IdentityProvider) {
-            identityProviderRepository.create((IdentityProvider) object);
-        }
-        else if (object instanceof AlertTrigger) {
-            alertRepository.create((AlertTrigger) object);
-        }
-        else if (object instanceof Entrypoint) {
-            entrypointRepository.create((Entrypoint) object);
-        }
-        else if (object instanceof Invitation) {
-            invitationRepository.create((Invitation) object);
-        }
-        else if (object instanceof ClientRegistrationProvider) {
-            clientRegistrationProviderRepository.create((ClientRegistrationProvider) object);
-        }
-        else if (object instanceof Workflow) {
-            workflowRepository.create((Workflow) object);
-        }
-        else if (object instanceof QualityRule) {
-            qualityRuleRepository.create((QualityRule) object);
-        }
-        else if (object instanceof ApiQualityRule) {
-            apiQualityRuleRepository.create((ApiQualityRule) object);
-        }
-        else if (object instanceof Dashboard) {
-            dashboardRepository.create((Dashboard) object);
-        }
-        else if (object instanceof AlertEvent) {
-            alertEventRepository.create((AlertEvent) object);
-        }
-        else if (object instanceof Environment) {
-            environmentRepository.create((Environment) object);
-        }
-        else if (object instanceof Organization) {
-            organizationRepository.create((Organization) object);
-        }
-        else if (object instanceof Theme) {
-            themeRepository.create((Theme) object);
-        }
-        else if (object instanceof IdentityProviderActivation) {
-            identityProviderActivationRepository.create((IdentityProviderActivation) object);
+    /**
+     * Releases the snapshots of all the test classes.
+     */
+    public static void releaseSnapshot() {
+        releaseSnapshots(null);
+    }
+
+    /**
+     * @param testClass the test class whose snapshots are released, <code>null</code> for all of them
+     */
+    private static void releaseSnapshots(final Class<?> testClass) {
+        final Map<TestRepositoryInitializer, List<String>> held = new IdentityHashMap<>();
+        synchronized (SNAPSHOT_CLASSES) {
+            SNAPSHOT_CLASSES.forEach((initializer, classes) -> classes.forEach((namespace, snapshotClass) -> {
+                if (testClass == null || testClass.equals(snapshotClass)) {
+                    held.computeIfAbsent(initializer, i -> new ArrayList<>()).add(namespace);
+                }
+            }));
+        }
+        held.forEach((initializer, namespaces) -> namespaces.forEach(namespace -> releaseSnapshot(initializer, namespace)));
+    }
+
+    private static Class<?> snapshotClass(final TestRepositoryInitializer initializer, final String namespace) {
+        synchronized (SNAPSHOT_CLASSES) {
+            return SNAPSHOT_CLASSES.getOrDefault(initializer, emptyMap()).get(namespace);
         }
-        else if( object instanceof Token) {
-            tokenRepository.create((Token) object);
+    }
+
+    private static void releaseSnapshot(final TestRepositoryInitializer initializer, final String namespace) {
+        final boolean held;
+        synchronized (SNAPSHOT_CLASSES) {
+            final Map<String, Class<?>> classes = SNAPSHOT_CLASSES.get(initializer);
+            held = classes != null && classes.containsKey(namespace);
+            if (held) {
+                classes.remove(namespace);
+                if (classes.isEmpty()) {
+                    SNAPSHOT_CLASSES.remove(initializer);
+                }
+            }
         }
-        else if( object instanceof PageRevision) {
-            pageRevisionRepository.create((PageRevision) object);
+        if (!held) {
+            return;
         }
-        else if( object instanceof CustomUserField) {
-            customUserFieldsRepository.create((CustomUserField) object);
+        if (namespace == null) {
+            initializer.tearDown();
+            return;
         }
-        else if( object instanceof NotificationTemplate) {
-            notificationTemplateRepository.create((NotificationTemplate) object);
+        initializer.useNamespace(namespace);
+        try {
+            initializer.tearDown();
+        } finally {
+            initializer.useNamespace(null);
         }
-        else if( object instanceof Ticket) {
-            ticketRepository.create((Ticket) object);
+    }
+
+    /**
+     * @return the namespace of the test class when the test classes run concurrently in their own namespace,
+     * <code>null</code> when they share the store
+     */
+    private String namespace() {
+        return parallel && testRepositoryInitializer.supportsNamespaces()
+                ? testRepositoryInitializer.namespace(getClass()) : null;
+    }
+
+    /**
+     * @return the task, bound to the namespace of the test class when it is run by another thread
+     */
+    protected <T> Callable<T> inNamespace(final Callable<T> task) {
+        final String namespace = namespace();
+        if (namespace == null) {
+            return task;
+        }
+        final Thread owner = Thread.currentThread();
+        return () -> {
+            if (Thread.currentThread() == owner) {
+                return task.call();
+            }
+            testRepositoryInitializer.useNamespace(namespace);
+            try {
+                return task.call();
+            } finally {
+                testRepositoryInitializer.useNamespace(null);
+            }
+        };
+    }
+
+    /**
+     * Creates the fixtures level by level of the {@link FixtureDependencies}: the files of a level, then their models
+     * when they are not bulk loaded, are created concurrently on up to {@link #fixturesParallelism} threads.
+     */
+    private void createFixtures() throws Exception {
+        for (final List<Fixture> level : FixtureCache.fixtures(getClass(), this::resolveFixtures)) {
+            final List<Callable<List<?>>> dumps = new ArrayList<>(level.size());
+            for (final Fixture fixture : level) {
+                dumps.add(inNamespace(() -> loadFixture(fixture.getDump(), fixture.getModelClass())));
+            }
+            createOneByOne(FixtureExecutor.invokeAll(fixturesParallelism, dumps));
         }
-        else if( object instanceof Installation) {
-            installationRepository.create((Installation) object);
+    }
+
+    private <T> List<T> loadFixture(final File dump, final Class<T> modelClass) throws Exception {
+        if (dump.length() > fixturesStreamingThreshold) {
+            FixtureStream.stream(dump, modelClass, BULK_SIZE, this::createStreamedBatch);
+            return emptyList();
         }
-        else if( object instanceof Monitoring) {
-            nodeMonitoringRepository.create((Monitoring) object);
+        return createAll(modelClass, mapToModel(dump, modelClass));
+    }
+
+    /**
+     * Creates a batch of a streamed dump right away, on the thread reading the dump.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void createStreamedBatch(final Class<T> modelClass, final List<?> batch) throws TechnicalException {
+        for (final T model : createAll(modelClass, (List<T>) batch)) {
+            createModel(model);
         }
-        else if( object instanceof Flow) {
-            flowRepository.create((Flow) object);
+    }
+
+    private List<List<Fixture>> resolveFixtures() throws Exception {
+        final File file = new File(AbstractRepositoryTest.class.getResource(getTestCasesPath()).toURI());
+
+        final File[] collectionsDumps = file.listFiles(
+                pathname -> pathname.isFile()
+                        && JSON_EXTENSION.equalsIgnoreCase(FilenameUtils.getExtension(pathname.toString())));
+        final List<Fixture> fixtures = asList(collectionsDumps).stream()
+                .sorted((o1, o2) -> o2.getName().compareTo(o1.getName()))
+                .map(collectionsDump -> new Fixture(collectionsDump, getClassFromFileName(FilenameUtils.getBaseName(collectionsDump.getName()))))
+                .collect(Collectors.toList());
+        return FixtureDependencies.levels(fixtures, Fixture::getModelClass);
+    }
+
+    /**
+     * Calls the repository and, when the {@link TestRepositoryInitializer} counts the round trips to the backend,
+     * checks that it didn't take more than the given number of them.
+     */
+    protected <T> T assertMaxRoundTrips(final long maxRoundTrips, final Callable<T> call) throws Exception {
+        if (!testRepositoryInitializer.supportsRoundTrips()) {
+            return call.call();
+        }
+        final long before = testRepositoryInitializer.getRoundTrips();
+        final T result = call.call();
+        final long roundTrips = testRepositoryInitializer.getRoundTrips() - before;
+        assertTrue("Expected at most " + maxRoundTrips + " round trips to the backend but was " + roundTrips,
+                roundTrips <= maxRoundTrips);
+        return result;
+    }
+
+    /**
+     * Creates the models with the bulk loading of the {@link TestRepositoryInitializer} when available, one by one
+     * through the repositories otherwise.
+     */
+    protected <T> void createModels(final Class<T> modelClass, final List<T> models) throws TechnicalException {
+        createOneByOne(singletonList(createAll(modelClass, models)));
+    }
+
+    /**
+     * @return the models left to create one by one, i.e. none when the initializer bulk loaded them
+     */
+    private <T> List<T> createAll(final Class<T> modelClass, final List<T> models) throws TechnicalException {
+        return testRepositoryInitializer.createAll(modelClass, models) ? emptyList() : models;
+    }
+
+    private void createOneByOne(final List<? extends List<?>> models) throws TechnicalException {
+        final List<Callable<Void>> creations = new ArrayList<>();
+        for (final List<?> dump : models) {
+            for (final Object model : dump) {
+                creations.add(inNamespace(() -> {
+                    createModel(model);
+                    return null;
+                }));
+            }
         }
-        else if( object instanceof Promotion) {
-            promotionRepository.create((Promotion) object);
+        FixtureExecutor.invokeAll(fixturesParallelism, creations);
+    }
+
+    /**
+     * Creates a generated dataset, by batches of {@link #BULK_SIZE} models of the same class.
+     */
+    protected void createDataset(final DatasetGenerator dataset) throws TechnicalException {
+        final ModelBatcher batcher = new ModelBatcher(BULK_SIZE, this::createBatch);
+        dataset.generate(batcher);
+        batcher.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void createBatch(final Class<T> modelClass, final List<?> batch) throws TechnicalException {
+        createModels(modelClass, (List<T>) batch);
+    }
+
+    protected void createModel(Object object) throws TechnicalException {
+        modelLoaders().create(object);
+    }
+
+    protected ModelLoaders modelLoaders() {
+        ModelLoaders loaders = modelLoaders;
+        if (loaders == null) {
+            synchronized (this) {
+                loaders = modelLoaders;
+                if (loaders == null) {
+                    loaders = new ModelLoaders().skipUnregistered(skipUnregisteredModels);
+                    registerModelLoaders(loaders);
+                    modelLoaders = loaders;
+                }
+            }
         }
+        return loaders;
+    }
+
+    /**
+     * Registers how each model of the test data is created. Subclasses can override it to register the models of
+     * other repositories.
+     */
+    protected void registerModelLoaders(final ModelLoaders loaders) {
+        loaders
+                .register(Application.class, applicationRepository::create)
+                .register(Api.class, apiRepository::create)
+                .register(User.class, userRepository::create)
+                .register(Event.class, eventRepository::create)
+                .register(ApiKey.class, apiKeyRepository::create)
+                .register(Category.class, categoryRepository::create)
+                .register(Group.class, groupRepository::create)
+                .register(Membership.class, membershipRepository::create)
+                .register(Plan.class, planRepository::create)
+                .register(Tag.class, tagRepository::create)
+                .register(Page.class, pageRepository::create)
+                .register(Subscription.class, subscriptionRepository::create)
+                .register(Tenant.class, tenantRepository::create)
+                .register(Metadata.class, metadataRepository::create)
+                .register(Role.class, roleRepository::create)
+                .register(Audit.class, auditRepository::create)
+                .register(Rating.class, ratingRepository::create)
+                .register(RatingAnswer.class, ratingAnswerRepository::create)
+                .register(PortalNotification.class, portalNotificationRepository::create)
+                .register(PortalNotificationConfig.class, portalNotificationConfigRepository::create)
+                .register(GenericNotificationConfig.class, genericNotificationConfigRepository::create)
+                .register(Parameter.class, parameterRepository::create)
+                .register(Dictionary.class, dictionaryRepository::create)
+                .register(ApiHeader.class, apiHeaderRepository::create)
+                .register(Command.class, commandRepository::create)
+                .register(IdentityProvider.class, identityProviderRepository::create)
+                .register(AlertTrigger.class, alertRepository::create)
+                .register(Entrypoint.class, entrypointRepository::create)
+                .register(Invitation.class, invitationRepository::create)
+                .register(ClientRegistrationProvider.class, clientRegistrationProviderRepository::create)
+                .register(Workflow.class, workflowRepository::create)
+                .register(QualityRule.class, qualityRuleRepository::create)
+                .register(ApiQualityRule.class, apiQualityRuleRepository::create)
+                .register(Dashboard.class, dashboardRepository::create)
+                .register(AlertEvent.class, alertEventRepository::create)
+                .register(Environment.class, environmentRepository::create)
+                .register(Organization.class, organizationRepository::create)
+                .register(Theme.class, themeRepository::create)
+                .register(IdentityProviderActivation.class, identityProviderActivationRepository::create)
+                .register(Token.class, tokenRepository::create)
+                .register(PageRevision.class, pageRevisionRepository::create)
+                .register(CustomUserField.class, customUserFieldsRepository::create)
+                .register(NotificationTemplate.class, notificationTemplateRepository::create)
+                .register(Ticket.class, ticketRepository::create)
+                .register(Installation.class, installationRepository::create)
+                .register(Monitoring.class, nodeMonitoringRepository::create)
+                .register(Flow.class, flowRepository::create)
+                .register(Promotion.class, promotionRepository::create);
     }
 
     protected Class getClassFromFileName(final String baseName) {
         final String className = capitalize(baseName.substring(0, baseName.length() - 1));
+        final Class<?> modelClass = modelLoaders().getModelClass(MODEL_PACKAGE + getModelPackage() + className);
+        if (modelClass != null) {
+            return modelClass;
+        }
         try {
             return forName(MODEL_PACKAGE + getModelPackage() + className);
         } catch (final ClassNotFoundException e) {
@@ -349,15 +567,21 @@ public abstract class AbstractRepositoryTest {
     }
 
     protected <T> List<T> mapToModel(final File file, final Class<T> clazz) throws Exception {
-        return mapper.readValue(file, TypeFactory.collectionType(List.class, clazz));
+        return FixtureCache.models(file, clazz);
     }
 
     @Configuration
     @ComponentScan(
             value = "io.gravitee.repository",
             includeFilters = @Filter(pattern = ".*Test.*", type = FilterType.REGEX),
+            excludeFilters = @Filter(pattern = ".*\\.jmh_generated\\..*", type = FilterType.REGEX),
             useDefaultFilters = false
     )
-    static class ContextConfiguration {
+    protected static class ContextConfiguration {
+
+        @Bean
+        public static RepositoryLatencyPostProcessor repositoryLatencyPostProcessor() {
+            return new RepositoryLatencyPostProcessor();
+        }
     }
 }
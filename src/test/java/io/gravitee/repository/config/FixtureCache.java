@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.type.TypeFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the JSON fixtures.
+ *
+ * Each dump is read and parsed once per JVM into a JSON tree, and the fixtures of each test class (dumps and their
+ * model classes, grouped by {@link FixtureDependencies} level) are resolved once. Models are bound from the cached
+ * tree on every call, so each test still works on its own fresh copies.
+ *
+ * @author GraviteeSource Team
+ */
+final class FixtureCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<Class<?>, List<List<Fixture>>> FIXTURES = new ConcurrentHashMap<>();
+    private static final Map<File, JsonNode> DUMPS = new ConcurrentHashMap<>();
+
+    private FixtureCache() {
+    }
+
+    static List<List<Fixture>> fixtures(final Class<?> testClass, final Callable<List<List<Fixture>>> resolver)
+            throws Exception {
+        List<List<Fixture>> fixtures = FIXTURES.get(testClass);
+        if (fixtures == null) {
+            fixtures = resolver.call();
+            FIXTURES.putIfAbsent(testClass, fixtures);
+        }
+        return fixtures;
+    }
+
+    static <T> List<T> models(final File dump, final Class<T> modelClass) throws IOException {
+        return MAPPER.readValue(tree(dump), TypeFactory.collectionType(List.class, modelClass));
+    }
+
+    private static JsonNode tree(final File dump) {
+        return DUMPS.computeIfAbsent(dump, file -> {
+            try {
+                return MAPPER.readTree(file);
+            } catch (final IOException ioe) {
+                throw new UncheckedIOException("Unable to parse the fixture " + file, ioe);
+            }
+        });
+    }
+
+    static final class Fixture {
+
+        private final File dump;
+        private final Class<?> modelClass;
+
+        Fixture(final File dump, final Class<?> modelClass) {
+            this.dump = dump;
+            this.modelClass = modelClass;
+        }
+
+        File getDump() {
+            return dump;
+        }
+
+        Class<?> getModelClass() {
+            return modelClass;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import io.gravitee.repository.management.model.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Dependency graph between the model classes of the fixtures: the models of a class are always created after the
+ * models of the classes it depends on, the models of independent classes may be created concurrently.
+ *
+ * Downstream suites can declare the dependencies of their own models with {@link #register(Class, Class[])}.
+ *
+ * @author GraviteeSource Team
+ */
+public final class FixtureDependencies {
+
+    private static final Map<Class<?>, Set<Class<?>>> DEPENDENCIES = new ConcurrentHashMap<>();
+
+    static {
+        register(Environment.class, Organization.class);
+        register(Group.class, Environment.class);
+        register(Application.class, Environment.class, Group.class);
+        register(Api.class, Environment.class, Group.class, Application.class);
+        register(Plan.class, Api.class);
+        register(Subscription.class, Api.class, Plan.class, Application.class);
+        register(ApiKey.class, Subscription.class, Plan.class, Application.class);
+        register(Membership.class, Organization.class, Environment.class, Group.class, Api.class, Application.class,
+                Role.class, User.class);
+        register(Page.class, Api.class);
+        register(PageRevision.class, Page.class);
+        register(Rating.class, Api.class);
+        register(RatingAnswer.class, Rating.class);
+        register(ApiQualityRule.class, Api.class, QualityRule.class);
+        register(IdentityProviderActivation.class, IdentityProvider.class);
+    }
+
+    private FixtureDependencies() {
+    }
+
+    public static void register(final Class<?> modelClass, final Class<?>... dependencies) {
+        DEPENDENCIES.computeIfAbsent(modelClass, c -> ConcurrentHashMap.newKeySet()).addAll(asList(dependencies));
+    }
+
+    /**
+     * Splits the given items into levels: every item only depends on items of the previous levels, directly or
+     * through classes which are not part of the items. The order of the items is kept within each level.
+     */
+    static <T> List<List<T>> levels(final List<T> items, final Function<T, Class<?>> modelClass) {
+        final Set<Class<?>> present = new HashSet<>();
+        items.forEach(item -> present.add(modelClass.apply(item)));
+
+        final Map<Class<?>, Integer> depths = new HashMap<>();
+        final List<List<T>> levels = new ArrayList<>();
+        for (final T item : items) {
+            final int depth = depth(modelClass.apply(item), present, depths, new HashSet<>());
+            while (levels.size() <= depth) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(depth).add(item);
+        }
+        levels.removeIf(List::isEmpty);
+        return levels;
+    }
+
+    private static int depth(final Class<?> modelClass, final Set<Class<?>> present, final Map<Class<?>, Integer> depths,
+                             final Set<Class<?>> visiting) {
+        final Integer known = depths.get(modelClass);
+        if (known != null) {
+            return known;
+        }
+        if (!visiting.add(modelClass)) {
+            throw new IllegalStateException("Cyclic fixture dependencies on " + modelClass.getName());
+        }
+        int depth = 0;
+        for (final Class<?> dependency : DEPENDENCIES.getOrDefault(modelClass, Collections.emptySet())) {
+            final int dependencyDepth = depth(dependency, present, depths, visiting);
+            depth = Math.max(depth, present.contains(dependency) ? dependencyDepth + 1 : dependencyDepth);
+        }
+        visiting.remove(modelClass);
+        depths.put(modelClass, depth);
+        return depth;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pools of daemon threads used to create the fixtures concurrently, one per parallelism, so that test classes
+ * running at different parallelisms share them without shutting down each other's pool.
+ *
+ * @author GraviteeSource Team
+ */
+final class FixtureExecutor {
+
+    private static final ConcurrentMap<Integer, ExecutorService> EXECUTORS = new ConcurrentHashMap<>();
+
+    private FixtureExecutor() {
+    }
+
+    /**
+     * Runs the tasks on at most <code>parallelism</code> threads, or sequentially on the calling thread when the
+     * parallelism is 1 or less, and waits for all of them to complete.
+     *
+     * @return the results of the tasks, in the order of the tasks
+     */
+    static <T> List<T> invokeAll(final int parallelism, final List<? extends Callable<T>> tasks) throws TechnicalException {
+        final List<T> results = new ArrayList<>(tasks.size());
+        if (parallelism <= 1 || tasks.size() <= 1) {
+            for (final Callable<T> task : tasks) {
+                results.add(call(task));
+            }
+            return results;
+        }
+
+        try {
+            Throwable failure = null;
+            for (final Future<T> future : executor(parallelism).invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (final ExecutionException ee) {
+                    if (failure == null) {
+                        failure = ee.getCause();
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException("Interrupted while creating the fixtures", ie);
+        } catch (final TechnicalException | RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable t) {
+            throw new TechnicalException(t);
+        }
+    }
+
+    private static <T> T call(final Callable<T> task) throws TechnicalException {
+        try {
+            return task.call();
+        } catch (final TechnicalException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private static ExecutorService executor(final int parallelism) {
+        return EXECUTORS.computeIfAbsent(parallelism, key -> {
+            final AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(parallelism, runnable -> {
+                final Thread thread = new Thread(runnable, "fixtures-" + parallelism + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+}
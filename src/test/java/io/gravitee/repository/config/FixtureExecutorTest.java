@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class FixtureExecutorTest {
+
+    @Test
+    public void shouldReturnResultsInTaskOrder() throws Exception {
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int result = i;
+            tasks.add(() -> result);
+        }
+
+        final List<Integer> results = FixtureExecutor.invokeAll(4, tasks);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) results.get(i));
+        }
+    }
+
+    @Test
+    public void shouldRunConcurrentlyAtDifferentParallelisms() throws Exception {
+        final ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<Integer>> maxRunning = new ArrayList<>();
+            for (int round = 0; round < 20; round++) {
+                for (int parallelism = 2; parallelism <= 4; parallelism++) {
+                    final int callerParallelism = parallelism;
+                    maxRunning.add(callers.submit(() -> maxRunning(callerParallelism)));
+                }
+            }
+            for (int i = 0; i < maxRunning.size(); i++) {
+                final int parallelism = 2 + i % 3;
+                final int running = maxRunning.get(i).get();
+                assertTrue("Ran " + running + " tasks at once with a parallelism of " + parallelism,
+                        running <= parallelism);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static int maxRunning(final int parallelism) throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return null;
+            });
+        }
+        FixtureExecutor.invokeAll(parallelism, tasks);
+        return max.get();
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Streaming reader of the JSON fixtures too large to be cached by the {@link FixtureCache}: the array of models is
+ * parsed token by token and the models are handed over in batches of a bounded size, so that the memory used doesn't
+ * depend on the size of the dump.
+ *
+ * @author GraviteeSource Team
+ */
+final class FixtureStream {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private FixtureStream() {
+    }
+
+    /**
+     * @return the number of models read from the dump
+     */
+    static long stream(final File dump, final Class<?> modelClass, final int batchSize,
+                       final ModelBatcher.BatchConsumer consumer) throws IOException, TechnicalException {
+        final ModelBatcher batcher = new ModelBatcher(batchSize, consumer);
+        long count = 0;
+        try (JsonParser parser = MAPPER.getJsonFactory().createJsonParser(dump)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("The fixture " + dump + " is not an array of models");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                batcher.accept(MAPPER.readValue(parser, modelClass));
+                count++;
+            }
+            if (parser.getCurrentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected " + parser.getCurrentToken() + " in the fixture " + dump + " at "
+                        + parser.getCurrentLocation());
+            }
+        }
+        batcher.flush();
+        return count;
+    }
+}
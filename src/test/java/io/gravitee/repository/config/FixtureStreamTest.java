@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import io.gravitee.repository.dataset.DatasetGenerator;
+import io.gravitee.repository.management.model.Event;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class FixtureStreamTest {
+
+    /**
+     * Default <code>tck.fixtures.streamingThreshold</code> of {@link AbstractRepositoryTest}.
+     */
+    private static final long STREAMING_THRESHOLD = 10_485_760;
+    private static final int EVENTS = 1_500;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldStreamTheSameModelsAsTheCachedFixture() throws Exception {
+        final DatasetGenerator dataset = new DatasetGenerator.Builder().payloadSize(8_192).build();
+        final List<Event> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(dataset.event(i));
+        }
+        final File dump = folder.newFile("events.json");
+        mapper.writeValue(dump, events);
+        assertTrue("The fixture must be streamed: " + dump.length() + " bytes",
+                dump.length() > STREAMING_THRESHOLD);
+
+        final List<Object> streamed = new ArrayList<>();
+        final List<Integer> batches = new ArrayList<>();
+        final long count = FixtureStream.stream(dump, Event.class, AbstractRepositoryTest.BULK_SIZE, (modelClass, batch) -> {
+            assertSame(Event.class, modelClass);
+            batches.add(batch.size());
+            streamed.addAll(batch);
+        });
+        final List<Event> cached = FixtureCache.models(dump, Event.class);
+
+        assertEquals(EVENTS, count);
+        assertEquals(EVENTS, cached.size());
+        assertEquals(EVENTS, streamed.size());
+        assertEquals(asList(AbstractRepositoryTest.BULK_SIZE, EVENTS - AbstractRepositoryTest.BULK_SIZE), batches);
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(mapper.writeValueAsString(cached.get(i)), mapper.writeValueAsString(streamed.get(i)));
+        }
+        assertEquals(mapper.writeValueAsString(events), mapper.writeValueAsString(streamed));
+    }
+}
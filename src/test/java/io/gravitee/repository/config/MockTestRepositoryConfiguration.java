@@ -15,41 +15,40 @@
  */
 package io.gravitee.repository.config;
 
+import io.gravitee.repository.config.memory.*;
 import io.gravitee.repository.config.mock.*;
 import org.springframework.context.annotation.Bean;
 
-import static org.mockito.Mockito.mock;
-
 public class MockTestRepositoryConfiguration {
 
     @Bean
-    public TestRepositoryInitializer testRepositoryInitializer() {
-        return mock(TestRepositoryInitializer.class);
+    public MemoryRepositoryInitializer testRepositoryInitializer() {
+        return new MemoryRepositoryInitializer();
     }
 
     @Bean
-    public AuditRepositoryMock auditRepository() {
-        return new AuditRepositoryMock();
+    public MemoryAuditRepository auditRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryAuditRepository());
     }
 
     @Bean
-    public ApiKeyRepositoryMock apiKeyRepository() {
-        return new ApiKeyRepositoryMock();
+    public MemoryApiKeyRepository apiKeyRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryApiKeyRepository());
     }
 
     @Bean
-    public ApiRepositoryMock apiRepository() {
-        return new ApiRepositoryMock();
+    public MemoryApiRepository apiRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryApiRepository());
     }
 
     @Bean
-    public ApplicationRepositoryMock applicationRepository() {
-        return new ApplicationRepositoryMock();
+    public MemoryApplicationRepository applicationRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryApplicationRepository());
     }
 
     @Bean
-    public EventRepositoryMock eventRepository() {
-        return new EventRepositoryMock();
+    public MemoryEventRepository eventRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryEventRepository());
     }
 
     @Bean
@@ -73,13 +72,13 @@ public class MockTestRepositoryConfiguration {
     }
 
     @Bean
-    public PlanRepositoryMock planRepository() {
-        return new PlanRepositoryMock();
+    public MemoryPlanRepository planRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryPlanRepository());
     }
 
     @Bean
-    public MembershipRepositoryMock membershipRepository() {
-        return new MembershipRepositoryMock();
+    public MemoryMembershipRepository membershipRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemoryMembershipRepository());
     }
 
     @Bean
@@ -93,8 +92,8 @@ public class MockTestRepositoryConfiguration {
     }
 
     @Bean
-    public SubscriptionRepositoryMock subscriptionRepository() {
-        return new SubscriptionRepositoryMock();
+    public MemorySubscriptionRepository subscriptionRepository(final MemoryRepositoryInitializer initializer) {
+        return initializer.register(new MemorySubscriptionRepository());
     }
 
     @Bean
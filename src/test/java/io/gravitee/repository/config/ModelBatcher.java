@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import io.gravitee.repository.dataset.ModelConsumer;
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups consecutive models of the same class into batches of a bounded size.
+ *
+ * @author GraviteeSource Team
+ */
+class ModelBatcher implements ModelConsumer {
+
+    @FunctionalInterface
+    interface BatchConsumer {
+
+        void accept(Class<?> modelClass, List<Object> batch) throws TechnicalException;
+    }
+
+    private final int batchSize;
+    private final BatchConsumer consumer;
+    private final List<Object> batch;
+
+    ModelBatcher(final int batchSize, final BatchConsumer consumer) {
+        this.batchSize = batchSize;
+        this.consumer = consumer;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void accept(final Object model) throws TechnicalException {
+        if (!batch.isEmpty() && batch.get(0).getClass() != model.getClass()) {
+            flush();
+        }
+        batch.add(model);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    void flush() throws TechnicalException {
+        if (!batch.isEmpty()) {
+            consumer.accept(batch.get(0).getClass(), new ArrayList<>(batch));
+            batch.clear();
+        }
+    }
+}
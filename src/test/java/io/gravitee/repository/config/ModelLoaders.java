@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Registry of the {@link ModelLoader}s, keyed by model class.
+ *
+ * A model of a class without a loader is created by the loader of its nearest registered superclass, or else of its
+ * nearest registered interface, in declaration order. A model without any loader fails the creation, unless the
+ * registry {@link #skipUnregistered(boolean) skips} them as the tests did before the registry.
+ *
+ * @author GraviteeSource Team
+ */
+public class ModelLoaders {
+
+    private final Map<Class<?>, ModelLoader<?>> loaders = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> modelClasses = new ConcurrentHashMap<>();
+    private volatile boolean skipUnregistered;
+
+    public <T> ModelLoaders register(final Class<T> modelClass, final ModelLoader<? super T> loader) {
+        loaders.put(modelClass, loader);
+        modelClasses.put(modelClass.getName(), modelClass);
+        return this;
+    }
+
+    /**
+     * Whether the models without a loader are skipped instead of failing their creation.
+     */
+    public ModelLoaders skipUnregistered(final boolean skipUnregistered) {
+        this.skipUnregistered = skipUnregistered;
+        return this;
+    }
+
+    /**
+     * @return the registered model class with the given fully qualified name, <code>null</code> if there is none
+     */
+    public Class<?> getModelClass(final String className) {
+        return modelClasses.get(className);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void create(final Object model) throws TechnicalException {
+        ModelLoader<Object> loader = (ModelLoader<Object>) loaders.get(model.getClass());
+        if (loader == null) {
+            loader = (ModelLoader<Object>) findLoader(model.getClass());
+        }
+        if (loader != null) {
+            loader.create(model);
+        } else if (!skipUnregistered) {
+            throw new IllegalStateException("No model loader registered for " + model.getClass().getName());
+        }
+    }
+
+    /**
+     * @return the loader of the nearest registered superclass, else of the nearest registered interface
+     */
+    private ModelLoader<?> findLoader(final Class<?> modelClass) {
+        for (Class<?> type = modelClass.getSuperclass(); type != null; type = type.getSuperclass()) {
+            final ModelLoader<?> loader = loaders.get(type);
+            if (loader != null) {
+                return cache(modelClass, loader);
+            }
+        }
+        final Deque<Class<?>> interfaces = new ArrayDeque<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> type = modelClass; type != null; type = type.getSuperclass()) {
+            interfaces.addAll(asList(type.getInterfaces()));
+            while (!interfaces.isEmpty()) {
+                final Class<?> modelInterface = interfaces.poll();
+                if (visited.add(modelInterface)) {
+                    final ModelLoader<?> loader = loaders.get(modelInterface);
+                    if (loader != null) {
+                        return cache(modelClass, loader);
+                    }
+                    interfaces.addAll(asList(modelInterface.getInterfaces()));
+                }
+            }
+        }
+        return null;
+    }
+
+    private ModelLoader<?> cache(final Class<?> modelClass, final ModelLoader<?> loader) {
+        loaders.putIfAbsent(modelClass, loader);
+        return loader;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config;
+
+import org.junit.Test;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ModelLoadersTest {
+
+    private final List<String> created = new ArrayList<>();
+
+    @Test
+    public void shouldCreateWithTheLoaderOfTheModelClass() throws Exception {
+        final ModelLoaders loaders = new ModelLoaders()
+                .register(Integer.class, model -> created.add("integer " + model))
+                .register(Number.class, model -> created.add("number " + model));
+
+        loaders.create(42);
+        loaders.create(42L);
+
+        assertEquals(asList("integer 42", "number 42"), created);
+    }
+
+    @Test
+    public void shouldPreferTheNearestSuperclass() throws Exception {
+        final ModelLoaders loaders = new ModelLoaders()
+                .register(Object.class, model -> created.add("object"))
+                .register(Collection.class, model -> created.add("collection"))
+                .register(AbstractCollection.class, model -> created.add("abstract collection"));
+
+        loaders.create(new ArrayList<>());
+
+        assertEquals(asList("abstract collection"), created);
+    }
+
+    @Test
+    public void shouldPreferTheNearestInterfaceInDeclarationOrder() throws Exception {
+        final ModelLoaders loaders = new ModelLoaders()
+                .register(Collection.class, model -> created.add("collection"))
+                .register(RandomAccess.class, model -> created.add("random access"))
+                .register(Iterable.class, model -> created.add("iterable"));
+
+        // CopyOnWriteArrayList implements List, RandomAccess, Cloneable and Serializable
+        loaders.create(new CopyOnWriteArrayList<>());
+        loaders.create(new ArrayList<>());
+
+        assertEquals(asList("random access", "random access"), created);
+    }
+
+    @Test
+    public void shouldNotDependOnTheRegistrationOrder() throws Exception {
+        new ModelLoaders()
+                .register(Collection.class, model -> created.add("collection"))
+                .register(List.class, model -> created.add("list"))
+                .create(new CopyOnWriteArrayList<>());
+        new ModelLoaders()
+                .register(List.class, model -> created.add("list"))
+                .register(Collection.class, model -> created.add("collection"))
+                .create(new CopyOnWriteArrayList<>());
+
+        assertEquals(asList("list", "list"), created);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldFailOnUnregisteredModel() throws Exception {
+        new ModelLoaders()
+                .register(Number.class, model -> created.add("number"))
+                .create("model");
+    }
+
+    @Test
+    public void shouldSkipUnregisteredModel() throws Exception {
+        new ModelLoaders()
+                .register(Number.class, model -> created.add("number"))
+                .skipUnregistered(true)
+                .create("model");
+
+        assertTrue(created.isEmpty());
+    }
+
+    @Test
+    public void shouldGetRegisteredModelClass() {
+        final ModelLoaders loaders = new ModelLoaders().register(Integer.class, model -> created.add("integer"));
+
+        assertSame(Integer.class, loaders.getModelClass("java.lang.Integer"));
+        assertNull(loaders.getModelClass("java.lang.Long"));
+    }
+}
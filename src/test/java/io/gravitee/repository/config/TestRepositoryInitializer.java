@@ -15,9 +15,102 @@
  */
 package io.gravitee.repository.config;
 
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.List;
+
 public interface TestRepositoryInitializer {
 
     void setUp();
 
     void tearDown();
+
+    /**
+     * Optional bulk loading of the test data, for instance with JDBC batch inserts or a Mongo insertMany.
+     *
+     * @param modelClass the class of the models, as resolved from the fixture file name
+     * @param models the models to create, all of the given class
+     * @return <code>true</code> if the models have been created, <code>false</code> to let the test create them one by
+     * one through the repositories (default behaviour)
+     */
+    default <T> boolean createAll(Class<T> modelClass, List<T> models) throws TechnicalException {
+        return false;
+    }
+
+    /**
+     * When snapshots are supported, the test data of a test class is loaded only once, right after {@link #setUp()},
+     * then {@link #snapshot()} is called. After each test {@link #restore()} is called instead of {@link #tearDown()},
+     * which is only called once all the tests of the class have been run.
+     *
+     * @return <code>true</code> if {@link #snapshot()} and {@link #restore()} are implemented, <code>false</code> to
+     * set up and tear down the store around each test (default behaviour)
+     */
+    default boolean supportsSnapshot() {
+        return false;
+    }
+
+    /**
+     * Takes a snapshot of the store, for instance by opening a transaction, creating a template database or copying
+     * the collections.
+     */
+    default void snapshot() {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getName());
+    }
+
+    /**
+     * Rolls the store back to the last snapshot.
+     */
+    default void restore() {
+        throw new UnsupportedOperationException("Snapshots are not supported by " + getClass().getName());
+    }
+
+    /**
+     * When round trips are counted, the TCK checks that some queries returning aggregates (flows with their steps,
+     * APIs with their groups and labels, roles with their permissions...) don't issue one query per returned element.
+     *
+     * @return <code>true</code> if {@link #getRoundTrips()} is implemented, <code>false</code> to skip those checks
+     * (default behaviour)
+     */
+    default boolean supportsRoundTrips() {
+        return false;
+    }
+
+    /**
+     * @return the number of round trips to the backend (queries, commands, requests...) since the start, for instance
+     * from a JDBC statement listener or a Mongo command listener
+     */
+    default long getRoundTrips() {
+        throw new UnsupportedOperationException("Round trips are not counted by " + getClass().getName());
+    }
+
+    /**
+     * When namespaces are supported and <code>tck.parallel</code> is enabled, the test classes run concurrently on the
+     * same backend: each one is bound to its own namespace, for instance a schema, a database or an id prefix, where
+     * its fixtures are loaded and which its repository calls only see. Otherwise the test classes run one at a time.
+     *
+     * @return <code>true</code> if {@link #useNamespace(String)} is implemented, <code>false</code> to share one store
+     * between all the test classes (default behaviour)
+     */
+    default boolean supportsNamespaces() {
+        return false;
+    }
+
+    /**
+     * @return the namespace of the given test class, unique among the test classes, by default its simple name in
+     * lower case
+     */
+    default String namespace(Class<?> testClass) {
+        return testClass.getSimpleName().toLowerCase();
+    }
+
+    /**
+     * Binds the calling thread to the given namespace, creating it if needed: the following {@link #setUp()},
+     * {@link #tearDown()}, {@link #createAll(Class, List)}, {@link #snapshot()} and {@link #restore()} calls and the
+     * repository calls made by this thread apply to it.
+     *
+     * @param namespace the namespace, <code>null</code> to unbind the thread
+     */
+    default void useNamespace(String namespace) {
+        throw new UnsupportedOperationException("Namespaces are not supported by " + getClass().getName());
+    }
 }
@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.Optional;
+
+/**
+ * Base class of the in-memory repositories, providing the CRUD methods on top of a {@link MemoryStore}.
+ *
+ * @author GraviteeSource Team
+ */
+public abstract class AbstractMemoryRepository<T> {
+
+    protected final MemoryStore<T> store;
+
+    protected AbstractMemoryRepository(final MemoryStore<T> store) {
+        this.store = store;
+    }
+
+    public Optional<T> findById(final String id) throws TechnicalException {
+        return store.findById(id);
+    }
+
+    public T create(final T model) throws TechnicalException {
+        return store.create(model);
+    }
+
+    public T update(final T model) throws TechnicalException {
+        return store.update(model);
+    }
+
+    public void delete(final String id) throws TechnicalException {
+        store.delete(id);
+    }
+
+    MemoryStore<T> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiKeyRepository;
+import io.gravitee.repository.management.api.search.ApiKeyCriteria;
+import io.gravitee.repository.management.model.ApiKey;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.singleton;
+import static java.util.Comparator.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryApiKeyRepository extends AbstractMemoryRepository<ApiKey> implements ApiKeyRepository {
+
+    public MemoryApiKeyRepository() {
+        super(new MemoryStore<>(ApiKey::getKey)
+                .hashIndex("subscription", apiKey -> singleton(apiKey.getSubscription()))
+                .hashIndex("plan", apiKey -> singleton(apiKey.getPlan()))
+                .sortedIndex("updatedAt", ApiKey::getUpdatedAt)
+                .sortedIndex("expireAt", ApiKey::getExpireAt));
+    }
+
+    @Override
+    public Set<ApiKey> findBySubscription(final String subscription) throws TechnicalException {
+        return new LinkedHashSet<>(store.query().where("subscription", subscription).list());
+    }
+
+    @Override
+    public Set<ApiKey> findByPlan(final String plan) throws TechnicalException {
+        return new LinkedHashSet<>(store.query().where("plan", plan).list());
+    }
+
+    @Override
+    public List<ApiKey> findByCriteria(final ApiKeyCriteria criteria) throws TechnicalException {
+        final MemoryStore<ApiKey>.Query query = store.query()
+                .where("plan", criteria.getPlans())
+                .between("updatedAt", date(criteria.getFrom()), date(criteria.getTo()))
+                .between("expireAt", date(criteria.getExpireAfter()), date(criteria.getExpireBefore()))
+                .sort(comparing(ApiKey::getUpdatedAt, nullsLast(reverseOrder())));
+        if (!criteria.isIncludeRevoked()) {
+            query.filter(apiKey -> !apiKey.isRevoked());
+        }
+        return query.list();
+    }
+
+    private static Date date(final long time) {
+        return time > 0 ? new Date(time) : null;
+    }
+}
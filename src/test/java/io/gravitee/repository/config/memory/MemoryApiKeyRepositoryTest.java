@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.management.api.search.ApiKeyCriteria;
+import io.gravitee.repository.management.model.ApiKey;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryApiKeyRepositoryTest {
+
+    private final MemoryApiKeyRepository repository = new MemoryApiKeyRepository();
+
+    @Test
+    public void shouldFindBySubscriptionAndPlan() throws Exception {
+        createApiKeys();
+
+        assertEquals(asList("key-1", "key-2"), keys(repository.findBySubscription("subscription-1")));
+        assertEquals(asList("key-2", "key-3"), keys(repository.findByPlan("plan-2")));
+    }
+
+    @Test
+    public void shouldFindByCriteriaFromTheLatestUpdate() throws Exception {
+        createApiKeys();
+
+        assertEquals(asList("key-3", "key-1"), keys(repository.findByCriteria(new ApiKeyCriteria.Builder().build())));
+        assertEquals(asList("key-3", "key-2", "key-1"),
+                keys(repository.findByCriteria(new ApiKeyCriteria.Builder().includeRevoked(true).build())));
+    }
+
+    @Test
+    public void shouldFindByCriteriaOnPlansAndDates() throws Exception {
+        createApiKeys();
+
+        assertEquals(asList("key-3", "key-2"), keys(repository.findByCriteria(new ApiKeyCriteria.Builder()
+                .plans(singletonList("plan-2")).includeRevoked(true).build())));
+        assertEquals(asList("key-2", "key-1"), keys(repository.findByCriteria(new ApiKeyCriteria.Builder()
+                .from(1_000).to(2_000).includeRevoked(true).build())));
+        assertEquals(asList("key-3"), keys(repository.findByCriteria(new ApiKeyCriteria.Builder()
+                .expireAfter(5_000).build())));
+    }
+
+    private void createApiKeys() throws Exception {
+        repository.create(apiKey("key-1", "subscription-1", "plan-1", 1_000, null, false));
+        repository.create(apiKey("key-2", "subscription-1", "plan-2", 2_000, 4_000L, true));
+        repository.create(apiKey("key-3", "subscription-2", "plan-2", 3_000, 6_000L, false));
+    }
+
+    private static ApiKey apiKey(final String key, final String subscription, final String plan, final long updatedAt,
+                                 final Long expireAt, final boolean revoked) {
+        final ApiKey apiKey = new ApiKey();
+        apiKey.setKey(key);
+        apiKey.setSubscription(subscription);
+        apiKey.setPlan(plan);
+        apiKey.setUpdatedAt(new Date(updatedAt));
+        apiKey.setExpireAt(expireAt == null ? null : new Date(expireAt));
+        apiKey.setRevoked(revoked);
+        return apiKey;
+    }
+
+    private static List<String> keys(final Collection<ApiKey> apiKeys) {
+        return apiKeys.stream().map(ApiKey::getKey).collect(Collectors.toList());
+    }
+}
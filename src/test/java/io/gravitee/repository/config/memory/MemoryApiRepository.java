@@ -0,0 +1,132 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.Collections.singleton;
+import static java.util.Comparator.*;
+
+/**
+ * The APIs are indexed on the context paths of their parsed definition: <code>proxy.context_path</code>, and the
+ * <code>path</code> of each <code>proxy.virtual_hosts</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class MemoryApiRepository extends AbstractMemoryRepository<Api> implements ApiRepository {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public MemoryApiRepository() {
+        super(new MemoryStore<>(Api::getId)
+                .hashIndex("environmentId", api -> singleton(api.getEnvironmentId()))
+                .hashIndex("groups", Api::getGroups)
+                .hashIndex("categories", Api::getCategories)
+                .hashIndex("labels", Api::getLabels)
+                .hashIndex("visibility", api -> singleton(api.getVisibility()))
+                .hashIndex("contextPath", MemoryApiRepository::contextPaths));
+    }
+
+    @Override
+    public Page<Api> search(final ApiCriteria criteria, final Pageable pageable) {
+        return query(criteria).page(pageable);
+    }
+
+    @Override
+    public List<Api> search(final ApiCriteria criteria) {
+        return query(criteria).list();
+    }
+
+    @Override
+    public List<Api> search(final ApiCriteria criteria, final ApiFieldExclusionFilter apiFieldExclusionFilter) {
+        final List<Api> apis = search(criteria);
+        if (apiFieldExclusionFilter != null) {
+            for (final Api api : apis) {
+                if (apiFieldExclusionFilter.isDefinition()) {
+                    api.setDefinition(null);
+                }
+                if (apiFieldExclusionFilter.isPicture()) {
+                    api.setPicture(null);
+                }
+            }
+        }
+        return apis;
+    }
+
+    private MemoryStore<Api>.Query query(final ApiCriteria criteria) {
+        final MemoryStore<Api>.Query query = store.query()
+                .sort(comparing(Api::getName, nullsLast(naturalOrder())));
+        if (criteria == null) {
+            return query;
+        }
+        query.ids(criteria.getIds())
+                .where("groups", criteria.getGroups())
+                .where("categories", criteria.getCategory())
+                .where("labels", criteria.getLabel())
+                .where("visibility", criteria.getVisibility())
+                .where("environmentId", criteria.getEnvironmentId())
+                .where("environmentId", criteria.getEnvironments())
+                .where("contextPath", criteria.getContextPath());
+        if (criteria.getState() != null) {
+            query.filter(api -> criteria.getState() == api.getLifecycleState());
+        }
+        if (criteria.getVersion() != null) {
+            query.filter(api -> criteria.getVersion().equals(api.getVersion()));
+        }
+        if (criteria.getName() != null) {
+            query.filter(api -> criteria.getName().equals(api.getName()));
+        }
+        if (criteria.getLifecycleStates() != null && !criteria.getLifecycleStates().isEmpty()) {
+            query.filter(api -> criteria.getLifecycleStates().contains(api.getApiLifecycleState()));
+        }
+        return query;
+    }
+
+    private static Collection<String> contextPaths(final Api api) {
+        if (api.getDefinition() == null) {
+            return null;
+        }
+        final JsonNode proxy;
+        try {
+            proxy = MAPPER.readTree(api.getDefinition()).path("proxy");
+        } catch (final IOException e) {
+            // not a definition, so no context path to find the API on
+            return null;
+        }
+        final List<String> contextPaths = new ArrayList<>(1);
+        if (proxy.path("context_path").isTextual()) {
+            contextPaths.add(proxy.path("context_path").getTextValue());
+        }
+        for (final JsonNode virtualHost : proxy.path("virtual_hosts")) {
+            if (virtualHost.path("path").isTextual()) {
+                contextPaths.add(virtualHost.path("path").getTextValue());
+            }
+        }
+        return contextPaths;
+    }
+}
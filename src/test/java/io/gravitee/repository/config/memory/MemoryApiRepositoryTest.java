@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.LifecycleState;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryApiRepositoryTest {
+
+    private final MemoryApiRepository repository = new MemoryApiRepository();
+
+    @Test
+    public void shouldSearchOnTheProxyContextPath() throws Exception {
+        repository.create(api("api-1", "b", "{\"proxy\" : {\"context_path\" : \"/product\"}}"));
+        repository.create(api("api-2", "a", "{\"proxy\":{\"context_path\":\"/other\"}}"));
+
+        assertEquals(asList("api-1"), ids(repository.search(new ApiCriteria.Builder().contextPath("/product").build())));
+        assertEquals(emptyList(), ids(repository.search(new ApiCriteria.Builder().contextPath("/prod").build())));
+    }
+
+    @Test
+    public void shouldSearchOnTheVirtualHostPaths() throws Exception {
+        repository.create(api("api-1", "a", "{\"proxy\":{\"virtual_hosts\":[{\"host\":\"api.gravitee.io\",\"path\":\"/v1\"},"
+                + "{\"path\":\"/v2\"}]}}"));
+
+        assertEquals(asList("api-1"), ids(repository.search(new ApiCriteria.Builder().contextPath("/v1").build())));
+        assertEquals(asList("api-1"), ids(repository.search(new ApiCriteria.Builder().contextPath("/v2").build())));
+    }
+
+    @Test
+    public void shouldNotSearchOnTheContextPathsOutsideOfTheProxy() throws Exception {
+        repository.create(api("api-1", "a", "{\"description\":\"\\\"context_path\\\":\\\"/product\\\"\","
+                + "\"paths\":{\"context_path\":\"/product\"}}"));
+        repository.create(api("api-2", "b", "not a definition"));
+        repository.create(api("api-3", "c", null));
+
+        assertEquals(emptyList(), ids(repository.search(new ApiCriteria.Builder().contextPath("/product").build())));
+        assertEquals(asList("api-1", "api-2", "api-3"), ids(repository.search(new ApiCriteria.Builder().build())));
+    }
+
+    @Test
+    public void shouldSearchByNameOrder() throws Exception {
+        repository.create(api("api-1", "b", null));
+        repository.create(api("api-2", null, null));
+        repository.create(api("api-3", "a", null));
+        repository.update(state(repository.findById("api-1").get(), LifecycleState.STARTED));
+
+        assertEquals(asList("api-3", "api-1", "api-2"), ids(repository.search(null)));
+        assertEquals(asList("api-1"),
+                ids(repository.search(new ApiCriteria.Builder().state(LifecycleState.STARTED).build())));
+    }
+
+    @Test
+    public void shouldExcludeTheDefinition() throws Exception {
+        repository.create(api("api-1", "a", "{}"));
+
+        final List<Api> apis = repository.search(new ApiCriteria.Builder().build(),
+                new ApiFieldExclusionFilter.Builder().excludeDefinition().build());
+
+        assertNull(apis.get(0).getDefinition());
+        assertEquals("{}", repository.findById("api-1").get().getDefinition());
+    }
+
+    private static Api api(final String id, final String name, final String definition) {
+        final Api api = new Api();
+        api.setId(id);
+        api.setName(name);
+        api.setDefinition(definition);
+        return api;
+    }
+
+    private static Api state(final Api api, final LifecycleState state) {
+        api.setLifecycleState(state);
+        return api;
+    }
+
+    private static List<String> ids(final Collection<Api> apis) {
+        return apis.stream().map(Api::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.search.ApplicationCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+
+import java.util.*;
+
+import static java.util.Collections.singleton;
+import static java.util.Comparator.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryApplicationRepository extends AbstractMemoryRepository<Application> implements ApplicationRepository {
+
+    public MemoryApplicationRepository() {
+        super(new MemoryStore<>(Application::getId)
+                .hashIndex("environmentId", application -> singleton(application.getEnvironmentId()))
+                .hashIndex("groups", Application::getGroups)
+                .hashIndex("status", application -> singleton(application.getStatus())));
+    }
+
+    @Override
+    public Set<Application> findAll(final ApplicationStatus... statuses) throws TechnicalException {
+        return new LinkedHashSet<>(store.query().where("status", Arrays.asList(statuses)).list());
+    }
+
+    @Override
+    public Set<Application> findAllByEnvironment(final String environmentId, final ApplicationStatus... statuses) throws TechnicalException {
+        return new LinkedHashSet<>(store.query()
+                .where("environmentId", environmentId)
+                .where("status", Arrays.asList(statuses))
+                .list());
+    }
+
+    @Override
+    public Set<Application> findByIds(final List<String> ids) throws TechnicalException {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<>(store.query().ids(ids).list());
+    }
+
+    @Override
+    public Set<Application> findByGroups(final List<String> groups, final ApplicationStatus... statuses) throws TechnicalException {
+        if (groups == null || groups.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<>(store.query()
+                .where("groups", groups)
+                .where("status", Arrays.asList(statuses))
+                .list());
+    }
+
+    @Override
+    public Set<Application> findByNameAndStatuses(final String name, final ApplicationStatus... statuses) throws TechnicalException {
+        return new LinkedHashSet<>(store.query()
+                .where("status", Arrays.asList(statuses))
+                .filter(application -> containsIgnoreCase(application.getName(), name))
+                .list());
+    }
+
+    @Override
+    public Page<Application> search(final ApplicationCriteria criteria, final Pageable pageable) throws TechnicalException {
+        final MemoryStore<Application>.Query query = store.query()
+                .ids(criteria.getIds())
+                .where("environmentId", criteria.getEnvironmentIds())
+                .where("status", criteria.getStatus())
+                .sort(comparing(Application::getName, nullsLast(naturalOrder())));
+        if (criteria.getName() != null) {
+            query.filter(application -> containsIgnoreCase(application.getName(), criteria.getName()));
+        }
+        return query.page(pageable);
+    }
+
+    private static boolean containsIgnoreCase(final String value, final String searched) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(searched.toLowerCase(Locale.ROOT));
+    }
+}
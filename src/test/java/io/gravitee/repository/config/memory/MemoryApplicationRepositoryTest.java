@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.search.ApplicationCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryApplicationRepositoryTest {
+
+    private final MemoryApplicationRepository repository = new MemoryApplicationRepository();
+
+    @Test
+    public void shouldFindAllWithAnyOfTheStatuses() throws Exception {
+        createApplications();
+
+        assertEquals(asList("app-1", "app-2", "app-3"), ids(repository.findAll()));
+        assertEquals(asList("app-2"), ids(repository.findAll(ApplicationStatus.ARCHIVED)));
+        assertEquals(asList("app-3"), ids(repository.findAllByEnvironment("PROD", ApplicationStatus.ACTIVE)));
+    }
+
+    @Test
+    public void shouldFindByIdsAndGroups() throws Exception {
+        createApplications();
+
+        assertEquals(emptyList(), ids(repository.findByIds(emptyList())));
+        assertEquals(asList("app-1", "app-3"), ids(repository.findByIds(asList("app-3", "app-1", "unknown"))));
+        assertEquals(emptyList(), ids(repository.findByGroups(emptyList())));
+        assertEquals(asList("app-1", "app-2"), ids(repository.findByGroups(singletonList("group-1"))));
+        assertEquals(asList("app-1"), ids(repository.findByGroups(asList("group-1", "group-2"), ApplicationStatus.ACTIVE)));
+    }
+
+    @Test
+    public void shouldFindByNameIgnoringCase() throws Exception {
+        createApplications();
+
+        assertEquals(asList("app-1", "app-3"), ids(repository.findByNameAndStatuses("APP", ApplicationStatus.ACTIVE)));
+        assertEquals(asList("app-2"), ids(repository.findByNameAndStatuses("other")));
+    }
+
+    @Test
+    public void shouldSearchByNameOrder() throws Exception {
+        createApplications();
+
+        final Page<Application> page = repository.search(new ApplicationCriteria.Builder()
+                        .environmentIds(asList("DEFAULT", "PROD"))
+                        .build(),
+                new PageableBuilder().pageNumber(0).pageSize(1).build());
+
+        assertEquals(asList("app-3"), ids(page.getContent()));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(asList("app-1"), ids(repository.search(new ApplicationCriteria.Builder()
+                .name("app b").status(ApplicationStatus.ACTIVE).build(), null).getContent()));
+    }
+
+    private void createApplications() throws Exception {
+        repository.create(application("app-1", "My App B", "DEFAULT", ApplicationStatus.ACTIVE, "group-1"));
+        repository.create(application("app-2", "Other", "DEFAULT", ApplicationStatus.ARCHIVED, "group-1"));
+        repository.create(application("app-3", "App A", "PROD", ApplicationStatus.ACTIVE));
+    }
+
+    private static Application application(final String id, final String name, final String environmentId,
+                                           final ApplicationStatus status, final String... groups) {
+        final Application application = new Application();
+        application.setId(id);
+        application.setName(name);
+        application.setEnvironmentId(environmentId);
+        application.setStatus(status);
+        application.setGroups(new HashSet<>(asList(groups)));
+        return application;
+    }
+
+    private static List<String> ids(final Collection<Application> applications) {
+        return applications.stream().map(Application::getId).collect(Collectors.toList());
+    }
+}
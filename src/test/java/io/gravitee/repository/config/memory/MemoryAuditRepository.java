@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.api.search.AuditCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Audit;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singleton;
+import static java.util.Comparator.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryAuditRepository extends AbstractMemoryRepository<Audit> implements AuditRepository {
+
+    public MemoryAuditRepository() {
+        super(new MemoryStore<>(Audit::getId)
+                .hashIndex("reference", audit -> singleton(new SimpleImmutableEntry<>(audit.getReferenceType(), audit.getReferenceId())))
+                .hashIndex("event", audit -> singleton(audit.getEvent()))
+                .sortedIndex("createdAt", Audit::getCreatedAt));
+    }
+
+    @Override
+    public Page<Audit> search(final AuditCriteria criteria, final Pageable pageable) {
+        final List<Map.Entry<Audit.AuditReferenceType, String>> references = new ArrayList<>();
+        if (criteria.getReferences() != null) {
+            criteria.getReferences().forEach((type, ids) ->
+                    ids.forEach(id -> references.add(new SimpleImmutableEntry<>(type, id))));
+        }
+        final MemoryStore<Audit>.Query query = store.query()
+                .where("reference", references)
+                .where("event", criteria.getEvents())
+                .between("createdAt", criteria.getFrom() > 0 ? new Date(criteria.getFrom()) : null,
+                        criteria.getTo() > 0 ? new Date(criteria.getTo()) : null)
+                .sort(comparing(Audit::getCreatedAt, nullsLast(reverseOrder())));
+        if (criteria.getProperties() != null && !criteria.getProperties().isEmpty()) {
+            query.filter(audit -> audit.getProperties() != null
+                    && audit.getProperties().entrySet().containsAll(criteria.getProperties().entrySet()));
+        }
+        return query.page(pageable);
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.management.api.search.AuditCriteria;
+import io.gravitee.repository.management.model.Audit;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static io.gravitee.repository.management.model.Audit.AuditReferenceType.API;
+import static io.gravitee.repository.management.model.Audit.AuditReferenceType.APPLICATION;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryAuditRepositoryTest {
+
+    private final MemoryAuditRepository repository = new MemoryAuditRepository();
+
+    @Test
+    public void shouldSearchFromTheLatest() throws Exception {
+        createAudits();
+
+        assertEquals(asList("audit-3", "audit-2", "audit-1"), search(new AuditCriteria.Builder().build()));
+        assertEquals(asList("audit-2", "audit-1"), search(new AuditCriteria.Builder().from(1_000).to(2_000).build()));
+    }
+
+    @Test
+    public void shouldSearchOnTheReferencesAndEvents() throws Exception {
+        createAudits();
+
+        assertEquals(asList("audit-2", "audit-1"),
+                search(new AuditCriteria.Builder().references(API, asList("api-1", "api-2")).build()));
+        assertEquals(asList("audit-3"),
+                search(new AuditCriteria.Builder().references(APPLICATION, singletonList("api-1")).build()));
+        assertEquals(asList("audit-1"), search(new AuditCriteria.Builder().events(singletonList("API_CREATED")).build()));
+    }
+
+    @Test
+    public void shouldSearchOnAllTheProperties() throws Exception {
+        createAudits();
+
+        assertEquals(asList("audit-2", "audit-1"), search(new AuditCriteria.Builder().property("USER", "admin").build()));
+        assertEquals(asList("audit-2"), search(new AuditCriteria.Builder()
+                .property("USER", "admin").property("PLAN", "plan-1").build()));
+    }
+
+    private void createAudits() throws Exception {
+        repository.create(audit("audit-1", API, "api-1", "API_CREATED", 1_000, "USER", "admin"));
+        repository.create(audit("audit-2", API, "api-2", "API_UPDATED", 2_000, "USER", "admin", "PLAN", "plan-1"));
+        repository.create(audit("audit-3", APPLICATION, "api-1", "APPLICATION_CREATED", 3_000));
+    }
+
+    private List<String> search(final AuditCriteria criteria) {
+        return ids(repository.search(criteria, null).getContent());
+    }
+
+    private static Audit audit(final String id, final Audit.AuditReferenceType referenceType, final String referenceId,
+                               final String event, final long createdAt, final String... properties) {
+        final Audit audit = new Audit();
+        audit.setId(id);
+        audit.setReferenceType(referenceType);
+        audit.setReferenceId(referenceId);
+        audit.setEvent(event);
+        audit.setCreatedAt(new Date(createdAt));
+        final Map<String, String> auditProperties = new HashMap<>();
+        for (int i = 0; i < properties.length; i += 2) {
+            auditProperties.put(properties[i], properties[i + 1]);
+        }
+        audit.setProperties(auditProperties);
+        return audit;
+    }
+
+    private static List<String> ids(final Collection<Audit> audits) {
+        return audits.stream().map(Audit::getId).collect(Collectors.toList());
+    }
+}
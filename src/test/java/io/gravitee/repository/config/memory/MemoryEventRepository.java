@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.capability.EventChanges;
+import io.gravitee.repository.capability.EventCursor;
+import io.gravitee.repository.capability.EventFeed;
+import io.gravitee.repository.capability.EventPurge;
+import io.gravitee.repository.capability.EventStream;
+import io.gravitee.repository.management.api.EventRepository;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Event;
+import io.reactivex.Flowable;
+
+import java.util.*;
+
+import static java.util.Comparator.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryEventRepository extends AbstractMemoryRepository<Event> implements EventRepository, EventFeed, EventStream, EventPurge {
+
+    /**
+     * Number of events read per query by {@link #stream(EventCriteria)}.
+     */
+    static final int STREAM_BATCH_SIZE = 1000;
+
+    private static final String API_ID = Event.EventProperties.API_ID.getValue();
+
+    /**
+     * Order of {@link #changes(EventCriteria, EventCursor, int)}, from the oldest update.
+     */
+    private static final Comparator<Event> FEED_ORDER = comparing(Event::getUpdatedAt).thenComparing(Event::getId);
+
+    /**
+     * Order of {@link #search(EventCriteria)} and {@link #stream(EventCriteria)}, from the latest update, the ties
+     * being broken by id so that the stream can resume after an event and returns them in the order of the search.
+     */
+    private static final Comparator<Event> SEARCH_ORDER = comparing(Event::getUpdatedAt, nullsLast(reverseOrder()))
+            .thenComparing(Event::getId);
+
+    public MemoryEventRepository() {
+        super(new MemoryStore<>(Event::getId)
+                .hashIndex("type", event -> Collections.singleton(event.getType()))
+                .hashIndex("environments", Event::getEnvironments)
+                .hashIndex("properties", event -> event.getProperties() == null ? null : event.getProperties().entrySet())
+                .sortedIndex("updatedAt", Event::getUpdatedAt));
+    }
+
+    @Override
+    public Page<Event> search(final EventCriteria criteria, final Pageable pageable) {
+        return query(criteria).page(pageable);
+    }
+
+    @Override
+    public List<Event> search(final EventCriteria criteria) {
+        return query(criteria).list();
+    }
+
+    @Override
+    public EventChanges changes(final EventCriteria criteria, final EventCursor after, final int limit) {
+        final MemoryStore<Event>.Query query = criteria == null ? store.query() : query(criteria);
+        final List<Event> events = query
+                .between("updatedAt", after.getUpdatedAt() == Long.MIN_VALUE ? null : new Date(after.getUpdatedAt()), null)
+                .filter(event -> event.getUpdatedAt() != null && after.isBefore(event.getUpdatedAt().getTime(), event.getId()))
+                .sort(FEED_ORDER)
+                .orderBy("updatedAt", false)
+                .limit(limit)
+                .list();
+        if (events.isEmpty()) {
+            return new EventChanges(events, after);
+        }
+        final Event last = events.get(events.size() - 1);
+        return new EventChanges(events, EventCursor.after(last.getUpdatedAt().getTime(), last.getId()));
+    }
+
+    @Override
+    public Flowable<Event> stream(final EventCriteria criteria) {
+        final String namespace = MemoryStore.namespace();
+        return Flowable.<List<Event>, Optional<Event>>generate(Optional::empty, (last, emitter) -> {
+            final List<Event> batch = batchAfter(namespace, criteria, last.orElse(null));
+            if (!batch.isEmpty()) {
+                emitter.onNext(batch);
+            }
+            if (batch.size() < STREAM_BATCH_SIZE) {
+                emitter.onComplete();
+                return last;
+            }
+            return Optional.of(batch.get(batch.size() - 1));
+        }).concatMapIterable(batch -> batch, 1);
+    }
+
+    /**
+     * @return the next events of the stream after the given one, in the namespace the stream has been created in as
+     * the batches are read by the thread requesting them. A batch resumes from the update of the last event on the
+     * sorted index, the id only breaking the ties of that update.
+     */
+    private List<Event> batchAfter(final String namespace, final EventCriteria criteria, final Event last) {
+        final String previous = MemoryStore.namespace();
+        MemoryStore.useNamespace(namespace);
+        try {
+            final MemoryStore<Event>.Query query = criteria == null
+                    ? store.query().sort(SEARCH_ORDER)
+                    : query(criteria);
+            if (last != null) {
+                final Date updatedAt = last.getUpdatedAt();
+                query.between("updatedAt", null, updatedAt)
+                        .filter(event -> !Objects.equals(event.getUpdatedAt(), updatedAt)
+                                || event.getId().compareTo(last.getId()) > 0);
+            }
+            return query.orderBy("updatedAt", true).limit(STREAM_BATCH_SIZE).list();
+        } finally {
+            MemoryStore.useNamespace(previous);
+        }
+    }
+
+    @Override
+    public long purge(final long before, final int batchSize) {
+        final Map<String, EventCursor> latest = new HashMap<>();
+        EventCursor after = EventCursor.START;
+        long deleted = 0;
+        while (true) {
+            final EventCursor from = after;
+            final List<Event> batch = store.query()
+                    .between("updatedAt", null, new Date(before))
+                    .filter(event -> event.getUpdatedAt().getTime() < before
+                            && from.isBefore(event.getUpdatedAt().getTime(), event.getId()))
+                    .sort(FEED_ORDER)
+                    .limit(batchSize)
+                    .list();
+            if (batch.isEmpty()) {
+                return deleted;
+            }
+
+            final List<String> purged = new ArrayList<>(batch.size());
+            for (final Event event : batch) {
+                final String apiId = event.getProperties() == null ? null : event.getProperties().get(API_ID);
+                final EventCursor position = EventCursor.after(event.getUpdatedAt().getTime(), event.getId());
+                if (apiId == null || !position.equals(latest.computeIfAbsent(apiId, this::latest))) {
+                    purged.add(event.getId());
+                }
+            }
+            if (!purged.isEmpty()) {
+                // the events updated since they have been read are not old anymore
+                deleted += store.query()
+                        .ids(purged)
+                        .filter(event -> event.getUpdatedAt() != null && event.getUpdatedAt().getTime() < before)
+                        .delete();
+            }
+            final Event last = batch.get(batch.size() - 1);
+            after = EventCursor.after(last.getUpdatedAt().getTime(), last.getId());
+        }
+    }
+
+    /**
+     * @return the position of the latest event of the API
+     */
+    private EventCursor latest(final String apiId) {
+        final List<Event> events = store.query()
+                .where("properties", properties(API_ID, apiId))
+                .filter(event -> event.getUpdatedAt() != null)
+                .sort(FEED_ORDER.reversed())
+                .limit(1)
+                .list();
+        return events.isEmpty() ? EventCursor.START
+                : EventCursor.after(events.get(0).getUpdatedAt().getTime(), events.get(0).getId());
+    }
+
+    private MemoryStore<Event>.Query query(final EventCriteria criteria) {
+        final MemoryStore<Event>.Query query = store.query()
+                .between("updatedAt", criteria.getFrom() > 0 ? new Date(criteria.getFrom()) : null,
+                        criteria.getTo() > 0 ? new Date(criteria.getTo()) : null)
+                .where("type", criteria.getTypes())
+                .where("environments", criteria.getEnvironments())
+                .sort(SEARCH_ORDER);
+        if (criteria.getProperties() != null) {
+            criteria.getProperties().forEach((name, value) -> query.where("properties", properties(name, value)));
+        }
+        return query;
+    }
+
+    /**
+     * @return the entries matching a property criterion, any of the values matching when a collection is given
+     */
+    private static Collection<Map.Entry<String, String>> properties(final String name, final Object value) {
+        final Collection<?> values = value instanceof Collection ? (Collection<?>) value : Collections.singleton(value);
+        final List<Map.Entry<String, String>> entries = new ArrayList<>(values.size());
+        for (final Object each : values) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(name, String.valueOf(each)));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.capability.EventChanges;
+import io.gravitee.repository.capability.EventCursor;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryEventRepositoryTest {
+
+    private static final String API_ID = Event.EventProperties.API_ID.getValue();
+
+    private final MemoryEventRepository repository = new MemoryEventRepository();
+
+    @Test
+    public void shouldSearchAndStreamInTheSameOrder() throws Exception {
+        repository.create(event("c", "api-1", EventType.PUBLISH_API, 1_000));
+        repository.create(event("b", "api-2", EventType.PUBLISH_API, 2_000));
+        repository.create(event("e", "api-1", EventType.STOP_API, 2_000));
+        repository.create(event("a", "api-2", EventType.START_API, 2_000));
+        repository.create(event("d", "api-1", EventType.PUBLISH_API, 3_000));
+        final EventCriteria criteria = new EventCriteria.Builder().build();
+
+        final List<String> searched = ids(repository.search(criteria));
+
+        assertEquals(asList("d", "a", "b", "e", "c"), searched);
+        assertEquals(searched, ids(repository.search(criteria, null).getContent()));
+        assertEquals(searched, ids(repository.stream(criteria).toList().blockingGet()));
+    }
+
+    @Test
+    public void shouldStreamAcrossBatches() throws Exception {
+        final int count = MemoryEventRepository.STREAM_BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            repository.create(event(String.format("event-%05d", i), "api-" + i % 3, EventType.PUBLISH_API, i / 10));
+        }
+        final EventCriteria criteria = new EventCriteria.Builder().property(API_ID, "api-1").build();
+
+        final List<String> streamed = ids(repository.stream(criteria).toList().blockingGet());
+
+        assertEquals(ids(repository.search(criteria)), streamed);
+        assertEquals(count / 3, streamed.size());
+    }
+
+    @Test
+    public void shouldSearchOnAnyOfThePropertyValues() throws Exception {
+        repository.create(event("1", "api-1", EventType.PUBLISH_API, 1_000));
+        repository.create(event("2", "api-2", EventType.STOP_API, 2_000));
+        repository.create(event("3", "api-3", EventType.PUBLISH_API, 3_000));
+
+        assertEquals(asList("3", "1"), ids(repository.search(new EventCriteria.Builder()
+                .property(API_ID, asList("api-1", "api-3")).build())));
+        assertEquals(asList("1"), ids(repository.search(new EventCriteria.Builder()
+                .property(API_ID, asList("api-1", "api-2")).types(EventType.PUBLISH_API).build())));
+        assertEquals(asList("2"), ids(repository.search(new EventCriteria.Builder()
+                .from(1_500).to(2_500).environments(singletonList("DEFAULT")).build())));
+    }
+
+    @Test
+    public void shouldReadTheChangesAfterTheCursor() throws Exception {
+        repository.create(event("b", "api-1", EventType.PUBLISH_API, 1_000));
+        repository.create(event("a", "api-1", EventType.PUBLISH_API, 1_000));
+        repository.create(event("c", "api-2", EventType.PUBLISH_API, 2_000));
+
+        final EventChanges first = repository.changes(null, EventCursor.START, 2);
+        final EventChanges second = repository.changes(null, first.getNext(), 2);
+        final EventChanges last = repository.changes(null, second.getNext(), 2);
+
+        assertEquals(asList("a", "b"), ids(first.getEvents()));
+        assertEquals(EventCursor.after(1_000, "b"), first.getNext());
+        assertEquals(asList("c"), ids(second.getEvents()));
+        assertEquals(Collections.emptyList(), last.getEvents());
+        assertEquals(second.getNext(), last.getNext());
+    }
+
+    @Test
+    public void shouldPurgeAllButTheLatestEventOfEachApi() throws Exception {
+        repository.create(event("1", "api-1", EventType.PUBLISH_API, 1_000));
+        repository.create(event("2", "api-1", EventType.PUBLISH_API, 2_000));
+        repository.create(event("3", "api-2", EventType.PUBLISH_API, 1_500));
+        repository.create(event("4", "api-1", EventType.PUBLISH_API, 5_000));
+        repository.create(event("5", null, EventType.START_API, 500));
+
+        assertEquals(3, repository.purge(3_000, 1));
+
+        assertEquals(asList("4", "3"), ids(repository.search(new EventCriteria.Builder().build())));
+    }
+
+    private static Event event(final String id, final String apiId, final EventType type, final long updatedAt) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setEnvironments(new HashSet<>(singletonList("DEFAULT")));
+        final Map<String, String> properties = new HashMap<>();
+        if (apiId != null) {
+            properties.put(API_ID, apiId);
+        }
+        event.setProperties(properties);
+        event.setCreatedAt(new Date(updatedAt));
+        event.setUpdatedAt(new Date(updatedAt));
+        return event;
+    }
+
+    private static List<String> ids(final Collection<Event> events) {
+        return events.stream().map(Event::getId).collect(Collectors.toList());
+    }
+}
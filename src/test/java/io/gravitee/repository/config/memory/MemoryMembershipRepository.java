@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipMemberType;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+
+import java.util.*;
+
+import static java.util.Collections.singleton;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryMembershipRepository extends AbstractMemoryRepository<Membership> implements MembershipRepository {
+
+    public MemoryMembershipRepository() {
+        super(new MemoryStore<>(Membership::getId)
+                .hashIndex("reference", membership -> singleton(reference(membership.getReferenceType(), membership.getReferenceId())))
+                .hashIndex("member", membership -> singleton(member(membership.getMemberType(), membership.getMemberId())))
+                .hashIndex("roleId", membership -> singleton(membership.getRoleId())));
+    }
+
+    @Override
+    public void deleteMembers(final MembershipReferenceType referenceType, final String referenceId) throws TechnicalException {
+        store.query().where("reference", reference(referenceType, referenceId)).delete();
+    }
+
+    @Override
+    public Set<Membership> findByIds(final Set<String> ids) throws TechnicalException {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<>(store.query().ids(ids).list());
+    }
+
+    @Override
+    public Set<Membership> findByReferenceAndRoleId(final MembershipReferenceType referenceType, final String referenceId,
+                                                    final String roleId) throws TechnicalException {
+        return findByReferencesAndRoleId(referenceType, Collections.singletonList(referenceId), roleId);
+    }
+
+    @Override
+    public Set<Membership> findByReferencesAndRoleId(final MembershipReferenceType referenceType, final List<String> referenceIds,
+                                                     final String roleId) throws TechnicalException {
+        final List<Map.Entry<MembershipReferenceType, String>> references = new ArrayList<>(referenceIds.size());
+        for (final String referenceId : referenceIds) {
+            references.add(reference(referenceType, referenceId));
+        }
+        return new LinkedHashSet<>(store.query()
+                .where("reference", references)
+                .where("roleId", roleId)
+                .list());
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdAndMemberTypeAndReferenceType(final String memberId, final MembershipMemberType memberType,
+                                                                       final MembershipReferenceType referenceType) throws TechnicalException {
+        return findByMemberIdsAndMemberTypeAndReferenceType(Collections.singletonList(memberId), memberType, referenceType);
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdAndMemberTypeAndReferenceTypeAndSource(final String memberId, final MembershipMemberType memberType,
+                                                                                final MembershipReferenceType referenceType,
+                                                                                final String source) throws TechnicalException {
+        return new LinkedHashSet<>(store.query()
+                .where("member", member(memberType, memberId))
+                .filter(membership -> referenceType == membership.getReferenceType())
+                .filter(membership -> Objects.equals(source, membership.getSource()))
+                .list());
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdsAndMemberTypeAndReferenceType(final List<String> memberIds, final MembershipMemberType memberType,
+                                                                        final MembershipReferenceType referenceType) throws TechnicalException {
+        final List<Map.Entry<MembershipMemberType, String>> members = new ArrayList<>(memberIds.size());
+        for (final String memberId : memberIds) {
+            members.add(member(memberType, memberId));
+        }
+        return new LinkedHashSet<>(store.query()
+                .where("member", members)
+                .filter(membership -> referenceType == membership.getReferenceType())
+                .list());
+    }
+
+    @Override
+    public Set<Membership> findByRoleId(final String roleId) throws TechnicalException {
+        return new LinkedHashSet<>(store.query().where("roleId", roleId).list());
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdAndMemberTypeAndReferenceTypeAndRoleId(final String memberId, final MembershipMemberType memberType,
+                                                                                final MembershipReferenceType referenceType,
+                                                                                final String roleId) throws TechnicalException {
+        return new LinkedHashSet<>(store.query()
+                .where("member", member(memberType, memberId))
+                .where("roleId", roleId)
+                .filter(membership -> referenceType == membership.getReferenceType())
+                .list());
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdAndMemberTypeAndReferenceTypeAndReferenceIdAndRoleId(final String memberId, final MembershipMemberType memberType,
+                                                                                             final MembershipReferenceType referenceType, final String referenceId,
+                                                                                             final String roleId) throws TechnicalException {
+        return new LinkedHashSet<>(store.query()
+                .where("member", member(memberType, memberId))
+                .where("reference", reference(referenceType, referenceId))
+                .where("roleId", roleId)
+                .list());
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdAndMemberTypeAndReferenceTypeAndReferenceId(final String memberId, final MembershipMemberType memberType,
+                                                                                     final MembershipReferenceType referenceType,
+                                                                                     final String referenceId) throws TechnicalException {
+        return new LinkedHashSet<>(store.query()
+                .where("member", member(memberType, memberId))
+                .where("reference", reference(referenceType, referenceId))
+                .list());
+    }
+
+    @Override
+    public Set<Membership> findByMemberIdAndMemberType(final String memberId, final MembershipMemberType memberType) throws TechnicalException {
+        return new LinkedHashSet<>(store.query().where("member", member(memberType, memberId)).list());
+    }
+
+    private static Map.Entry<MembershipReferenceType, String> reference(final MembershipReferenceType referenceType, final String referenceId) {
+        return new AbstractMap.SimpleImmutableEntry<>(referenceType, referenceId);
+    }
+
+    private static Map.Entry<MembershipMemberType, String> member(final MembershipMemberType memberType, final String memberId) {
+        return new AbstractMap.SimpleImmutableEntry<>(memberType, memberId);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipMemberType;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.gravitee.repository.management.model.MembershipMemberType.GROUP;
+import static io.gravitee.repository.management.model.MembershipMemberType.USER;
+import static io.gravitee.repository.management.model.MembershipReferenceType.API;
+import static io.gravitee.repository.management.model.MembershipReferenceType.APPLICATION;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryMembershipRepositoryTest {
+
+    private final MemoryMembershipRepository repository = new MemoryMembershipRepository();
+
+    @Test
+    public void shouldFindByMemberAndReferenceType() throws Exception {
+        createMemberships();
+
+        assertEquals(asList("1", "2"), ids(repository.findByMemberIdAndMemberTypeAndReferenceType("user-1", USER, API)));
+        assertEquals(asList("1", "2", "3"),
+                ids(repository.findByMemberIdsAndMemberTypeAndReferenceType(asList("user-1", "user-2"), USER, API)));
+        assertEquals(emptyList(), ids(repository.findByMemberIdAndMemberTypeAndReferenceType("user-1", GROUP, API)));
+        assertEquals(asList("2"), ids(repository.findByMemberIdAndMemberTypeAndReferenceTypeAndSource("user-1", USER, API, "ldap")));
+    }
+
+    @Test
+    public void shouldFindByReferencesAndRole() throws Exception {
+        createMemberships();
+
+        assertEquals(asList("1", "3"), ids(repository.findByReferencesAndRoleId(API, asList("api-1", "api-2"), "OWNER")));
+        assertEquals(asList("1", "2", "3"), ids(repository.findByReferencesAndRoleId(API, asList("api-1", "api-2"), null)));
+        assertEquals(asList("4"), ids(repository.findByReferenceAndRoleId(APPLICATION, "api-1", null)));
+        assertEquals(asList("1", "3", "4"), ids(repository.findByRoleId("OWNER")));
+        assertEquals(asList("2"), ids(repository.findByMemberIdAndMemberTypeAndReferenceTypeAndReferenceIdAndRoleId(
+                "user-1", USER, API, "api-2", "USER")));
+    }
+
+    @Test
+    public void shouldFindByIds() throws Exception {
+        createMemberships();
+
+        assertEquals(emptyList(), ids(repository.findByIds(emptySet())));
+        assertEquals(asList("1", "4"), ids(repository.findByIds(new HashSet<>(asList("4", "1", "unknown")))));
+    }
+
+    @Test
+    public void shouldDeleteTheMembersOfTheReference() throws Exception {
+        createMemberships();
+
+        repository.deleteMembers(API, "api-1");
+
+        assertEquals(asList("2"), ids(repository.findByMemberIdAndMemberType("user-1", USER)));
+        assertEquals(asList("4"), ids(repository.findByRoleId("OWNER")));
+    }
+
+    private void createMemberships() throws Exception {
+        repository.create(membership("1", "user-1", USER, API, "api-1", "OWNER", "system"));
+        repository.create(membership("2", "user-1", USER, API, "api-2", "USER", "ldap"));
+        repository.create(membership("3", "user-2", USER, API, "api-1", "OWNER", "system"));
+        repository.create(membership("4", "group-1", GROUP, APPLICATION, "api-1", "OWNER", "system"));
+    }
+
+    private static Membership membership(final String id, final String memberId, final MembershipMemberType memberType,
+                                         final MembershipReferenceType referenceType, final String referenceId,
+                                         final String roleId, final String source) {
+        final Membership membership = new Membership();
+        membership.setId(id);
+        membership.setMemberId(memberId);
+        membership.setMemberType(memberType);
+        membership.setReferenceType(referenceType);
+        membership.setReferenceId(referenceId);
+        membership.setRoleId(roleId);
+        membership.setSource(source);
+        return membership;
+    }
+
+    private static List<String> ids(final Collection<Membership> memberships) {
+        return memberships.stream().map(Membership::getId).collect(Collectors.toList());
+    }
+}
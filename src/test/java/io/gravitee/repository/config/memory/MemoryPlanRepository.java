@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.model.Plan;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.util.Collections.singleton;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryPlanRepository extends AbstractMemoryRepository<Plan> implements PlanRepository {
+
+    public MemoryPlanRepository() {
+        super(new MemoryStore<>(Plan::getId)
+                .hashIndex("api", plan -> singleton(plan.getApi())));
+    }
+
+    @Override
+    public Set<Plan> findByApi(final String api) throws TechnicalException {
+        return new LinkedHashSet<>(store.query().where("api", api).list());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.management.model.Plan;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryPlanRepositoryTest {
+
+    private final MemoryPlanRepository repository = new MemoryPlanRepository();
+
+    @Test
+    public void shouldFindByApiInCreationOrder() throws Exception {
+        repository.create(plan("plan-2", "api-1"));
+        repository.create(plan("plan-1", "api-1"));
+        repository.create(plan("plan-3", "api-2"));
+
+        assertEquals(asList("plan-2", "plan-1"), ids(repository.findByApi("api-1")));
+        assertEquals(emptyList(), ids(repository.findByApi("unknown")));
+    }
+
+    @Test
+    public void shouldFindByApiAfterUpdateAndDelete() throws Exception {
+        repository.create(plan("plan-1", "api-1"));
+        repository.create(plan("plan-2", "api-1"));
+
+        repository.update(plan("plan-1", "api-2"));
+        repository.delete("plan-2");
+
+        assertEquals(emptyList(), ids(repository.findByApi("api-1")));
+        assertEquals(asList("plan-1"), ids(repository.findByApi("api-2")));
+    }
+
+    private static Plan plan(final String id, final String api) {
+        final Plan plan = new Plan();
+        plan.setId(id);
+        plan.setApi(api);
+        return plan;
+    }
+
+    private static List<String> ids(final Collection<Plan> plans) {
+        return plans.stream().map(Plan::getId).collect(Collectors.toList());
+    }
+}
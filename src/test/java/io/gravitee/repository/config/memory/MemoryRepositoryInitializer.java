@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.repository.config.TestRepositoryInitializer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Empties the in-memory repositories around the tests, and snapshots their rows so that the test data of a test class
+ * is loaded only once. Each namespace is a partition of the stores, so the test classes can run concurrently.
+ *
+ * @author GraviteeSource Team
+ */
+public class MemoryRepositoryInitializer implements TestRepositoryInitializer {
+
+    private final List<MemoryStore<?>> stores = new CopyOnWriteArrayList<>();
+    private final Map<String, Map<MemoryStore<?>, Object>> snapshots = new ConcurrentHashMap<>();
+
+    public <R extends AbstractMemoryRepository<?>> R register(final R repository) {
+        stores.add(repository.getStore());
+        return repository;
+    }
+
+    @Override
+    public void setUp() {
+        clear();
+    }
+
+    @Override
+    public void tearDown() {
+        clear();
+    }
+
+    @Override
+    public boolean supportsSnapshot() {
+        return true;
+    }
+
+    @Override
+    public void snapshot() {
+        final Map<MemoryStore<?>, Object> namespaceSnapshots = new ConcurrentHashMap<>();
+        for (final MemoryStore<?> store : stores) {
+            namespaceSnapshots.put(store, store.snapshot());
+        }
+        snapshots.put(MemoryStore.namespace(), namespaceSnapshots);
+    }
+
+    @Override
+    public void restore() {
+        final Map<MemoryStore<?>, Object> namespaceSnapshots = snapshots.getOrDefault(MemoryStore.namespace(), emptyMap());
+        for (final MemoryStore<?> store : stores) {
+            final Object snapshot = namespaceSnapshots.get(store);
+            if (snapshot == null) {
+                store.clear();
+            } else {
+                store.restore(snapshot);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsNamespaces() {
+        return true;
+    }
+
+    @Override
+    public void useNamespace(final String namespace) {
+        MemoryStore.useNamespace(namespace);
+    }
+
+    private void clear() {
+        snapshots.remove(MemoryStore.namespace());
+        stores.forEach(MemoryStore::clear);
+    }
+}
@@ -0,0 +1,619 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.search.Pageable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+
+/**
+ * Thread-safe in-memory table of models, with hash indexes (equality on one or several keys per model) and sorted
+ * indexes (ranges) on the fields the repositories filter on.
+ *
+ * Models are copied on the way in and on the way out, so callers never share an instance with the store. Rows keep
+ * the order they have been created in, which is used to break the ties of the sorts.
+ *
+ * The rows are partitioned by namespace: a thread bound to a namespace with {@link #useNamespace(String)} only sees
+ * the rows of that namespace, so that test classes can run concurrently on the same stores.
+ *
+ * @author GraviteeSource Team
+ */
+public class MemoryStore<T> {
+
+    private static final String DEFAULT_NAMESPACE = "";
+    private static final ThreadLocal<String> NAMESPACE = ThreadLocal.withInitial(() -> DEFAULT_NAMESPACE);
+
+    private final Function<T, String> id;
+    private final Map<String, Function<T, Collection<?>>> hashIndexes = new HashMap<>();
+    private final Map<String, Function<T, ? extends Comparable<?>>> sortedIndexes = new HashMap<>();
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    public MemoryStore(final Function<T, String> id) {
+        this.id = id;
+    }
+
+    /**
+     * Binds the calling thread to the given namespace, <code>null</code> for the default one.
+     */
+    static void useNamespace(final String namespace) {
+        if (namespace == null) {
+            NAMESPACE.remove();
+        } else {
+            NAMESPACE.set(namespace);
+        }
+    }
+
+    static String namespace() {
+        return NAMESPACE.get();
+    }
+
+    /**
+     * Indexes the rows on the keys returned for each model, <code>null</code> or an empty collection leaving the
+     * model out of the index.
+     */
+    public MemoryStore<T> hashIndex(final String name, final Function<T, Collection<?>> keys) {
+        hashIndexes.put(name, keys);
+        return this;
+    }
+
+    /**
+     * Indexes the rows on a comparable key for range lookups, a <code>null</code> key leaving the model out of the
+     * index.
+     */
+    public MemoryStore<T> sortedIndex(final String name, final Function<T, ? extends Comparable<?>> key) {
+        sortedIndexes.put(name, key);
+        return this;
+    }
+
+    public Optional<T> findById(final String key) {
+        final Partition partition = partition();
+        partition.lock.readLock().lock();
+        try {
+            final Row<T> row = key == null ? null : partition.rows.get(key);
+            return row == null ? Optional.empty() : Optional.of(ModelCopier.copy(row.model));
+        } finally {
+            partition.lock.readLock().unlock();
+        }
+    }
+
+    public T create(final T model) throws TechnicalException {
+        final T copy = ModelCopier.copy(model);
+        final String key = id.apply(copy);
+        final Partition partition = partition();
+        partition.lock.writeLock().lock();
+        try {
+            if (key == null || partition.rows.containsKey(key)) {
+                throw new TechnicalException("Unable to create " + model.getClass().getSimpleName() + " with id " + key);
+            }
+            final Row<T> row = new Row<>(copy, partition.sequence++);
+            partition.rows.put(key, row);
+            partition.index(key, row);
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+        return ModelCopier.copy(copy);
+    }
+
+    public T update(final T model) {
+        if (model == null) {
+            throw new IllegalStateException("Unable to update a null model");
+        }
+        final T copy = ModelCopier.copy(model);
+        final String key = id.apply(copy);
+        final Partition partition = partition();
+        partition.lock.writeLock().lock();
+        try {
+            final Row<T> previous = key == null ? null : partition.rows.get(key);
+            if (previous == null) {
+                throw new IllegalStateException("Unable to update unknown " + model.getClass().getSimpleName() + " " + key);
+            }
+            partition.unindex(key, previous);
+            final Row<T> row = new Row<>(copy, previous.sequence);
+            partition.rows.put(key, row);
+            partition.index(key, row);
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+        return ModelCopier.copy(copy);
+    }
+
+    public void delete(final String key) {
+        partition().delete(key);
+    }
+
+    public Query query() {
+        return new Query(partition());
+    }
+
+    /**
+     * Drops the rows of the current namespace.
+     */
+    public void clear() {
+        partitions.remove(namespace());
+    }
+
+    /**
+     * @return the current rows of the current namespace, to be given back to {@link #restore(Object)}
+     */
+    public Object snapshot() {
+        final Partition partition = partition();
+        partition.lock.readLock().lock();
+        try {
+            return new HashMap<>(partition.rows);
+        } finally {
+            partition.lock.readLock().unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void restore(final Object snapshot) {
+        final Partition partition = new Partition();
+        partition.rows.putAll((Map<String, Row<T>>) snapshot);
+        partition.rows.forEach(partition::index);
+        partition.sequence = partition.rows.values().stream().mapToLong(row -> row.sequence + 1).max().orElse(0);
+        partitions.put(namespace(), partition);
+    }
+
+    private Partition partition() {
+        return partitions.computeIfAbsent(namespace(), namespace -> new Partition());
+    }
+
+    /**
+     * The rows of a namespace, with their indexes.
+     */
+    private final class Partition {
+
+        private final Map<String, Row<T>> rows = new HashMap<>();
+        private final Map<String, HashIndex<T>> hashIndexes = new HashMap<>();
+        private final Map<String, SortedIndex<T>> sortedIndexes = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private long sequence;
+
+        private Partition() {
+            MemoryStore.this.hashIndexes.forEach((name, keys) -> hashIndexes.put(name, new HashIndex<>(keys)));
+            MemoryStore.this.sortedIndexes.forEach((name, key) -> sortedIndexes.put(name, new SortedIndex<>(key)));
+        }
+
+        private void delete(final String key) {
+            lock.writeLock().lock();
+            try {
+                final Row<T> row = key == null ? null : rows.remove(key);
+                if (row != null) {
+                    unindex(key, row);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void index(final String key, final Row<T> row) {
+            hashIndexes.values().forEach(index -> index.add(key, row.model));
+            sortedIndexes.values().forEach(index -> index.add(key, row.model));
+        }
+
+        private void unindex(final String key, final Row<T> row) {
+            hashIndexes.values().forEach(index -> index.remove(key, row.model));
+            sortedIndexes.values().forEach(index -> index.remove(key, row.model));
+        }
+
+        private HashIndex<T> hashIndex(final String name) {
+            final HashIndex<T> index = hashIndexes.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("No hash index " + name);
+            }
+            return index;
+        }
+
+        private SortedIndex<T> sortedIndex(final String name) {
+            final SortedIndex<T> index = sortedIndexes.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("No sorted index " + name);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Lookup on the indexes, the smallest set of candidates being then filtered on the other lookups and predicates.
+     * Lookups on <code>null</code> or empty collections of keys, as well as ranges without bounds, are ignored so that
+     * the optional fields of the search criteria can be given as is.
+     *
+     * A limited list {@link #orderBy(String, boolean) ordered by} a sorted index walks that index instead, from the
+     * bound of its range, and stops at the limit: reading the rows page after page then costs the rows read, not the
+     * whole range each time.
+     */
+    public class Query {
+
+        private final List<Supplier<Set<String>>> lookups = new ArrayList<>();
+        private final List<Predicate<T>> lookupFilters = new ArrayList<>();
+        private final Map<String, Comparable<?>[]> ranges = new HashMap<>();
+        private final List<Predicate<T>> filters = new ArrayList<>();
+        private final Partition partition;
+        private Comparator<T> comparator;
+        private int limit = Integer.MAX_VALUE;
+        private String orderIndex;
+        private boolean descending;
+
+        private Query(final Partition partition) {
+            this.partition = partition;
+        }
+
+        public Query ids(final Collection<String> keys) {
+            if (keys != null && !keys.isEmpty()) {
+                lookups.add(() -> {
+                    final Set<String> found = new HashSet<>();
+                    for (final String key : keys) {
+                        if (partition.rows.containsKey(key)) {
+                            found.add(key);
+                        }
+                    }
+                    return found;
+                });
+                final Set<String> lookedUp = new HashSet<>(keys);
+                lookupFilters.add(model -> lookedUp.contains(id.apply(model)));
+            }
+            return this;
+        }
+
+        public Query where(final String index, final Object key) {
+            return key == null ? this : where(index, singleton(key));
+        }
+
+        public Query where(final String index, final Collection<?> keys) {
+            if (keys != null && !keys.isEmpty()) {
+                final HashIndex<T> hashIndex = partition.hashIndex(index);
+                lookups.add(() -> hashIndex.get(keys));
+                final Set<Object> lookedUp = new HashSet<>(keys);
+                lookupFilters.add(model -> {
+                    final Collection<?> modelKeys = hashIndex.keys.apply(model);
+                    return modelKeys != null && modelKeys.stream().anyMatch(lookedUp::contains);
+                });
+            }
+            return this;
+        }
+
+        /**
+         * Rows whose key is between the given bounds, both inclusive, a <code>null</code> bound being unbounded.
+         */
+        public Query between(final String index, final Comparable<?> from, final Comparable<?> to) {
+            if (from != null || to != null) {
+                final SortedIndex<T> sortedIndex = partition.sortedIndex(index);
+                lookups.add(() -> sortedIndex.get(from, to));
+                lookupFilters.add(model -> SortedIndex.contains(from, to, sortedIndex.key.apply(model)));
+                final Comparable<?>[] range = ranges.get(index);
+                ranges.put(index, range == null ? new Comparable<?>[]{from, to}
+                        : new Comparable<?>[]{SortedIndex.max(range[0], from), SortedIndex.min(range[1], to)});
+            }
+            return this;
+        }
+
+        /**
+         * Walks the given sorted index, in descending order or not, when the list is limited, the rows outside of the
+         * index coming last. The {@link #sort(Comparator) comparator} must order the rows as the index does: it only
+         * breaks the ties.
+         */
+        public Query orderBy(final String index, final boolean descending) {
+            partition.sortedIndex(index);
+            this.orderIndex = index;
+            this.descending = descending;
+            return this;
+        }
+
+        public Query filter(final Predicate<T> filter) {
+            filters.add(filter);
+            return this;
+        }
+
+        public Query sort(final Comparator<T> comparator) {
+            this.comparator = comparator;
+            return this;
+        }
+
+        /**
+         * Limits the rows returned by {@link #list()} to the first ones.
+         */
+        public Query limit(final int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public List<T> list() {
+            partition.lock.readLock().lock();
+            try {
+                final List<Row<T>> found = orderIndex != null && limit < Integer.MAX_VALUE ? walk() : rows();
+                return copies(found.size() > limit ? found.subList(0, limit) : found);
+            } finally {
+                partition.lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @param pageable the page to return, <code>null</code> for all the rows
+         */
+        public Page<T> page(final Pageable pageable) {
+            partition.lock.readLock().lock();
+            try {
+                final List<Row<T>> found = rows();
+                if (pageable == null) {
+                    final List<T> content = copies(found);
+                    return new Page<>(content, 0, content.size(), found.size());
+                }
+                final int from = Math.min(pageable.pageNumber() * pageable.pageSize(), found.size());
+                final int to = Math.min(from + pageable.pageSize(), found.size());
+                final List<T> content = copies(found.subList(from, to));
+                return new Page<>(content, pageable.pageNumber(), content.size(), found.size());
+            } finally {
+                partition.lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * @return the number of deleted rows
+         */
+        public int delete() {
+            partition.lock.writeLock().lock();
+            try {
+                final List<Row<T>> found = rows();
+                for (final Row<T> row : found) {
+                    partition.delete(id.apply(row.model));
+                }
+                return found.size();
+            } finally {
+                partition.lock.writeLock().unlock();
+            }
+        }
+
+        private List<Row<T>> rows() {
+            Set<String> candidates = null;
+            final List<Set<String>> lookedUp = new ArrayList<>(lookups.size());
+            for (final Supplier<Set<String>> lookup : lookups) {
+                final Set<String> keys = lookup.get();
+                if (candidates == null || keys.size() < candidates.size()) {
+                    candidates = keys;
+                }
+                lookedUp.add(keys);
+            }
+
+            final List<Row<T>> found = new ArrayList<>();
+            for (final Row<T> row : candidates == null ? partition.rows.values() : resolve(candidates)) {
+                if (matches(row, lookedUp)) {
+                    found.add(row);
+                }
+            }
+            found.sort(Comparator.comparingLong(row -> row.sequence));
+            if (comparator != null) {
+                found.sort((left, right) -> comparator.compare(left.model, right.model));
+            }
+            return found;
+        }
+
+        private List<Row<T>> walk() {
+            final SortedIndex<T> index = partition.sortedIndex(orderIndex);
+            final Comparable<?>[] range = ranges.get(orderIndex);
+            NavigableMap<Object, Set<String>> keys = range == null ? index.ids : index.range(range[0], range[1]);
+            if (descending) {
+                keys = keys.descendingMap();
+            }
+            final List<Row<T>> found = new ArrayList<>();
+            for (final Set<String> tied : keys.values()) {
+                if (collect(tied, found)) {
+                    return found;
+                }
+            }
+            if (range == null) {
+                collect(index.nulls, found);
+            }
+            return found;
+        }
+
+        /**
+         * Adds the matching rows of the same index key, sorted.
+         *
+         * @return whether the limit is reached
+         */
+        private boolean collect(final Set<String> keys, final List<Row<T>> found) {
+            final List<Row<T>> tied = new ArrayList<>();
+            for (final String key : keys) {
+                final Row<T> row = partition.rows.get(key);
+                if (lookupFilters.stream().allMatch(filter -> filter.test(row.model))
+                        && filters.stream().allMatch(filter -> filter.test(row.model))) {
+                    tied.add(row);
+                }
+            }
+            tied.sort(Comparator.comparingLong(row -> row.sequence));
+            if (comparator != null) {
+                tied.sort((left, right) -> comparator.compare(left.model, right.model));
+            }
+            for (final Row<T> row : tied) {
+                found.add(row);
+                if (found.size() >= limit) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<Row<T>> resolve(final Set<String> keys) {
+            final List<Row<T>> resolved = new ArrayList<>(keys.size());
+            for (final String key : keys) {
+                resolved.add(partition.rows.get(key));
+            }
+            return resolved;
+        }
+
+        private boolean matches(final Row<T> row, final List<Set<String>> lookedUp) {
+            final String key = id.apply(row.model);
+            for (final Set<String> keys : lookedUp) {
+                if (!keys.contains(key)) {
+                    return false;
+                }
+            }
+            for (final Predicate<T> filter : filters) {
+                if (!filter.test(row.model)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private List<T> copies(final List<Row<T>> found) {
+            final List<T> models = new ArrayList<>(found.size());
+            for (final Row<T> row : found) {
+                models.add(ModelCopier.copy(row.model));
+            }
+            return models;
+        }
+    }
+
+    private static final class Row<T> {
+
+        private final T model;
+        private final long sequence;
+
+        private Row(final T model, final long sequence) {
+            this.model = model;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class HashIndex<T> {
+
+        private final Function<T, Collection<?>> keys;
+        private final Map<Object, Set<String>> ids = new HashMap<>();
+
+        private HashIndex(final Function<T, Collection<?>> keys) {
+            this.keys = keys;
+        }
+
+        private void add(final String id, final T model) {
+            final Collection<?> modelKeys = keys.apply(model);
+            if (modelKeys != null) {
+                for (final Object key : modelKeys) {
+                    ids.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+                }
+            }
+        }
+
+        private void remove(final String id, final T model) {
+            final Collection<?> modelKeys = keys.apply(model);
+            if (modelKeys != null) {
+                for (final Object key : modelKeys) {
+                    final Set<String> keyIds = ids.get(key);
+                    if (keyIds != null && keyIds.remove(id) && keyIds.isEmpty()) {
+                        ids.remove(key);
+                    }
+                }
+            }
+        }
+
+        private Set<String> get(final Collection<?> lookedUp) {
+            if (lookedUp.size() == 1) {
+                return ids.getOrDefault(lookedUp.iterator().next(), emptySet());
+            }
+            final Set<String> found = new HashSet<>();
+            for (final Object key : lookedUp) {
+                found.addAll(ids.getOrDefault(key, emptySet()));
+            }
+            return found;
+        }
+    }
+
+    private static final class SortedIndex<T> {
+
+        private final Function<T, ? extends Comparable<?>> key;
+        private final TreeMap<Object, Set<String>> ids = new TreeMap<>();
+        private final Set<String> nulls = new HashSet<>();
+
+        private SortedIndex(final Function<T, ? extends Comparable<?>> key) {
+            this.key = key;
+        }
+
+        private void add(final String id, final T model) {
+            final Object modelKey = key.apply(model);
+            if (modelKey != null) {
+                ids.computeIfAbsent(modelKey, k -> new HashSet<>()).add(id);
+            } else {
+                nulls.add(id);
+            }
+        }
+
+        private void remove(final String id, final T model) {
+            final Object modelKey = key.apply(model);
+            if (modelKey == null) {
+                nulls.remove(id);
+            }
+            final Set<String> keyIds = modelKey == null ? null : ids.get(modelKey);
+            if (keyIds != null && keyIds.remove(id) && keyIds.isEmpty()) {
+                ids.remove(modelKey);
+            }
+        }
+
+        private Set<String> get(final Object from, final Object to) {
+            final Set<String> found = new HashSet<>();
+            range(from, to).values().forEach(found::addAll);
+            return found;
+        }
+
+        @SuppressWarnings("unchecked")
+        private NavigableMap<Object, Set<String>> range(final Object from, final Object to) {
+            if (from == null && to == null) {
+                return ids;
+            } else if (from == null) {
+                return ids.headMap(to, true);
+            } else if (to == null) {
+                return ids.tailMap(from, true);
+            } else if (((Comparable<Object>) from).compareTo(to) > 0) {
+                return Collections.emptyNavigableMap();
+            }
+            return ids.subMap(from, true, to, true);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static boolean contains(final Object from, final Object to, final Object key) {
+            return key != null && (from == null || ((Comparable<Object>) key).compareTo(from) >= 0)
+                    && (to == null || ((Comparable<Object>) key).compareTo(to) <= 0);
+        }
+
+        /**
+         * @return the highest of the lower bounds, <code>null</code> being unbounded
+         */
+        @SuppressWarnings("unchecked")
+        private static Comparable<?> max(final Comparable<?> left, final Comparable<?> right) {
+            return left == null ? right
+                    : right == null || ((Comparable<Object>) left).compareTo(right) >= 0 ? left : right;
+        }
+
+        /**
+         * @return the lowest of the upper bounds, <code>null</code> being unbounded
+         */
+        @SuppressWarnings("unchecked")
+        private static Comparable<?> min(final Comparable<?> left, final Comparable<?> right) {
+            return left == null ? right
+                    : right == null || ((Comparable<Object>) left).compareTo(right) <= 0 ? left : right;
+        }
+    }
+}
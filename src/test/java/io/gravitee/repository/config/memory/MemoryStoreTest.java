@@ -0,0 +1,277 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singleton;
+import static java.util.Comparator.comparing;
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemoryStoreTest {
+
+    private final MemoryStore<Event> store = new MemoryStore<>(Event::getId)
+            .hashIndex("type", event -> singleton(event.getType()))
+            .hashIndex("environments", Event::getEnvironments)
+            .sortedIndex("updatedAt", Event::getUpdatedAt);
+
+    @After
+    public void tearDown() {
+        MemoryStore.useNamespace(null);
+    }
+
+    @Test
+    public void shouldCopyTheModelsOnTheWayInAndOut() throws Exception {
+        final Event event = event("1", EventType.PUBLISH_API, 1, "DEFAULT");
+        final Event created = store.create(event);
+
+        event.getEnvironments().add("PROD");
+        created.setType(EventType.STOP_API);
+        store.findById("1").get().getEnvironments().clear();
+
+        final Event found = store.findById("1").get();
+        assertNotSame(found, store.findById("1").get());
+        assertEquals(EventType.PUBLISH_API, found.getType());
+        assertEquals(singleton("DEFAULT"), found.getEnvironments());
+        assertEquals(emptyList(), ids(store.query().where("environments", "PROD").list()));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void shouldNotCreateTwice() throws Exception {
+        store.create(event("1", EventType.PUBLISH_API, 1, "DEFAULT"));
+        store.create(event("1", EventType.STOP_API, 2, "DEFAULT"));
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void shouldNotCreateWithoutId() throws Exception {
+        store.create(event(null, EventType.PUBLISH_API, 1, "DEFAULT"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotUpdateUnknown() {
+        store.update(event("1", EventType.PUBLISH_API, 1, "DEFAULT"));
+    }
+
+    @Test
+    public void shouldReindexUpdated() throws Exception {
+        store.create(event("1", EventType.PUBLISH_API, 1, "DEFAULT"));
+
+        store.update(event("1", EventType.STOP_API, 5, "PROD"));
+
+        assertEquals(emptyList(), ids(store.query().where("type", EventType.PUBLISH_API).list()));
+        assertEquals(emptyList(), ids(store.query().where("environments", "DEFAULT").list()));
+        assertEquals(emptyList(), ids(store.query().between("updatedAt", new Date(0), new Date(2)).list()));
+        assertEquals(asList("1"), ids(store.query().where("type", EventType.STOP_API).list()));
+        assertEquals(asList("1"), ids(store.query().where("environments", "PROD").list()));
+        assertEquals(asList("1"), ids(store.query().between("updatedAt", new Date(5), new Date(5)).list()));
+    }
+
+    @Test
+    public void shouldLookUpAnyOfTheKeys() throws Exception {
+        createEvents();
+
+        assertEquals(asList("1", "3"), ids(store.query().where("environments", "PROD").list()));
+        assertEquals(asList("1", "2", "3"), ids(store.query().where("environments", asList("PROD", "DEV")).list()));
+        assertEquals(emptyList(), ids(store.query().where("environments", "UNKNOWN").list()));
+    }
+
+    @Test
+    public void shouldIgnoreEmptyLookups() throws Exception {
+        createEvents();
+
+        assertEquals(asList("1", "2", "3", "4"), ids(store.query()
+                .ids(emptyList())
+                .where("type", (Object) null)
+                .where("environments", emptyList())
+                .between("updatedAt", null, null)
+                .list()));
+    }
+
+    @Test
+    public void shouldIntersectTheLookupsAndFilters() throws Exception {
+        createEvents();
+
+        assertEquals(asList("3"), ids(store.query()
+                .where("type", EventType.PUBLISH_API)
+                .where("environments", "PROD")
+                .between("updatedAt", new Date(2), null)
+                .list()));
+        assertEquals(asList("1"), ids(store.query()
+                .ids(asList("1", "2", "unknown"))
+                .filter(event -> event.getEnvironments().contains("PROD"))
+                .list()));
+    }
+
+    @Test
+    public void shouldLookUpRangesWithInclusiveBounds() throws Exception {
+        createEvents();
+
+        assertEquals(asList("2", "3"), ids(store.query().between("updatedAt", new Date(2), new Date(3)).list()));
+        assertEquals(asList("1", "2"), ids(store.query().between("updatedAt", null, new Date(2)).list()));
+        assertEquals(asList("3", "4"), ids(store.query().between("updatedAt", new Date(3), null).list()));
+        assertEquals(emptyList(), ids(store.query().between("updatedAt", new Date(3), new Date(2)).list()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownIndex() {
+        store.query().where("unknown", "key");
+    }
+
+    @Test
+    public void shouldBreakTiesByCreationOrder() throws Exception {
+        store.create(event("b", EventType.PUBLISH_API, 2, "DEFAULT"));
+        store.create(event("c", EventType.PUBLISH_API, 1, "DEFAULT"));
+        store.create(event("a", EventType.PUBLISH_API, 2, "DEFAULT"));
+        store.update(event("b", EventType.STOP_API, 2, "DEFAULT"));
+
+        assertEquals(asList("b", "c", "a"), ids(store.query().list()));
+        assertEquals(asList("c", "b", "a"), ids(store.query().sort(comparing(Event::getUpdatedAt)).list()));
+    }
+
+    @Test
+    public void shouldLimitAndPage() throws Exception {
+        createEvents();
+
+        assertEquals(asList("1", "2"), ids(store.query().limit(2).list()));
+
+        final Page<Event> page = store.query()
+                .sort(comparing(Event::getUpdatedAt).reversed())
+                .page(new PageableBuilder().pageNumber(1).pageSize(3).build());
+        assertEquals(asList("1"), ids(page.getContent()));
+        assertEquals(1, page.getPageNumber());
+        assertEquals(1, page.getPageElements());
+        assertEquals(4, page.getTotalElements());
+
+        final Page<Event> beyond = store.query().page(new PageableBuilder().pageNumber(2).pageSize(3).build());
+        assertEquals(emptyList(), beyond.getContent());
+        assertEquals(4, beyond.getTotalElements());
+
+        assertEquals(4, store.query().page(null).getContent().size());
+    }
+
+    @Test
+    public void shouldWalkTheSortedIndexUpToTheLimit() throws Exception {
+        createEvents();
+        store.create(event("5", EventType.STOP_API, 3, "DEV"));
+        final Event undated = event("6", EventType.STOP_API, 0, "DEV");
+        undated.setUpdatedAt(null);
+        store.create(undated);
+        final Comparator<Event> latestFirst =
+                comparing(Event::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Event::getId, Comparator.reverseOrder());
+
+        assertEquals(asList("4", "5", "3", "2", "1", "6"), ids(store.query()
+                .sort(latestFirst).orderBy("updatedAt", true).limit(10).list()));
+        assertEquals(asList("4", "5", "3"), ids(store.query()
+                .sort(latestFirst).orderBy("updatedAt", true).limit(3).list()));
+        assertEquals(ids(store.query().sort(latestFirst).where("environments", "DEV").limit(2).list()),
+                ids(store.query().sort(latestFirst).where("environments", "DEV").orderBy("updatedAt", true).limit(2).list()));
+        assertEquals(asList("3", "2"), ids(store.query()
+                .sort(latestFirst)
+                .between("updatedAt", null, new Date(3))
+                .between("updatedAt", new Date(2), null)
+                .filter(event -> !event.getId().equals("5"))
+                .orderBy("updatedAt", true)
+                .limit(10)
+                .list()));
+        assertEquals(asList("2", "3", "5"), ids(store.query()
+                .sort(comparing(Event::getUpdatedAt))
+                .between("updatedAt", new Date(2), new Date(3))
+                .orderBy("updatedAt", false)
+                .limit(10)
+                .list()));
+        assertEquals(emptyList(), ids(store.query()
+                .between("updatedAt", new Date(3), new Date(2)).orderBy("updatedAt", false).limit(10).list()));
+    }
+
+    @Test
+    public void shouldDeleteTheMatchingRows() throws Exception {
+        createEvents();
+
+        assertEquals(2, store.query().where("environments", "PROD").delete());
+        store.delete("2");
+        store.delete("unknown");
+
+        assertEquals(asList("4"), ids(store.query().list()));
+        assertEquals(emptyList(), ids(store.query().where("environments", "PROD").list()));
+        assertFalse(store.findById("1").isPresent());
+    }
+
+    @Test
+    public void shouldRestoreSnapshot() throws Exception {
+        createEvents();
+        final Object snapshot = store.snapshot();
+        store.delete("1");
+        store.update(event("2", EventType.STOP_API, 2, "DEV"));
+
+        store.restore(snapshot);
+        store.create(event("0", EventType.PUBLISH_API, 0, "PROD"));
+
+        assertEquals(asList("1", "2", "3", "4", "0"), ids(store.query().list()));
+        assertEquals(asList("1", "3", "0"), ids(store.query().where("environments", "PROD").list()));
+        assertEquals(EventType.START_API, store.findById("2").get().getType());
+    }
+
+    @Test
+    public void shouldPartitionTheRowsByNamespace() throws Exception {
+        MemoryStore.useNamespace("first");
+        createEvents();
+
+        MemoryStore.useNamespace("second");
+        assertEquals(emptyList(), ids(store.query().list()));
+        store.create(event("1", EventType.STOP_API, 1, "DEV"));
+        store.clear();
+        assertEquals(emptyList(), ids(store.query().list()));
+
+        MemoryStore.useNamespace("first");
+        assertEquals(asList("1", "2", "3", "4"), ids(store.query().list()));
+        assertEquals(EventType.PUBLISH_API, store.findById("1").get().getType());
+    }
+
+    private void createEvents() throws TechnicalException {
+        store.create(event("1", EventType.PUBLISH_API, 1, "PROD"));
+        store.create(event("2", EventType.START_API, 2, "DEV"));
+        store.create(event("3", EventType.PUBLISH_API, 3, "PROD", "DEV"));
+        store.create(event("4", EventType.STOP_API, 4, "DEFAULT"));
+    }
+
+    private static Event event(final String id, final EventType type, final long updatedAt, final String... environments) {
+        final Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setEnvironments(new HashSet<>(asList(environments)));
+        event.setUpdatedAt(new Date(updatedAt));
+        return event;
+    }
+
+    private static List<String> ids(final Collection<Event> events) {
+        return events.stream().map(Event::getId).collect(Collectors.toList());
+    }
+}
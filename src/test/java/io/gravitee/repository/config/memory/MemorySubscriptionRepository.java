@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.model.Subscription;
+
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Collections.singleton;
+import static java.util.Comparator.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemorySubscriptionRepository extends AbstractMemoryRepository<Subscription> implements SubscriptionRepository {
+
+    public MemorySubscriptionRepository() {
+        super(new MemoryStore<>(Subscription::getId)
+                .hashIndex("api", subscription -> singleton(subscription.getApi()))
+                .hashIndex("plan", subscription -> singleton(subscription.getPlan()))
+                .hashIndex("application", subscription -> singleton(subscription.getApplication()))
+                .hashIndex("status", subscription -> singleton(subscription.getStatus()))
+                .hashIndex("clientId", subscription -> singleton(subscription.getClientId()))
+                .sortedIndex("updatedAt", Subscription::getUpdatedAt)
+                .sortedIndex("endingAt", Subscription::getEndingAt));
+    }
+
+    @Override
+    public Page<Subscription> search(final SubscriptionCriteria criteria, final Pageable pageable) throws TechnicalException {
+        return query(criteria).page(pageable);
+    }
+
+    @Override
+    public List<Subscription> search(final SubscriptionCriteria criteria) throws TechnicalException {
+        return query(criteria).list();
+    }
+
+    private MemoryStore<Subscription>.Query query(final SubscriptionCriteria criteria) {
+        return store.query()
+                .where("api", criteria.getApis())
+                .where("plan", criteria.getPlans())
+                .where("application", criteria.getApplications())
+                .where("status", criteria.getStatuses())
+                .where("clientId", criteria.getClientId())
+                .between("updatedAt", date(criteria.getFrom()), date(criteria.getTo()))
+                .between("endingAt", date(criteria.getEndingAtAfter()), date(criteria.getEndingAtBefore()))
+                .sort(comparing(Subscription::getCreatedAt, nullsLast(reverseOrder())));
+    }
+
+    private static Date date(final long time) {
+        return time > 0 ? new Date(time) : null;
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Subscription;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MemorySubscriptionRepositoryTest {
+
+    private final MemorySubscriptionRepository repository = new MemorySubscriptionRepository();
+
+    @Test
+    public void shouldSearchFromTheLatestCreation() throws Exception {
+        createSubscriptions();
+
+        assertEquals(asList("sub-3", "sub-2", "sub-1"), ids(repository.search(new SubscriptionCriteria.Builder().build())));
+
+        final Page<Subscription> page = repository.search(new SubscriptionCriteria.Builder().build(),
+                new PageableBuilder().pageNumber(1).pageSize(2).build());
+        assertEquals(asList("sub-1"), ids(page.getContent()));
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    public void shouldSearchOnAllTheCriteria() throws Exception {
+        createSubscriptions();
+
+        assertEquals(asList("sub-2", "sub-1"), ids(repository.search(new SubscriptionCriteria.Builder()
+                .apis(singletonList("api-1")).build())));
+        assertEquals(asList("sub-2"), ids(repository.search(new SubscriptionCriteria.Builder()
+                .apis(singletonList("api-1")).status(Subscription.Status.PAUSED).build())));
+        assertEquals(asList("sub-3", "sub-1"), ids(repository.search(new SubscriptionCriteria.Builder()
+                .applications(singletonList("app-1")).plans(asList("plan-1", "plan-2")).build())));
+        assertEquals(asList("sub-3"), ids(repository.search(new SubscriptionCriteria.Builder().clientId("client").build())));
+    }
+
+    @Test
+    public void shouldSearchOnTheDates() throws Exception {
+        createSubscriptions();
+
+        assertEquals(asList("sub-2", "sub-1"), ids(repository.search(new SubscriptionCriteria.Builder()
+                .from(1_000).to(2_000).build())));
+        assertEquals(asList("sub-3"), ids(repository.search(new SubscriptionCriteria.Builder()
+                .endingAtAfter(5_000).build())));
+        assertEquals(asList("sub-2"), ids(repository.search(new SubscriptionCriteria.Builder()
+                .endingAtBefore(5_000).build())));
+    }
+
+    private void createSubscriptions() throws Exception {
+        repository.create(subscription("sub-1", "api-1", "plan-1", "app-1", Subscription.Status.ACCEPTED, 1_000, null, null));
+        repository.create(subscription("sub-2", "api-1", "plan-1", "app-2", Subscription.Status.PAUSED, 2_000, 4_000L, null));
+        repository.create(subscription("sub-3", "api-2", "plan-2", "app-1", Subscription.Status.ACCEPTED, 3_000, 6_000L, "client"));
+    }
+
+    private static Subscription subscription(final String id, final String api, final String plan, final String application,
+                                             final Subscription.Status status, final long createdAt, final Long endingAt,
+                                             final String clientId) {
+        final Subscription subscription = new Subscription();
+        subscription.setId(id);
+        subscription.setApi(api);
+        subscription.setPlan(plan);
+        subscription.setApplication(application);
+        subscription.setStatus(status);
+        subscription.setClientId(clientId);
+        subscription.setCreatedAt(new Date(createdAt));
+        subscription.setUpdatedAt(new Date(createdAt));
+        subscription.setEndingAt(endingAt == null ? null : new Date(endingAt));
+        return subscription;
+    }
+
+    private static List<String> ids(final Collection<Subscription> subscriptions) {
+        return subscriptions.stream().map(Subscription::getId).collect(Collectors.toList());
+    }
+}
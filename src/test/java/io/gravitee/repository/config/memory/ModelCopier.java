@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.config.memory;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies the models property by property, the collections, maps and dates being copied too, as the copy constructors
+ * of the models don't copy all their properties.
+ *
+ * @author GraviteeSource Team
+ */
+final class ModelCopier {
+
+    private static final Map<Class<?>, List<PropertyDescriptor>> PROPERTIES = new ConcurrentHashMap<>();
+
+    private ModelCopier() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T copy(final T model) {
+        if (model == null) {
+            return null;
+        }
+        final T copy = (T) BeanUtils.instantiateClass(model.getClass());
+        try {
+            for (final PropertyDescriptor property : properties(model.getClass())) {
+                property.getWriteMethod().invoke(copy, copyValue(property.getReadMethod().invoke(model)));
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to copy " + model.getClass().getName(), e);
+        }
+        return copy;
+    }
+
+    private static List<PropertyDescriptor> properties(final Class<?> modelClass) {
+        return PROPERTIES.computeIfAbsent(modelClass, key -> {
+            final List<PropertyDescriptor> properties = new ArrayList<>();
+            for (final PropertyDescriptor property : BeanUtils.getPropertyDescriptors(key)) {
+                if (property.getReadMethod() != null && property.getWriteMethod() != null) {
+                    properties.add(property);
+                }
+            }
+            return properties;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(final Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).clone();
+        } else if (value instanceof List) {
+            return new ArrayList<>((List<?>) value);
+        } else if (value instanceof SortedSet) {
+            return new TreeSet<>((SortedSet<Object>) value);
+        } else if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<?>) value);
+        } else if (value instanceof SortedMap) {
+            return new TreeMap<>((SortedMap<Object, ?>) value);
+        } else if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?, ?>) value);
+        }
+        return value;
+    }
+}
@@ -103,6 +103,17 @@ public class FlowRepositoryMock extends AbstractRepositoryMock<FlowRepository> {
 
         when(repository.findById("tag-deleted")).thenReturn(of(mock(Flow.class)), empty());
 
+        List<Flow> roundTripsFlows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Flow flow = mock(Flow.class);
+            when(flow.getPre()).thenReturn(Arrays.asList(tag1PreStep1, tag1PreStep2));
+            when(flow.getPost()).thenReturn(Arrays.asList(tag1PostStep1, tag1ostStep2));
+            when(flow.getConsumers()).thenReturn(consumers);
+            when(flow.getMethods()).thenReturn(new HashSet<>(Arrays.asList(HttpMethod.GET, HttpMethod.POST)));
+            roundTripsFlows.add(flow);
+        }
+        when(repository.findByReference(FlowReferenceType.ORGANIZATION, "orga-round-trips")).thenReturn(roundTripsFlows);
+
         when(repository.findByReference(FlowReferenceType.ORGANIZATION, "orga-deleted"))
             .thenReturn(Arrays.asList(flow1, mock(Flow.class)), Collections.emptyList());
 
@@ -109,5 +109,16 @@ public class MediaRepositoryMock extends AbstractRepositoryMock<MediaRepository>
         when(mediaRepository.findAllByApi("myApi")).thenReturn(all);
 
         when(mediaRepository.findByHash("77C921AB285376AFF72FBDD2D0784E0B", false)).thenReturn(of(mediaData4));
+
+        final Media mediaWithContent = new Media();
+        mediaWithContent.setId("2233445566");
+        mediaWithContent.setFileName("stars.png");
+        mediaWithContent.setSize(4370L);
+        mediaWithContent.setType("image");
+        mediaWithContent.setSubType("png");
+        mediaWithContent.setHash("77C921AB285376AFF72FBDD2D0784E0B");
+        mediaWithContent.setCreatedAt(new Date());
+        mediaWithContent.setData(new byte[4370]);
+        when(mediaRepository.findByHash("77C921AB285376AFF72FBDD2D0784E0B")).thenReturn(of(mediaWithContent));
     }
 }
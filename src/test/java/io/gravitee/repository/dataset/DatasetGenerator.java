@@ -0,0 +1,466 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.dataset;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.model.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static java.util.Collections.singleton;
+
+/**
+ * Deterministic generator of related User / Group / Api / Application / Plan / Subscription / ApiKey / Membership /
+ * Event / Audit graphs, sized by a scale factor in the spirit of the TPC benchmarks (SF1, SF10, SF100...).
+ *
+ * At scale factor 1 the dataset contains 100 users, 50 groups, 1,000 APIs, 1,000 applications, 2,000 plans, 5,000
+ * subscriptions and api keys, 2,000 memberships, 100,000 events and 10,000 audits, every count growing linearly with
+ * the scale factor. Every user and group referenced by the other models is generated.
+ *
+ * Every attribute is a pure function of the seed, the entity type and the entity index, mixed together with SplitMix64
+ * so that close seeds or indexes don't give overlapping random sequences: two generators built with the same seed and
+ * scale factor produce exactly the same models, in the same order, and the identifier of any entity can be computed
+ * without generating the dataset (see {@link #apiId(int)}...). Models are streamed to a
+ * {@link ModelConsumer} type after type, dependencies first, so nothing is retained in memory.
+ *
+ * @author GraviteeSource Team
+ */
+public class DatasetGenerator {
+
+    public static final long DEFAULT_SEED = 42L;
+    public static final String DEFAULT_ENVIRONMENT = "DEFAULT";
+
+    static final int APIS = 1_000;
+    static final int APPLICATIONS = 1_000;
+    static final int USERS = 100;
+    static final int GROUPS = 50;
+    static final int PLANS_PER_API = 2;
+    static final int SUBSCRIPTIONS_PER_API = 5;
+    static final int EVENTS_PER_API = 100;
+    static final int AUDITS_PER_API = 10;
+
+    /**
+     * First timestamp of the generated history (2020-01-01T00:00:00Z).
+     */
+    public static final long HISTORY_START = 1577836800000L;
+    /**
+     * Duration covered by the generated history: one year.
+     */
+    public static final long HISTORY_DURATION = 365L * 24 * 60 * 60 * 1000;
+
+    private static final String[] ENVIRONMENTS = {DEFAULT_ENVIRONMENT, "DEV", "PROD"};
+    private static final EventType[] EVENT_TYPES = {
+            EventType.PUBLISH_API, EventType.PUBLISH_API, EventType.PUBLISH_API, EventType.PUBLISH_API, EventType.PUBLISH_API,
+            EventType.START_API, EventType.START_API, EventType.STOP_API, EventType.STOP_API, EventType.UNPUBLISH_API};
+
+    private final long seed;
+    private final double scaleFactor;
+    private final int payloadSize;
+
+    private DatasetGenerator(final Builder builder) {
+        this.seed = builder.seed;
+        this.scaleFactor = builder.scaleFactor;
+        this.payloadSize = builder.payloadSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    public int getApiCount() {
+        return scale(APIS);
+    }
+
+    public int getApplicationCount() {
+        return scale(APPLICATIONS);
+    }
+
+    public int getUserCount() {
+        return scale(USERS);
+    }
+
+    public int getGroupCount() {
+        return scale(GROUPS);
+    }
+
+    public int getPlanCount() {
+        return getApiCount() * PLANS_PER_API;
+    }
+
+    public int getSubscriptionCount() {
+        return getApiCount() * SUBSCRIPTIONS_PER_API;
+    }
+
+    public int getMembershipCount() {
+        return getApiCount() + getApplicationCount();
+    }
+
+    public int getEventCount() {
+        return getApiCount() * EVENTS_PER_API;
+    }
+
+    public int getAuditCount() {
+        return getApiCount() * AUDITS_PER_API;
+    }
+
+    public List<String> getEnvironments() {
+        return Arrays.asList(ENVIRONMENTS);
+    }
+
+    public String apiId(final int index) {
+        return id("api", index);
+    }
+
+    public String applicationId(final int index) {
+        return id("application", index);
+    }
+
+    /**
+     * The plans of an API are indexed <code>apiIndex * 2</code> (api key plan) and <code>apiIndex * 2 + 1</code>
+     * (keyless plan).
+     */
+    public String planId(final int index) {
+        return id("plan", index);
+    }
+
+    public String subscriptionId(final int index) {
+        return id("subscription", index);
+    }
+
+    public String apiKey(final int index) {
+        return id("apikey", index);
+    }
+
+    public String eventId(final int index) {
+        return id("event", index);
+    }
+
+    public String userId(final int index) {
+        return "user-" + index;
+    }
+
+    public String groupId(final int index) {
+        return "group-" + index;
+    }
+
+    public String apiEnvironment(final int apiIndex) {
+        return environment(random("api", apiIndex));
+    }
+
+    /**
+     * Events are spread evenly over the history: the event at index <code>i</code> is always more recent than the
+     * event at index <code>i - 1</code>.
+     */
+    public long eventTimestamp(final int index) {
+        return HISTORY_START + (long) ((double) HISTORY_DURATION * index / getEventCount());
+    }
+
+    public void generate(final ModelConsumer consumer) throws TechnicalException {
+        for (int i = 0; i < getUserCount(); i++) {
+            consumer.accept(user(i));
+        }
+        for (int i = 0; i < getGroupCount(); i++) {
+            consumer.accept(group(i));
+        }
+        for (int i = 0; i < getApplicationCount(); i++) {
+            consumer.accept(application(i));
+        }
+        for (int i = 0; i < getApiCount(); i++) {
+            consumer.accept(api(i));
+        }
+        for (int i = 0; i < getPlanCount(); i++) {
+            consumer.accept(plan(i));
+        }
+        for (int i = 0; i < getSubscriptionCount(); i++) {
+            consumer.accept(subscription(i));
+        }
+        for (int i = 0; i < getSubscriptionCount(); i++) {
+            consumer.accept(apiKeyOf(i));
+        }
+        for (int i = 0; i < getMembershipCount(); i++) {
+            consumer.accept(membership(i));
+        }
+        for (int i = 0; i < getEventCount(); i++) {
+            consumer.accept(event(i));
+        }
+        for (int i = 0; i < getAuditCount(); i++) {
+            consumer.accept(audit(i));
+        }
+    }
+
+    /**
+     * Nine users out of ten are active, the others pending.
+     */
+    public User user(final int index) {
+        final Random random = random("user", index);
+        final User user = new User();
+        user.setId(userId(index));
+        user.setOrganizationId("DEFAULT");
+        user.setSource("gravitee");
+        user.setSourceId("user" + index);
+        user.setFirstname("First" + index);
+        user.setLastname("Last" + index);
+        user.setEmail("user" + index + "@gravitee.io");
+        user.setStatus(random.nextInt(10) == 0 ? UserStatus.PENDING : UserStatus.ACTIVE);
+        user.setCreatedAt(new Date(timestamp(random)));
+        user.setUpdatedAt(user.getCreatedAt());
+        return user;
+    }
+
+    public Group group(final int index) {
+        final Random random = random("group", index);
+        final Group group = new Group();
+        group.setId(groupId(index));
+        group.setEnvironmentId(environment(random));
+        group.setName("group-" + index);
+        group.setCreatedAt(new Date(timestamp(random)));
+        group.setUpdatedAt(group.getCreatedAt());
+        return group;
+    }
+
+    public Application application(final int index) {
+        final Random random = random("application", index);
+        final Application application = new Application();
+        application.setId(applicationId(index));
+        application.setName("application-" + index);
+        application.setDescription("Generated application " + index);
+        application.setEnvironmentId(environment(random));
+        application.setType(ApplicationType.SIMPLE);
+        application.setStatus(random.nextInt(20) == 0 ? ApplicationStatus.ARCHIVED : ApplicationStatus.ACTIVE);
+        application.setGroups(singleton(groupId(random.nextInt(getGroupCount()))));
+        application.setCreatedAt(new Date(timestamp(random)));
+        application.setUpdatedAt(application.getCreatedAt());
+        return application;
+    }
+
+    public Api api(final int index) {
+        final Random random = random("api", index);
+        final Api api = new Api();
+        api.setId(apiId(index));
+        api.setName("api-" + index);
+        api.setDescription("Generated API " + index);
+        api.setEnvironmentId(environment(random));
+        api.setVersion(String.valueOf(1 + random.nextInt(3)));
+        api.setVisibility(random.nextInt(4) == 0 ? Visibility.PRIVATE : Visibility.PUBLIC);
+        api.setLifecycleState(random.nextInt(10) == 0 ? LifecycleState.STOPPED : LifecycleState.STARTED);
+        api.setApiLifecycleState(random.nextInt(5) == 0 ? ApiLifecycleState.CREATED : ApiLifecycleState.PUBLISHED);
+        api.setGroups(new HashSet<>(Collections.singletonList(groupId(random.nextInt(getGroupCount())))));
+        api.setLabels(new ArrayList<>(Collections.singletonList("label-" + random.nextInt(10))));
+        api.setCategories(new HashSet<>(Collections.singletonList("category-" + random.nextInt(10))));
+        api.setDefinition(payload(api.getId(), random));
+        api.setCreatedAt(new Date(timestamp(random)));
+        api.setUpdatedAt(api.getCreatedAt());
+        api.setDeployedAt(api.getCreatedAt());
+        return api;
+    }
+
+    public Plan plan(final int index) {
+        final Random random = random("plan", index);
+        final boolean apiKeyPlan = index % PLANS_PER_API == 0;
+        final Plan plan = new Plan();
+        plan.setId(planId(index));
+        plan.setApi(apiId(index / PLANS_PER_API));
+        plan.setName(apiKeyPlan ? "API key plan" : "Keyless plan");
+        plan.setDescription("Generated plan " + index);
+        plan.setOrder(index % PLANS_PER_API + 1);
+        plan.setType(Plan.PlanType.API);
+        plan.setSecurity(apiKeyPlan ? Plan.PlanSecurityType.API_KEY : Plan.PlanSecurityType.KEY_LESS);
+        plan.setValidation(random.nextBoolean() ? Plan.PlanValidationType.AUTO : Plan.PlanValidationType.MANUAL);
+        plan.setStatus(random.nextInt(10) == 0 ? Plan.Status.CLOSED : Plan.Status.PUBLISHED);
+        plan.setCreatedAt(new Date(timestamp(random)));
+        plan.setUpdatedAt(plan.getCreatedAt());
+        plan.setPublishedAt(plan.getCreatedAt());
+        return plan;
+    }
+
+    /**
+     * Subscriptions are always made on the api key plan of their API.
+     */
+    public Subscription subscription(final int index) {
+        final Random random = random("subscription", index);
+        final int apiIndex = index / SUBSCRIPTIONS_PER_API;
+        final Subscription subscription = new Subscription();
+        subscription.setId(subscriptionId(index));
+        subscription.setApi(apiId(apiIndex));
+        subscription.setPlan(planId(apiIndex * PLANS_PER_API));
+        subscription.setApplication(applicationId(random.nextInt(getApplicationCount())));
+        final int status = random.nextInt(10);
+        subscription.setStatus(status < 7 ? Subscription.Status.ACCEPTED
+                : status < 8 ? Subscription.Status.PENDING
+                : status < 9 ? Subscription.Status.PAUSED : Subscription.Status.CLOSED);
+        subscription.setSubscribedBy(userId(random.nextInt(getUserCount())));
+        subscription.setProcessedBy(userId(random.nextInt(getUserCount())));
+        subscription.setCreatedAt(new Date(timestamp(random)));
+        subscription.setUpdatedAt(subscription.getCreatedAt());
+        subscription.setProcessedAt(subscription.getCreatedAt());
+        subscription.setStartingAt(subscription.getCreatedAt());
+        return subscription;
+    }
+
+    /**
+     * Each subscription owns exactly one api key, with the same index.
+     */
+    public ApiKey apiKeyOf(final int subscriptionIndex) {
+        final Random random = random("apikey", subscriptionIndex);
+        final Subscription subscription = subscription(subscriptionIndex);
+        final ApiKey apiKey = new ApiKey();
+        apiKey.setKey(apiKey(subscriptionIndex));
+        apiKey.setSubscription(subscription.getId());
+        apiKey.setApplication(subscription.getApplication());
+        apiKey.setPlan(subscription.getPlan());
+        apiKey.setCreatedAt(subscription.getCreatedAt());
+        apiKey.setUpdatedAt(subscription.getCreatedAt());
+        if (random.nextInt(3) == 0) {
+            apiKey.setExpireAt(new Date(subscription.getCreatedAt().getTime() + HISTORY_DURATION));
+        }
+        if (random.nextInt(10) == 0) {
+            apiKey.setRevoked(true);
+            apiKey.setRevokedAt(new Date(subscription.getCreatedAt().getTime() + random.nextInt(1_000_000)));
+        }
+        return apiKey;
+    }
+
+    /**
+     * The first memberships are the API primary owners, the following ones the application primary owners.
+     */
+    public Membership membership(final int index) {
+        final Random random = random("membership", index);
+        final boolean api = index < getApiCount();
+        final Membership membership = new Membership();
+        membership.setId(id("membership", index));
+        membership.setMemberId(userId(random.nextInt(getUserCount())));
+        membership.setMemberType(MembershipMemberType.USER);
+        membership.setReferenceType(api ? MembershipReferenceType.API : MembershipReferenceType.APPLICATION);
+        membership.setReferenceId(api ? apiId(index) : applicationId(index - getApiCount()));
+        membership.setRoleId(api ? "API_PRIMARY_OWNER" : "APPLICATION_PRIMARY_OWNER");
+        membership.setSource("system");
+        membership.setCreatedAt(new Date(timestamp(random)));
+        membership.setUpdatedAt(membership.getCreatedAt());
+        return membership;
+    }
+
+    /**
+     * Events of all the APIs are interleaved: the event at index <code>i</code> belongs to the API
+     * <code>i % apiCount</code>.
+     */
+    public Event event(final int index) {
+        final Random random = random("event", index);
+        final int apiIndex = index % getApiCount();
+        final Event event = new Event();
+        event.setId(eventId(index));
+        event.setType(EVENT_TYPES[random.nextInt(EVENT_TYPES.length)]);
+        event.setEnvironments(new HashSet<>(singleton(apiEnvironment(apiIndex))));
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(Event.EventProperties.API_ID.getValue(), apiId(apiIndex));
+        properties.put(Event.EventProperties.USER.getValue(), userId(random.nextInt(getUserCount())));
+        event.setProperties(properties);
+        event.setPayload(payload(apiId(apiIndex), random));
+        event.setCreatedAt(new Date(eventTimestamp(index)));
+        event.setUpdatedAt(event.getCreatedAt());
+        return event;
+    }
+
+    public Audit audit(final int index) {
+        final Random random = random("audit", index);
+        final Audit audit = new Audit();
+        audit.setId(id("audit", index));
+        audit.setReferenceType(Audit.AuditReferenceType.API);
+        audit.setReferenceId(apiId(index % getApiCount()));
+        audit.setEvent(random.nextBoolean() ? Api.AuditEvent.API_UPDATED.name() : Plan.AuditEvent.PLAN_UPDATED.name());
+        audit.setUser(userId(random.nextInt(getUserCount())));
+        audit.setProperties(new HashMap<>());
+        audit.setPatch("[]");
+        audit.setCreatedAt(new Date(timestamp(random)));
+        return audit;
+    }
+
+    private int scale(final int count) {
+        return Math.max(1, (int) Math.round(count * scaleFactor));
+    }
+
+    private String id(final String type, final int index) {
+        return UUID.nameUUIDFromBytes((seed + ":" + type + ":" + index).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    Random random(final String type, final int index) {
+        return new Random(mix(mix(mix(seed) ^ type.hashCode()) ^ index));
+    }
+
+    /**
+     * SplitMix64 finalizer, after a golden ratio increment so that 0 isn't a fixed point.
+     */
+    private static long mix(final long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private String environment(final Random random) {
+        final int i = random.nextInt(10);
+        return i < 6 ? ENVIRONMENTS[0] : ENVIRONMENTS[1 + i % (ENVIRONMENTS.length - 1)];
+    }
+
+    private long timestamp(final Random random) {
+        return HISTORY_START + (long) (random.nextDouble() * HISTORY_DURATION);
+    }
+
+    private String payload(final String apiId, final Random random) {
+        final StringBuilder payload = new StringBuilder(payloadSize + 64)
+                .append("{\"id\":\"").append(apiId).append("\",\"data\":\"");
+        while (payload.length() < payloadSize) {
+            payload.append((char) ('a' + random.nextInt(26)));
+        }
+        return payload.append("\"}").toString();
+    }
+
+    public static class Builder {
+
+        private long seed = DEFAULT_SEED;
+        private double scaleFactor = 1;
+        private int payloadSize = 512;
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder scaleFactor(final double scaleFactor) {
+            if (scaleFactor <= 0) {
+                throw new IllegalArgumentException("The scale factor must be positive: " + scaleFactor);
+            }
+            this.scaleFactor = scaleFactor;
+            return this;
+        }
+
+        /**
+         * Approximate size, in characters, of the API definitions and event payloads.
+         */
+        public Builder payloadSize(final int payloadSize) {
+            this.payloadSize = payloadSize;
+            return this;
+        }
+
+        public DatasetGenerator build() {
+            return new DatasetGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.dataset;
+
+import io.gravitee.repository.management.model.*;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class DatasetGeneratorTest {
+
+    private static final double SCALE_FACTOR = 0.05;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void shouldGenerateTheSameModelsWithTheSameSeed() throws Exception {
+        final List<String> first = generate(42);
+        final List<String> second = generate(42);
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void shouldGenerateOtherModelsWithAnotherSeed() throws Exception {
+        final List<String> first = generate(42);
+        final List<String> second = generate(43);
+
+        assertEquals(first.size(), second.size());
+        assertNotEquals(first, second);
+    }
+
+    /**
+     * With a linear combination of the seed and the index, the random sequence of an entity of a seed was the one of
+     * another entity of the next seed: no value may be shared across the close seeds, types and indexes.
+     */
+    @Test
+    public void shouldNotShareRandomSequencesAcrossSeedsTypesAndIndexes() {
+        final Set<Long> draws = new HashSet<>();
+        int count = 0;
+        for (long seed = 40; seed < 45; seed++) {
+            final DatasetGenerator dataset = new DatasetGenerator.Builder().seed(seed).build();
+            for (final String type : new String[]{"api", "application", "event", "membership"}) {
+                for (int index = 0; index < 1_000; index++) {
+                    draws.add(dataset.random(type, index).nextLong());
+                    count++;
+                }
+            }
+        }
+
+        assertEquals(count, draws.size());
+    }
+
+    @Test
+    public void shouldGenerateTheReferencedUsersAndGroups() throws Exception {
+        final DatasetGenerator dataset = new DatasetGenerator.Builder().scaleFactor(SCALE_FACTOR).build();
+        final Set<String> users = new HashSet<>();
+        final Set<String> groups = new HashSet<>();
+        final Set<String> referencedUsers = new HashSet<>();
+        final Set<String> referencedGroups = new HashSet<>();
+        dataset.generate(model -> {
+            if (model instanceof User) {
+                users.add(((User) model).getId());
+            } else if (model instanceof Group) {
+                groups.add(((Group) model).getId());
+            } else if (model instanceof Api) {
+                assertTrue("Users and groups must be generated first", users.size() == dataset.getUserCount());
+                referencedGroups.addAll(((Api) model).getGroups());
+            } else if (model instanceof Application) {
+                referencedGroups.addAll(((Application) model).getGroups());
+            } else if (model instanceof Subscription) {
+                referencedUsers.add(((Subscription) model).getSubscribedBy());
+                referencedUsers.add(((Subscription) model).getProcessedBy());
+            } else if (model instanceof Membership) {
+                referencedUsers.add(((Membership) model).getMemberId());
+            } else if (model instanceof Event) {
+                referencedUsers.add(((Event) model).getProperties().get(Event.EventProperties.USER.getValue()));
+            } else if (model instanceof Audit) {
+                referencedUsers.add(((Audit) model).getUser());
+            }
+        });
+
+        assertEquals(dataset.getUserCount(), users.size());
+        assertEquals(dataset.getGroupCount(), groups.size());
+        assertTrue(users.containsAll(referencedUsers));
+        assertTrue(groups.containsAll(referencedGroups));
+    }
+
+    private List<String> generate(final long seed) throws Exception {
+        final List<String> models = new ArrayList<>();
+        new DatasetGenerator.Builder()
+                .seed(seed)
+                .scaleFactor(SCALE_FACTOR)
+                .payloadSize(64)
+                .build()
+                .generate(model -> {
+                    try {
+                        models.add(model.getClass().getSimpleName() + mapper.writeValueAsString(model));
+                    } catch (final Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+        return models;
+    }
+}
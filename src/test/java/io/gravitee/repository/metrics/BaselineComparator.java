@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import io.gravitee.repository.metrics.MetricsReport.Metric;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Compares the metrics of a run with a stored baseline and flags the statistically significant regressions, for
+ * instance to block a release of an implementation 20% slower than the previous one on
+ * <code>ApiRepository.search</code>.
+ *
+ * A metric regresses when its percentile (the median by default) is worse than the baseline one by more than the
+ * threshold, and when a one-sided Mann-Whitney U test on the two distributions rejects the hypothesis that the new
+ * values are not larger (smaller for the throughputs) at the given significance level. The metrics measured less
+ * than the minimum number of times on either side are only reported. It is run with the baseline and the current
+ * report (JSON or JMH results) as arguments, and configured with system properties:
+ * <ul>
+ *     <li><code>regression.threshold</code>: the degradation tolerated, 0.2 (20%) by default</li>
+ *     <li><code>regression.percentile</code>: the percentile compared, 50 by default</li>
+ *     <li><code>regression.alpha</code>: the significance level of the test, 0.01 by default</li>
+ *     <li><code>regression.minCount</code>: the minimum number of measures per side, 5 by default</li>
+ * </ul>
+ *
+ * @author GraviteeSource Team
+ */
+public class BaselineComparator {
+
+    private final double threshold;
+    private final double percentile;
+    private final double alpha;
+    private final long minCount;
+
+    public BaselineComparator(final double threshold, final double percentile, final double alpha, final long minCount) {
+        this.threshold = threshold;
+        this.percentile = percentile;
+        this.alpha = alpha;
+        this.minCount = minCount;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String baseline = args.length > 0 ? args[0] : System.getProperty("regression.baseline");
+        final String current = args.length > 1 ? args[1] : System.getProperty("regression.current");
+        if (baseline == null || current == null) {
+            throw new IllegalArgumentException("Usage: BaselineComparator <baseline report> <current report>");
+        }
+        final BaselineComparator comparator = new BaselineComparator(
+                Double.parseDouble(System.getProperty("regression.threshold", "0.2")),
+                Double.parseDouble(System.getProperty("regression.percentile", "50")),
+                Double.parseDouble(System.getProperty("regression.alpha", "0.01")),
+                Long.parseLong(System.getProperty("regression.minCount", "5")));
+
+        final List<String> regressions = comparator.compare(MetricsReport.read(new File(baseline)),
+                MetricsReport.read(new File(current)), new PrintWriter(System.out, true));
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException(regressions.size() + " regression(s) against " + baseline + ": "
+                    + String.join(", ", regressions));
+        }
+    }
+
+    /**
+     * Prints the comparison of each metric found in both reports.
+     *
+     * @return the names of the regressed metrics
+     */
+    public List<String> compare(final MetricsReport baseline, final MetricsReport current, final PrintWriter writer) {
+        writer.println("Baseline: " + baseline.getTags());
+        writer.println("Current:  " + current.getTags());
+        final Map<String, Metric> baselineMetrics = new HashMap<>();
+        baseline.getMetrics().forEach(metric -> baselineMetrics.put(metric.getName(), metric));
+
+        final List<String> regressions = new ArrayList<>();
+        writer.println(String.format("%-70s %14s %14s %9s %10s %s", "metric", "baseline p" + (int) percentile,
+                "current p" + (int) percentile, "change", "p-value", ""));
+        for (final Metric metric : current.getMetrics()) {
+            final Metric reference = baselineMetrics.get(metric.getName());
+            if (reference == null) {
+                continue;
+            }
+            final double before = reference.percentile(percentile);
+            final double after = metric.percentile(percentile);
+            final double change = before == 0 ? 0 : (after - before) / before;
+            final double degradation = metric.isHigherIsBetter() ? -change : change;
+            final double pValue = metric.isHigherIsBetter() ? pValue(metric, reference) : pValue(reference, metric);
+
+            final String verdict;
+            if (reference.getCount() < minCount || metric.getCount() < minCount) {
+                verdict = "too few measures";
+            } else if (degradation > threshold && pValue < alpha) {
+                verdict = "REGRESSION";
+                regressions.add(metric.getName());
+            } else if (-degradation > threshold && pValue > 1 - alpha) {
+                verdict = "improvement";
+            } else {
+                verdict = "";
+            }
+            writer.println(String.format("%-70s %11.1f %-2s %11.1f %-2s %+8.1f%% %10.4f %s", metric.getName(),
+                    before, unit(reference), after, unit(metric), change * 100, pValue, verdict));
+        }
+        writer.flush();
+        return regressions;
+    }
+
+    private static String unit(final Metric metric) {
+        return metric.getUnit() == null ? "" : metric.getUnit();
+    }
+
+    /**
+     * One-sided Mann-Whitney U test, with the normal approximation corrected for the ties.
+     *
+     * @return the probability of observing <code>higher</code> values that much larger than the <code>lower</code>
+     * ones if both come from the same distribution
+     */
+    static double pValue(final Metric lower, final Metric higher) {
+        final double n1 = lower.getCount();
+        final double n2 = higher.getCount();
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        final TreeMap<Double, long[]> merged = new TreeMap<>();
+        for (int i = 0; i < lower.getValues().length; i++) {
+            merged.computeIfAbsent(lower.getValues()[i], value -> new long[2])[0] += lower.getCounts()[i];
+        }
+        for (int i = 0; i < higher.getValues().length; i++) {
+            merged.computeIfAbsent(higher.getValues()[i], value -> new long[2])[1] += higher.getCounts()[i];
+        }
+
+        // rank sum of the higher sample, ties getting their average rank
+        double rankSum = 0;
+        double ties = 0;
+        double rank = 0;
+        for (final long[] counts : merged.values()) {
+            final double tied = counts[0] + counts[1];
+            rankSum += counts[1] * (rank + (tied + 1) / 2);
+            ties += tied * tied * tied - tied;
+            rank += tied;
+        }
+        final double n = n1 + n2;
+        final double u = rankSum - n2 * (n2 + 1) / 2;
+        final double variance = n1 * n2 / 12 * ((n + 1) - ties / (n * (n - 1)));
+        if (variance <= 0) {
+            return 0.5;
+        }
+        final double z = (u - n1 * n2 / 2 - 0.5) / Math.sqrt(variance);
+        return 1 - normal(z);
+    }
+
+    /**
+     * @return the cumulative distribution function of the standard normal distribution, from the Abramowitz and
+     * Stegun approximation of erf (error below 1.5e-7)
+     */
+    private static double normal(final double z) {
+        final double x = Math.abs(z) / Math.sqrt(2);
+        final double t = 1 / (1 + 0.3275911 * x);
+        final double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027
+                + t * 1.061405429)))) * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import io.gravitee.repository.metrics.MetricsReport.Metric;
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The expected p-values are those of the one-sided Mann-Whitney U test with the normal approximation, the tie
+ * correction and the continuity correction, U being counted pair by pair.
+ *
+ * @author GraviteeSource Team
+ */
+public class BaselineComparatorTest {
+
+    private static final double DELTA = 1e-6;
+
+    private final BaselineComparator comparator = new BaselineComparator(0.2, 50, 0.01, 5);
+
+    @Test
+    public void shouldComputeThePValueOfSeparatedSamples() {
+        final Metric lower = metric(1, 2, 3, 4, 5);
+        final Metric higher = metric(6, 7, 8, 9, 10);
+
+        assertEquals(0.006092890, BaselineComparator.pValue(lower, higher), DELTA);
+        assertEquals(0.996692325, BaselineComparator.pValue(higher, lower), DELTA);
+    }
+
+    @Test
+    public void shouldComputeThePValueWithTies() {
+        // U = 30.5, z = 1.2964
+        assertEquals(0.097411339,
+                BaselineComparator.pValue(metric(1, 2, 2, 3, 5, 7), metric(2, 3, 4, 4, 6, 8, 9)), DELTA);
+        // the same values in both samples: U = 4.5 out of 9
+        assertEquals(0.590261512, BaselineComparator.pValue(metric(10, 20, 30), metric(10, 20, 30)), DELTA);
+    }
+
+    @Test
+    public void shouldNotConcludeOnAllTiedSamples() {
+        assertEquals(0.5, BaselineComparator.pValue(metric(7, 7, 7, 7, 7), metric(7, 7, 7, 7, 7, 7)), 0);
+    }
+
+    @Test
+    public void shouldNotConcludeOnEmptySamples() {
+        assertEquals(1, BaselineComparator.pValue(metric(), metric(1, 2, 3)), 0);
+        assertEquals(1, BaselineComparator.pValue(metric(1, 2, 3), metric()), 0);
+        assertEquals(1, BaselineComparator.pValue(metric(), metric()), 0);
+    }
+
+    @Test
+    public void shouldFlagSignificantRegressions() {
+        final MetricsReport baseline = report(metric("search", 10, 11, 12, 10, 11, 12, 10, 11, 12, 10));
+        final MetricsReport current = report(metric("search", 20, 21, 22, 20, 21, 22, 20, 21, 22, 20));
+
+        assertEquals(singletonList("search"), compare(baseline, current));
+        assertEquals(emptyList(), compare(current, baseline));
+    }
+
+    @Test
+    public void shouldFlagSlowerThroughputs() {
+        final Metric before = metric("thrpt", 20, 21, 22, 20, 21, 22, 20, 21, 22, 20);
+        final Metric after = metric("thrpt", 10, 11, 12, 10, 11, 12, 10, 11, 12, 10);
+        before.setHigherIsBetter(true);
+        after.setHigherIsBetter(true);
+
+        assertEquals(singletonList("thrpt"), compare(report(before), report(after)));
+        assertEquals(emptyList(), compare(report(after), report(before)));
+    }
+
+    @Test
+    public void shouldNotFlagChangesBelowTheThresholdOrTheMinimumCount() {
+        final MetricsReport baseline = report(metric("search", 10, 11, 12, 10, 11, 12, 10, 11, 12, 10),
+                metric("rare", 10, 10));
+        final MetricsReport current = report(metric("search", 11, 12, 13, 11, 12, 13, 11, 12, 13, 11),
+                metric("rare", 100, 100), metric("new", 100, 100, 100, 100, 100));
+
+        assertEquals(emptyList(), compare(baseline, current));
+    }
+
+    @Test
+    public void shouldNotFlagAllTiedMetrics() {
+        final MetricsReport baseline = report(metric("search", 0, 0, 0, 0, 0, 0));
+        final MetricsReport current = report(metric("search", 0, 0, 0, 0, 0, 0));
+
+        assertEquals(emptyList(), compare(baseline, current));
+    }
+
+    private List<String> compare(final MetricsReport baseline, final MetricsReport current) {
+        final StringWriter output = new StringWriter();
+        final List<String> regressions = comparator.compare(baseline, current, new PrintWriter(output));
+        assertTrue(output.toString().startsWith("Baseline:"));
+        return regressions;
+    }
+
+    private static MetricsReport report(final Metric... metrics) {
+        final MetricsReport report = new MetricsReport();
+        report.setMetrics(asList(metrics));
+        return report;
+    }
+
+    private static Metric metric(final double... values) {
+        return metric("metric", values);
+    }
+
+    private static Metric metric(final String name, final double... values) {
+        final SortedMap<Double, Long> distribution = new TreeMap<>();
+        for (final double value : values) {
+            distribution.merge(value, 1L, Long::sum);
+        }
+        return Metric.of(name, "ns", distribution);
+    }
+}
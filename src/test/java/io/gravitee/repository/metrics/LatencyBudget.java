@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Latency budget of a test method: once the test has passed, {@link LatencyBudgetRunner} runs it {@link #warmup()}
+ * times, then {@link #repeat()} times, and fails if the p99 of those runs exceeds {@link #p99()}.
+ *
+ * Only the test method is repeated, not the fixtures set up around it, so it must only be put on tests which don't
+ * change the data.
+ *
+ * The budgets are only checked with <code>tck.budgets.enabled=true</code> (the <code>budgets</code> profile of this
+ * project), as they depend on the machine and the backend the tests run on. Each implementation can then override a
+ * budget in its repository.properties with
+ * <code>tck.budgets.&lt;test class simple name&gt;.&lt;test method&gt;=80ms</code>.
+ *
+ * @author GraviteeSource Team
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LatencyBudget {
+
+    /**
+     * @return the highest p99 allowed, as a number followed by ns, us, ms or s (<code>50ms</code>)
+     */
+    String p99();
+
+    int repeat() default 200;
+
+    int warmup() default 50;
+}
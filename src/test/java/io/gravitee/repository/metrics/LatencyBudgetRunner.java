@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * {@link SpringJUnit4ClassRunner} checking the {@link LatencyBudget} of the test methods when
+ * <code>tck.budgets.enabled=true</code>: otherwise each test runs once, as with {@link SpringJUnit4ClassRunner}. The
+ * measured runs are kept in {@link #BUDGETS}, keyed by <code>TestClass.method</code>, to be exported at the end of the
+ * run.
+ *
+ * @author GraviteeSource Team
+ */
+public class LatencyBudgetRunner extends SpringJUnit4ClassRunner {
+
+    public static final RepositoryLatencies BUDGETS = new RepositoryLatencies();
+
+    private static final Pattern DURATION = Pattern.compile("\\s*(\\d+(?:\\.\\d+)?)\\s*(ns|us|ms|s)\\s*");
+
+    public LatencyBudgetRunner(Class<?> clazz) throws InitializationError {
+        super(clazz);
+    }
+
+    @Override
+    protected Statement methodInvoker(FrameworkMethod frameworkMethod, Object testInstance) {
+        final Statement statement = super.methodInvoker(frameworkMethod, testInstance);
+        final LatencyBudget budget = frameworkMethod.getAnnotation(LatencyBudget.class);
+        if (budget == null) {
+            return statement;
+        }
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                statement.evaluate();
+
+                final Environment environment = getTestContextManager().getTestContext().getApplicationContext().getEnvironment();
+                if (!environment.getProperty("tck.budgets.enabled", Boolean.class, false)) {
+                    return;
+                }
+                final String name = testInstance.getClass().getSimpleName() + '.' + frameworkMethod.getName();
+                final String p99 = environment.getProperty("tck.budgets." + name, budget.p99());
+                final long allowed = parseDuration(p99);
+
+                for (int i = 0; i < budget.warmup(); i++) {
+                    statement.evaluate();
+                }
+                final LatencyHistogram histogram = BUDGETS.histogram(name);
+                histogram.reset();
+                for (int i = 0; i < budget.repeat(); i++) {
+                    final long start = System.nanoTime();
+                    statement.evaluate();
+                    histogram.record(System.nanoTime() - start);
+                }
+
+                final long measured = histogram.getValueAtPercentile(99);
+                if (measured > allowed) {
+                    throw new AssertionError(String.format("%s exceeds its latency budget: p99 of %.3fms over %d runs, %s allowed",
+                            name, measured / 1_000_000d, budget.repeat(), p99));
+                }
+            }
+        };
+    }
+
+    static long parseDuration(final String duration) {
+        final Matcher matcher = DURATION.matcher(duration);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid latency budget '" + duration + "', expected for instance 50ms");
+        }
+        final TimeUnit unit;
+        switch (matcher.group(2)) {
+            case "ns":
+                unit = NANOSECONDS;
+                break;
+            case "us":
+                unit = MICROSECONDS;
+                break;
+            case "ms":
+                unit = MILLISECONDS;
+                break;
+            default:
+                unit = SECONDS;
+        }
+        return (long) (Double.parseDouble(matcher.group(1)) * unit.toNanos(1));
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import org.junit.Test;
+
+import static io.gravitee.repository.metrics.LatencyBudgetRunner.parseDuration;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class LatencyBudgetRunnerTest {
+
+    @Test
+    public void shouldParseDurations() {
+        assertEquals(250L, parseDuration("250ns"));
+        assertEquals(1_500L, parseDuration("1.5us"));
+        assertEquals(50_000_000L, parseDuration("50ms"));
+        assertEquals(50_000_000L, parseDuration(" 50 ms "));
+        assertEquals(2_000_000_000L, parseDuration("2s"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDurationWithoutUnit() {
+        parseDuration("50");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownUnit() {
+        parseDuration("50min");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeDuration() {
+        parseDuration("-50ms");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyDuration() {
+        parseDuration("");
+    }
+}
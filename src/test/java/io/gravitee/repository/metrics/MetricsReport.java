@@ -0,0 +1,364 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import io.gravitee.repository.config.TestRepositoryInitializer;
+import io.gravitee.repository.config.memory.MemoryRepositoryInitializer;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Machine-readable export of the measures of a run (repository latencies and allocations, latency budgets...) with
+ * the {@link RunTags} they have been measured on, written as JSON or CSV and compared with a baseline by the
+ * {@link BaselineComparator}.
+ *
+ * The JSON keeps the distribution of each metric, which the comparator needs to tell a regression from noise; the CSV
+ * only has its percentiles, one line per metric prefixed by the tags, to be loaded in a spreadsheet or a dashboard.
+ * JMH results written with <code>-rf json</code> can be read as well, the iterations of each benchmark making its
+ * distribution, and exported the same way with {@link #main(String[])}.
+ *
+ * @author GraviteeSource Team
+ */
+public class MetricsReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Map<String, String> tags = new LinkedHashMap<>();
+    private List<Metric> metrics = new ArrayList<>();
+
+    /**
+     * Exports JMH results as reports tagged with the {@link RunTags} of the run:
+     * <code>MetricsReport &lt;JMH results&gt; &lt;report&gt;...</code>, each report being written as JSON or CSV by
+     * {@link #write(File)}. The scale factor and the JVM are the ones of the benchmarks, the implementation the package
+     * of the <code>TestRepositoryInitializer</code> of the classpath unless <code>tck.implementation</code> is set.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: MetricsReport <JMH results> <report>...");
+        }
+        final MetricsReport report = read(new File(args[0]));
+        final String initializer = initializerPackage();
+        if (initializer != null) {
+            RunTags.implementation(initializer);
+        }
+        final Map<String, String> tags = RunTags.current();
+        tags.putAll(report.getTags());
+        report.setTags(tags);
+        for (int i = 1; i < args.length; i++) {
+            report.write(new File(args[i]));
+            System.out.println("Benchmark results have been exported to " + new File(args[i]).getAbsolutePath());
+        }
+    }
+
+    /**
+     * @return the package of the initializer of the implementation, the in-memory one shipped with the tests only
+     * counting when it is alone, <code>null</code> when there are several
+     */
+    private static String initializerPackage() {
+        final ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(TestRepositoryInitializer.class));
+        final Set<String> packages = new TreeSet<>();
+        for (final BeanDefinition initializer : scanner.findCandidateComponents("io.gravitee.repository")) {
+            packages.add(ClassUtils.getPackageName(initializer.getBeanClassName()));
+        }
+        if (packages.size() > 1) {
+            packages.remove(ClassUtils.getPackageName(MemoryRepositoryInitializer.class));
+        }
+        return packages.size() == 1 ? packages.iterator().next() : null;
+    }
+
+    /**
+     * @param unit the unit of the recorded values, for instance ns or B
+     */
+    public static MetricsReport of(final Map<String, LatencyHistogram> histograms, final String unit,
+                                   final Map<String, String> tags) {
+        final MetricsReport report = new MetricsReport();
+        report.setTags(new LinkedHashMap<>(tags));
+        new TreeMap<>(histograms).forEach((name, histogram) -> report.getMetrics().add(Metric.of(name, unit, histogram)));
+        return report;
+    }
+
+    /**
+     * Writes the report as CSV when the file name ends with <code>.csv</code>, as JSON otherwise.
+     */
+    public void write(final File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        if (file.getName().toLowerCase().endsWith(".csv")) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+                writeCsv(writer);
+            }
+        } else {
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, this);
+        }
+    }
+
+    private void writeCsv(final PrintWriter writer) {
+        final List<String> header = new ArrayList<>(tags.keySet());
+        header.addAll(Arrays.asList("metric", "unit", "count", "mean", "p50", "p90", "p99", "max"));
+        writer.println(String.join(",", header));
+        for (final Metric metric : metrics) {
+            final List<String> row = new ArrayList<>();
+            tags.values().forEach(value -> row.add(csv(value)));
+            row.add(csv(metric.getName()));
+            row.add(csv(metric.getUnit()));
+            row.add(String.valueOf(metric.getCount()));
+            row.add(String.valueOf(metric.getMean()));
+            row.add(String.valueOf(metric.getP50()));
+            row.add(String.valueOf(metric.getP90()));
+            row.add(String.valueOf(metric.getP99()));
+            row.add(String.valueOf(metric.getMax()));
+            writer.println(String.join(",", row));
+        }
+    }
+
+    private static String csv(final String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Reads a report written as JSON by {@link #write(File)}, or a JMH result file.
+     */
+    public static MetricsReport read(final File file) throws IOException {
+        final JsonNode root = MAPPER.readTree(file);
+        if (root.isArray()) {
+            return fromJmh(root);
+        }
+        return MAPPER.readValue(root, MetricsReport.class);
+    }
+
+    private static MetricsReport fromJmh(final JsonNode benchmarks) {
+        final MetricsReport report = new MetricsReport();
+        final Set<String> scaleFactors = new LinkedHashSet<>();
+        for (final JsonNode benchmark : benchmarks) {
+            final StringBuilder name = new StringBuilder(benchmark.path("benchmark").getTextValue());
+            final Iterator<Map.Entry<String, JsonNode>> params = benchmark.path("params").getFields();
+            while (params.hasNext()) {
+                final Map.Entry<String, JsonNode> param = params.next();
+                name.append(name.indexOf(":") < 0 ? ':' : ',').append(param.getKey()).append('=').append(param.getValue().asText());
+                if (RunTags.SCALE_FACTOR.equals(param.getKey())) {
+                    scaleFactors.add(String.valueOf(Double.parseDouble(param.getValue().asText())));
+                }
+            }
+            final JsonNode primary = benchmark.path("primaryMetric");
+            final SortedMap<Double, Long> distribution = new TreeMap<>();
+            for (final JsonNode fork : primary.path("rawData")) {
+                for (final JsonNode iteration : fork) {
+                    distribution.merge(iteration.asDouble(), 1L, Long::sum);
+                }
+            }
+            final Metric metric = Metric.of(name.toString(), primary.path("scoreUnit").asText(), distribution);
+            metric.setHigherIsBetter("thrpt".equals(benchmark.path("mode").asText()));
+            report.getMetrics().add(metric);
+
+            report.getTags().putIfAbsent(RunTags.JVM, benchmark.path("vmName").asText() + ' ' + benchmark.path("jdkVersion").asText());
+        }
+        if (!scaleFactors.isEmpty()) {
+            report.getTags().put(RunTags.SCALE_FACTOR, String.join(",", scaleFactors));
+        }
+        return report;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags;
+    }
+
+    public List<Metric> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(List<Metric> metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * A measured method or benchmark, with its distribution: the distinct values (the highest value of each bucket for
+     * the histograms) and how many times each one has been measured.
+     */
+    public static class Metric {
+
+        private String name;
+        private String unit;
+        private boolean higherIsBetter;
+        private long count;
+        private double mean;
+        private double p50;
+        private double p90;
+        private double p99;
+        private double max;
+        private double[] values;
+        private long[] counts;
+
+        static Metric of(final String name, final String unit, final LatencyHistogram histogram) {
+            final SortedMap<Double, Long> distribution = new TreeMap<>();
+            histogram.getDistribution().forEach((value, count) -> distribution.put(value.doubleValue(), count));
+            final Metric metric = of(name, unit, distribution);
+            metric.setMean(histogram.getMean());
+            return metric;
+        }
+
+        static Metric of(final String name, final String unit, final SortedMap<Double, Long> distribution) {
+            final Metric metric = new Metric();
+            metric.setName(name);
+            metric.setUnit(unit);
+            metric.setValues(new double[distribution.size()]);
+            metric.setCounts(new long[distribution.size()]);
+            int i = 0;
+            double total = 0;
+            for (final Map.Entry<Double, Long> entry : distribution.entrySet()) {
+                metric.values[i] = entry.getKey();
+                metric.counts[i++] = entry.getValue();
+                metric.count += entry.getValue();
+                total += entry.getKey() * entry.getValue();
+            }
+            metric.setMean(metric.count == 0 ? 0 : total / metric.count);
+            metric.setP50(metric.percentile(50));
+            metric.setP90(metric.percentile(90));
+            metric.setP99(metric.percentile(99));
+            metric.setMax(metric.values.length == 0 ? 0 : metric.values[metric.values.length - 1]);
+            return metric;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the value of the distribution at the given percentile, 0 when it is empty
+         */
+        public double percentile(final double percentile) {
+            final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+            long seen = 0;
+            for (int i = 0; i < values.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return values[i];
+                }
+            }
+            return 0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public void setUnit(String unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * @return <code>true</code> for the throughputs, <code>false</code> for the latencies and allocations
+         */
+        public boolean isHigherIsBetter() {
+            return higherIsBetter;
+        }
+
+        public void setHigherIsBetter(boolean higherIsBetter) {
+            this.higherIsBetter = higherIsBetter;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public void setMean(double mean) {
+            this.mean = mean;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public void setP50(double p50) {
+            this.p50 = p50;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+
+        public void setP90(double p90) {
+            this.p90 = p90;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public void setP99(double p99) {
+            this.p99 = p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public void setMax(double max) {
+            this.max = max;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public void setValues(double[] values) {
+            this.values = values;
+        }
+
+        public long[] getCounts() {
+            return counts;
+        }
+
+        public void setCounts(long[] counts) {
+            this.counts = counts;
+        }
+    }
+}
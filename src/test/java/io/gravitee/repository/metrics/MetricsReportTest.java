@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import io.gravitee.repository.metrics.MetricsReport.Metric;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MetricsReportTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldComputeThePercentilesOnTheRanks() {
+        final Metric metric = metric(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+        assertEquals(1, metric.percentile(0), 0);
+        assertEquals(1, metric.percentile(10), 0);
+        assertEquals(2, metric.percentile(10.1), 0);
+        assertEquals(5, metric.percentile(50), 0);
+        assertEquals(9, metric.percentile(90), 0);
+        assertEquals(10, metric.percentile(99), 0);
+        assertEquals(10, metric.percentile(100), 0);
+        assertEquals(10, metric.percentile(150), 0);
+        assertEquals(5.5, metric.getMean(), 0);
+        assertEquals(10, metric.getMax(), 0);
+    }
+
+    @Test
+    public void shouldComputeThePercentilesOnTheCounts() {
+        final SortedMap<Double, Long> distribution = new TreeMap<>();
+        distribution.put(1d, 98L);
+        distribution.put(50d, 1L);
+        distribution.put(1000d, 1L);
+        final Metric metric = Metric.of("metric", "ns", distribution);
+
+        assertEquals(100, metric.getCount());
+        assertEquals(1, metric.getP50(), 0);
+        assertEquals(1, metric.getP90(), 0);
+        assertEquals(50, metric.getP99(), 0);
+        assertEquals(1000, metric.percentile(99.5), 0);
+    }
+
+    @Test
+    public void shouldComputeEmptyDistribution() {
+        final Metric metric = metric();
+
+        assertEquals(0, metric.getCount());
+        assertEquals(0, metric.getMean(), 0);
+        assertEquals(0, metric.getP50(), 0);
+        assertEquals(0, metric.getMax(), 0);
+        assertEquals(0, metric.percentile(100), 0);
+    }
+
+    @Test
+    public void shouldReadTheJmhRawData() throws Exception {
+        final File file = folder.newFile("jmh.json");
+        Files.write(file.toPath(), ("[{"
+                + "\"jdkVersion\":\"1.8.0_292\",\"vmName\":\"OpenJDK 64-Bit Server VM\","
+                + "\"benchmark\":\"io.gravitee.repository.benchmark.ApiRepositoryBenchmark.search\","
+                + "\"mode\":\"avgt\",\"params\":{\"scaleFactor\":\"1\",\"seed\":\"42\"},"
+                + "\"primaryMetric\":{\"score\":2.5,\"scoreUnit\":\"ms/op\",\"rawData\":[[1.0,2.0,3.0],[2.0,4.0]]}"
+                + "},{"
+                + "\"jdkVersion\":\"1.8.0_292\",\"vmName\":\"OpenJDK 64-Bit Server VM\","
+                + "\"benchmark\":\"io.gravitee.repository.benchmark.ApiRepositoryBenchmark.findById\","
+                + "\"mode\":\"thrpt\",\"primaryMetric\":{\"score\":100.0,\"scoreUnit\":\"ops/s\",\"rawData\":[[100.0]]}"
+                + "}]").getBytes(StandardCharsets.UTF_8));
+
+        final MetricsReport report = MetricsReport.read(file);
+
+        assertEquals(2, report.getMetrics().size());
+        final Metric search = report.getMetrics().get(0);
+        assertEquals("io.gravitee.repository.benchmark.ApiRepositoryBenchmark.search:scaleFactor=1,seed=42",
+                search.getName());
+        assertEquals("ms/op", search.getUnit());
+        assertFalse(search.isHigherIsBetter());
+        assertEquals(5, search.getCount());
+        assertArrayEquals(new double[]{1, 2, 3, 4}, search.getValues(), 0);
+        assertArrayEquals(new long[]{1, 2, 1, 1}, search.getCounts());
+        assertEquals(2, search.getP50(), 0);
+        assertEquals(2.4, search.getMean(), 1e-9);
+
+        final Metric findById = report.getMetrics().get(1);
+        assertEquals("io.gravitee.repository.benchmark.ApiRepositoryBenchmark.findById", findById.getName());
+        assertTrue(findById.isHigherIsBetter());
+        assertEquals(1, findById.getCount());
+
+        assertEquals("OpenJDK 64-Bit Server VM 1.8.0_292", report.getTags().get(RunTags.JVM));
+        assertEquals("1.0", report.getTags().get(RunTags.SCALE_FACTOR));
+    }
+
+    @Test
+    public void shouldExportTheJmhResultsWithTheTags() throws Exception {
+        final File file = folder.newFile("jmh.json");
+        Files.write(file.toPath(), ("[{"
+                + "\"jdkVersion\":\"1.8.0_292\",\"vmName\":\"OpenJDK 64-Bit Server VM\","
+                + "\"benchmark\":\"io.gravitee.repository.benchmark.ApiRepositoryBenchmark.search\","
+                + "\"mode\":\"avgt\",\"params\":{\"scaleFactor\":\"10\",\"seed\":\"42\"},"
+                + "\"primaryMetric\":{\"score\":2.5,\"scoreUnit\":\"ms/op\",\"rawData\":[[1.0,2.0,3.0]]}"
+                + "}]").getBytes(StandardCharsets.UTF_8));
+        final File json = new File(folder.getRoot(), "benchmarks.json");
+        final File csv = new File(folder.getRoot(), "benchmarks.csv");
+
+        MetricsReport.main(new String[]{file.getPath(), json.getPath(), csv.getPath()});
+
+        final MetricsReport report = MetricsReport.read(json);
+        assertEquals("io.gravitee.repository.config.memory", report.getTags().get(RunTags.IMPLEMENTATION));
+        assertEquals("10.0", report.getTags().get(RunTags.SCALE_FACTOR));
+        assertEquals("OpenJDK 64-Bit Server VM 1.8.0_292", report.getTags().get(RunTags.JVM));
+        assertEquals(3, report.getMetrics().get(0).getCount());
+        final String[] lines = new String(Files.readAllBytes(csv.toPath()), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("implementation,scaleFactor,commit,jvm,date,metric,"));
+        assertTrue(lines[1].startsWith("io.gravitee.repository.config.memory,10.0,"));
+    }
+
+    @Test
+    public void shouldReadTheWrittenReport() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.record(2_000);
+        histogram.record(1_000_000);
+        final MetricsReport written = MetricsReport.of(singletonMap("ApiRepository.search", histogram), "ns",
+                singletonMap(RunTags.JVM, "test"));
+        final File file = folder.newFile("report.json");
+        written.write(file);
+
+        final MetricsReport read = MetricsReport.read(file);
+
+        assertEquals(written.getTags(), read.getTags());
+        final Metric metric = read.getMetrics().get(0);
+        assertEquals("ApiRepository.search", metric.getName());
+        assertEquals(3, metric.getCount());
+        assertArrayEquals(written.getMetrics().get(0).getValues(), metric.getValues(), 0);
+        assertArrayEquals(written.getMetrics().get(0).getCounts(), metric.getCounts());
+        assertEquals(written.getMetrics().get(0).getP99(), metric.getP99(), 0);
+    }
+
+    private static Metric metric(final double... values) {
+        final SortedMap<Double, Long> distribution = new TreeMap<>();
+        for (final double value : values) {
+            distribution.merge(value, 1L, Long::sum);
+        }
+        return Metric.of("metric", "ns", distribution);
+    }
+}
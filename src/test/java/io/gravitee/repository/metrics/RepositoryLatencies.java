@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Latency histograms of the repository calls, keyed by <code>Repository.method</code>.
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryLatencies {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(final String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    public boolean isEmpty() {
+        return histograms.isEmpty();
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    /**
+     * Writes one line per method, the slowest p99 first, with latencies in microseconds.
+     */
+    public void report(final PrintWriter writer) {
+        final List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getValueAtPercentile(99)).reversed());
+
+        writer.println(String.format("%-70s %10s %12s %12s %12s", "method", "count", "p50 (us)", "p99 (us)", "max (us)"));
+        for (final Map.Entry<String, LatencyHistogram> entry : entries) {
+            final LatencyHistogram histogram = entry.getValue();
+            writer.println(String.format("%-70s %10d %12.1f %12.1f %12.1f", entry.getKey(), histogram.getCount(),
+                    micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getMax())));
+        }
+        writer.flush();
+    }
+
+    private static double micros(final long nanos) {
+        return nanos / (double) NANOSECONDS.convert(1, MICROSECONDS);
+    }
+}
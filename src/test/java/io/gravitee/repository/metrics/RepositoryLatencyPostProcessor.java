@@ -0,0 +1,268 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import io.gravitee.repository.config.TestRepositoryInitializer;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Wraps every repository bean with a proxy recording the latency of each method into {@link #LATENCIES} and/or the
+ * bytes it allocates into {@link #ALLOCATIONS}, and writes their reports when the context is closed.
+ *
+ * Disabled by default, the latencies are recorded with <code>tck.latencies.enabled=true</code> in the
+ * repository.properties or as a system property, and reported to <code>tck.latencies.report</code>
+ * (<code>target/repository-latencies.txt</code> by default). The latency of the RxJava types is measured from the
+ * subscription to the termination of the stream.
+ *
+ * The allocations are recorded with <code>tck.allocations.enabled=true</code> and reported to
+ * <code>tck.allocations.report</code> (<code>target/repository-allocations.txt</code> by default). They are read
+ * from the per-thread allocation counters of the JVM, so they only count what the calling thread allocates: the
+ * allocations of an RxJava stream are only recorded when it terminates on the thread it was subscribed on.
+ *
+ * Each report is also exported as JSON and CSV next to it (<code>repository-latencies.json</code>...), tagged with the
+ * {@link RunTags} to be compared with a baseline by the {@link BaselineComparator}. With
+ * <code>tck.budgets.export=true</code>, the runs of the {@link LatencyBudget}s are exported the same way to
+ * <code>tck.budgets.report</code> (<code>target/latency-budgets</code> by default).
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryLatencyPostProcessor implements BeanPostProcessor, EnvironmentAware, DisposableBean {
+
+    public static final RepositoryLatencies LATENCIES = new RepositoryLatencies();
+    public static final RepositoryAllocations ALLOCATIONS = new RepositoryAllocations();
+
+    private final Logger logger = LoggerFactory.getLogger(RepositoryLatencyPostProcessor.class);
+
+    private boolean latencies;
+    private String latenciesReport;
+    private boolean allocations;
+    private String allocationsReport;
+    private boolean budgets;
+    private String budgetsReport;
+    private String implementation;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        latencies = environment.getProperty("tck.latencies.enabled", Boolean.class, false);
+        latenciesReport = environment.getProperty("tck.latencies.report", "target/repository-latencies.txt");
+        allocations = environment.getProperty("tck.allocations.enabled", Boolean.class, false);
+        allocationsReport = environment.getProperty("tck.allocations.report", "target/repository-allocations.txt");
+        budgets = environment.getProperty("tck.budgets.export", Boolean.class, false);
+        budgetsReport = environment.getProperty("tck.budgets.report", "target/latency-budgets");
+        implementation = environment.getProperty("tck.implementation");
+        if (allocations && !ThreadAllocations.isSupported()) {
+            logger.warn("The allocations of the repositories can't be recorded: this JVM doesn't count the bytes allocated by each thread");
+            allocations = false;
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof TestRepositoryInitializer) {
+            RunTags.implementation(implementation != null ? implementation : ClassUtils.getPackageName(bean.getClass()));
+        }
+        if (!latencies && !allocations) {
+            return bean;
+        }
+        final List<Class<?>> interfaces = new ArrayList<>();
+        String repository = null;
+        for (final Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (isRepository(type)) {
+                repository = type.getSimpleName();
+            }
+            if (ClassUtils.isVisible(type, bean.getClass().getClassLoader())) {
+                interfaces.add(type);
+            }
+        }
+        if (repository == null) {
+            return bean;
+        }
+        return Proxy.newProxyInstance(bean.getClass().getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                new RecordingHandler(bean, repository, latencies, allocations));
+    }
+
+    @Override
+    public void destroy() {
+        if (latencies && !LATENCIES.isEmpty()) {
+            write(latenciesReport, "latencies", LATENCIES::report);
+            export(latenciesReport, "latencies", MetricsReport.of(LATENCIES.getHistograms(), "ns", RunTags.current()));
+        }
+        if (allocations && !ALLOCATIONS.isEmpty()) {
+            write(allocationsReport, "allocations", ALLOCATIONS::report);
+            export(allocationsReport, "allocations", MetricsReport.of(ALLOCATIONS.getHistograms(), "B", RunTags.current()));
+        }
+        if (budgets && !LatencyBudgetRunner.BUDGETS.isEmpty()) {
+            export(budgetsReport, "latency budgets",
+                    MetricsReport.of(LatencyBudgetRunner.BUDGETS.getHistograms(), "ns", RunTags.current()));
+        }
+    }
+
+    /**
+     * Writes the report as JSON and CSV, next to the text report of the same name.
+     */
+    private void export(final String report, final String name, final MetricsReport metrics) {
+        final String base = report.replaceFirst("\\.[^./\\\\]*$", "");
+        for (final String extension : new String[] {".json", ".csv"}) {
+            final File file = new File(base + extension);
+            try {
+                metrics.write(file);
+                logger.info("Repository {} have been exported to {}", name, file.getAbsolutePath());
+            } catch (IOException ioe) {
+                logger.error("Unable to export the repository {} to {}", name, file, ioe);
+            }
+        }
+    }
+
+    private void write(final String report, final String name, final Consumer<PrintWriter> reporter) {
+        final StringWriter content = new StringWriter();
+        reporter.accept(new PrintWriter(content));
+        try {
+            final File file = new File(report);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+            logger.info("Repository {} have been written to {}", name, file.getAbsolutePath());
+        } catch (IOException ioe) {
+            logger.error("Unable to write the repository {} to {}", name, report, ioe);
+        }
+    }
+
+    private static boolean isRepository(final Class<?> type) {
+        return type.getName().startsWith("io.gravitee.") && type.getSimpleName().endsWith("Repository");
+    }
+
+    private static class RecordingHandler implements InvocationHandler {
+
+        private final Object target;
+        private final String repository;
+        private final boolean latencies;
+        private final boolean allocations;
+
+        private RecordingHandler(final Object target, final String repository, final boolean latencies,
+                                 final boolean allocations) {
+            this.target = target;
+            this.repository = repository;
+            this.latencies = latencies;
+            this.allocations = allocations;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeTarget(method, args);
+            }
+            final String name = repository + '.' + method.getName();
+            final LatencyHistogram latency = latencies ? LATENCIES.histogram(name) : null;
+            final LatencyHistogram allocation = allocations ? ALLOCATIONS.histogram(name) : null;
+            final Recording recording = new Recording(latency, allocation);
+            final Object result;
+            try {
+                result = invokeTarget(method, args);
+            } catch (Throwable t) {
+                recording.stop();
+                throw t;
+            }
+            if (result instanceof Single) {
+                return Single.defer(() -> {
+                    final Recording subscription = new Recording(latency, allocation);
+                    return ((Single<?>) result).doFinally(subscription::stop);
+                });
+            } else if (result instanceof Maybe) {
+                return Maybe.defer(() -> {
+                    final Recording subscription = new Recording(latency, allocation);
+                    return ((Maybe<?>) result).doFinally(subscription::stop);
+                });
+            } else if (result instanceof Completable) {
+                return Completable.defer(() -> {
+                    final Recording subscription = new Recording(latency, allocation);
+                    return ((Completable) result).doFinally(subscription::stop);
+                });
+            } else if (result instanceof Flowable) {
+                return Flowable.defer(() -> {
+                    final Recording subscription = new Recording(latency, allocation);
+                    return ((Flowable<?>) result).doFinally(subscription::stop);
+                });
+            } else if (result instanceof Observable) {
+                return Observable.defer(() -> {
+                    final Recording subscription = new Recording(latency, allocation);
+                    return ((Observable<?>) result).doFinally(subscription::stop);
+                });
+            }
+            recording.stop();
+            return result;
+        }
+
+        private Object invokeTarget(final Method method, final Object[] args) throws Throwable {
+            return AopUtils.invokeJoinpointUsingReflection(target, method, args);
+        }
+    }
+
+    /**
+     * One call, or one subscription to the stream returned by a call, started at its creation.
+     */
+    private static final class Recording {
+
+        private final LatencyHistogram latency;
+        private final LatencyHistogram allocation;
+        private final Thread thread;
+        private final long allocatedBytes;
+        private final long start;
+
+        private Recording(final LatencyHistogram latency, final LatencyHistogram allocation) {
+            this.latency = latency;
+            this.allocation = allocation;
+            this.thread = Thread.currentThread();
+            this.allocatedBytes = allocation == null ? 0 : ThreadAllocations.allocatedBytes();
+            this.start = System.nanoTime();
+        }
+
+        private void stop() {
+            final long end = System.nanoTime();
+            if (latency != null) {
+                latency.record(end - start);
+            }
+            if (allocation != null && thread == Thread.currentThread()) {
+                allocation.record(ThreadAllocations.allocatedBytes() - allocatedBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import java.lang.management.*;
+
+/**
+ * Heap after a full GC, live threads and open file descriptors of the JVM at a given time, sampled by the soak runs
+ * to detect the resources leaked by a repository implementation.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ResourceUsage {
+
+    private final long heapAfterGc;
+    private final int threads;
+    private final long fileDescriptors;
+
+    private ResourceUsage(final long heapAfterGc, final int threads, final long fileDescriptors) {
+        this.heapAfterGc = heapAfterGc;
+        this.threads = threads;
+        this.fileDescriptors = fileDescriptors;
+    }
+
+    /**
+     * Runs a full GC then samples the resources. The heap is the sum of the heap pools usage after that GC, or the
+     * heap used when the JVM doesn't report it.
+     */
+    public static ResourceUsage sample() {
+        System.gc();
+
+        long heapAfterGc = 0;
+        boolean collected = false;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            final MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                heapAfterGc += usage.getUsed();
+                collected = true;
+            }
+        }
+        if (!collected) {
+            heapAfterGc = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        return new ResourceUsage(heapAfterGc, ManagementFactory.getThreadMXBean().getThreadCount(), fileDescriptors());
+    }
+
+    private static long fileDescriptors() {
+        final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.UnixOperatingSystemMXBean) {
+            return ((com.sun.management.UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+        }
+        return -1;
+    }
+
+    public long getHeapAfterGc() {
+        return heapAfterGc;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return the number of open file descriptors, or -1 when the platform doesn't report it (Windows)
+     */
+    public long getFileDescriptors() {
+        return fileDescriptors;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What the exported metrics have been measured on: the implementation, the scale factor of the generated dataset, the
+ * commit and the JVM, so that a report can be compared with a baseline of the same kind.
+ *
+ * The implementation is <code>tck.implementation</code> when set, the package of the
+ * <code>TestRepositoryInitializer</code> otherwise. The commit is <code>tck.commit</code> when set, else the
+ * <code>GIT_COMMIT</code> (Jenkins), <code>GITHUB_SHA</code> or <code>CI_COMMIT_SHA</code> (GitLab) environment
+ * variable.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RunTags {
+
+    public static final String IMPLEMENTATION = "implementation";
+    public static final String SCALE_FACTOR = "scaleFactor";
+    public static final String COMMIT = "commit";
+    public static final String JVM = "jvm";
+    public static final String DATE = "date";
+
+    private static final String UNKNOWN = "unknown";
+    private static final String[] COMMIT_VARIABLES = {"GIT_COMMIT", "GITHUB_SHA", "CI_COMMIT_SHA"};
+
+    private static volatile String implementation;
+    private static volatile double scaleFactor;
+
+    private RunTags() {
+    }
+
+    public static void implementation(final String implementation) {
+        RunTags.implementation = implementation;
+    }
+
+    /**
+     * @param scaleFactor the scale factor of the generated dataset, 0 for the test fixtures only
+     */
+    public static void scaleFactor(final double scaleFactor) {
+        RunTags.scaleFactor = scaleFactor;
+    }
+
+    public static Map<String, String> current() {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        tags.put(IMPLEMENTATION, System.getProperty("tck.implementation", implementation == null ? UNKNOWN : implementation));
+        tags.put(SCALE_FACTOR, String.valueOf(scaleFactor));
+        tags.put(COMMIT, commit());
+        tags.put(JVM, System.getProperty("java.vm.name") + ' ' + System.getProperty("java.version"));
+        tags.put(DATE, Instant.now().toString());
+        return tags;
+    }
+
+    private static String commit() {
+        final String commit = System.getProperty("tck.commit");
+        if (commit != null) {
+            return commit;
+        }
+        for (final String variable : COMMIT_VARIABLES) {
+            final String value = System.getenv(variable);
+            if (value != null && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return UNKNOWN;
+    }
+}
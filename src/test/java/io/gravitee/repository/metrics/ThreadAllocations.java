@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Bytes allocated by the current thread, from the per-thread counters of the HotSpot
+ * <code>com.sun.management.ThreadMXBean</code>.
+ *
+ * The counters only see the allocations of the calling thread: the work a driver hands over to its own threads (async
+ * Mongo driver, connection pools...) is not accounted for.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ThreadAllocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private ThreadAllocations() {
+    }
+
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @return the number of bytes allocated so far by the current thread, or -1 when the counters are not supported
+     */
+    public static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        final com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+        if (!hotspot.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        if (!hotspot.isThreadAllocatedMemoryEnabled()) {
+            hotspot.setThreadAllocatedMemoryEnabled(true);
+        }
+        return hotspot;
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.repository.utils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the heap retained by what a repository call returns (a model, a list of models, a page...), so that the
+ * tests can check that a projection really shrinks the payload, for instance that
+ * <code>ApiFieldExclusionFilter.excludeDefinition()</code> drops the definition of the returned APIs.
+ *
+ * The object graph is walked from the given root, each object being counted once, with the layout of a 64-bit
+ * HotSpot JVM using compressed oops (12 bytes headers, 4 bytes references, objects aligned on 8 bytes). Strings are
+ * counted as compact strings. The JDK classes which can't be reflected (collections, maps, dates...) are sized
+ * from their public API, and enum constants, classes and Mockito internals are considered shared so not counted.
+ *
+ * The figure is the size of everything reachable from the root: the objects the result shares with the repository
+ * (a cached model, an interned string...) are counted as well, which is what the caller retains as long as it keeps
+ * the result.
+ *
+ * @author GraviteeSource Team
+ */
+public final class HeapFootprint {
+
+    private static final int HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+
+    private static final int HASH_NODE = 32;
+    private static final int LINKED_HASH_NODE = 40;
+    private static final int TREE_NODE = 40;
+    private static final int MAP = 48;
+    private static final int LIST = 24;
+
+    private static final Map<Class<?>, Layout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private HeapFootprint() {
+    }
+
+    /**
+     * @return the estimated size in bytes of the object graph reachable from <code>root</code>, 0 for null
+     */
+    public static long of(final Object root) {
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Object> pending = new ArrayDeque<>();
+        push(root, visited, pending);
+
+        long size = 0;
+        while (!pending.isEmpty()) {
+            final Object object = pending.pop();
+            final Class<?> type = object.getClass();
+            if (type.isArray()) {
+                size += array(object, visited, pending);
+            } else if (object instanceof String) {
+                size += string((String) object);
+            } else if (object instanceof Map) {
+                size += map((Map<?, ?>) object, visited, pending);
+            } else if (object instanceof Collection) {
+                size += collection((Collection<?>) object, visited, pending);
+            } else if (object instanceof Optional) {
+                size += align(HEADER + REFERENCE);
+                push(((Optional<?>) object).orElse(null), visited, pending);
+            } else {
+                final Layout layout = LAYOUTS.computeIfAbsent(type, Layout::new);
+                size += layout.size;
+                for (final Field field : layout.references) {
+                    push(read(field, object), visited, pending);
+                }
+            }
+        }
+        return size;
+    }
+
+    private static void push(final Object object, final Set<Object> visited, final Deque<Object> pending) {
+        if (object == null || isShared(object.getClass()) || !visited.add(object)) {
+            return;
+        }
+        pending.push(object);
+    }
+
+    private static boolean isShared(final Class<?> type) {
+        return type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())
+                || type == Class.class || type.getName().startsWith("org.mockito.");
+    }
+
+    private static long array(final Object array, final Set<Object> visited, final Deque<Object> pending) {
+        final int length = Array.getLength(array);
+        final Class<?> component = array.getClass().getComponentType();
+        if (component.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) length * sizeOf(component));
+        }
+        for (int i = 0; i < length; i++) {
+            push(Array.get(array, i), visited, pending);
+        }
+        return align(ARRAY_HEADER + (long) length * REFERENCE);
+    }
+
+    private static long string(final String string) {
+        int coder = 1;
+        for (int i = 0; i < string.length() && coder == 1; i++) {
+            if (string.charAt(i) > 0xFF) {
+                coder = 2;
+            }
+        }
+        // value, hash, coder and hashIsZero fields, then the byte array
+        return align(HEADER + REFERENCE + 4 + 1 + 1) + align(ARRAY_HEADER + (long) string.length() * coder);
+    }
+
+    private static long map(final Map<?, ?> map, final Set<Object> visited, final Deque<Object> pending) {
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            push(entry.getKey(), visited, pending);
+            push(entry.getValue(), visited, pending);
+        }
+        return container(map, map.size());
+    }
+
+    private static long collection(final Collection<?> collection, final Set<Object> visited, final Deque<Object> pending) {
+        for (final Object element : collection) {
+            push(element, visited, pending);
+        }
+        final long size = container(collection, collection.size());
+        // the sets are backed by a map
+        return collection instanceof Set && !(collection instanceof SortedSet) && size > 0
+                ? size + align(HEADER + REFERENCE) : size;
+    }
+
+    private static long container(final Object container, final int elements) {
+        if (elements == 0 && container.getClass().getName().startsWith("java.util.Collections$")) {
+            return 0;
+        }
+        if (container instanceof SortedMap || container instanceof SortedSet) {
+            return MAP + (long) elements * TREE_NODE;
+        }
+        if (container instanceof Map || container instanceof Set) {
+            final int node = container instanceof LinkedHashMap || container instanceof LinkedHashSet
+                    ? LINKED_HASH_NODE : HASH_NODE;
+            return MAP + align(ARRAY_HEADER + (long) tableSize(elements) * REFERENCE) + (long) elements * node;
+        }
+        if (container instanceof LinkedList) {
+            return LIST + (long) elements * align(HEADER + 3 * REFERENCE);
+        }
+        return LIST + align(ARRAY_HEADER + (long) elements * REFERENCE);
+    }
+
+    private static int tableSize(final int elements) {
+        int table = 16;
+        while (table * 3 / 4 < elements) {
+            table <<= 1;
+        }
+        return table;
+    }
+
+    private static Object read(final Field field, final Object object) {
+        try {
+            return field.get(object);
+        } catch (IllegalAccessException iae) {
+            throw new IllegalStateException(iae);
+        }
+    }
+
+    private static int sizeOf(final Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+
+    private static long align(final long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /**
+     * The shallow size of the instances of a class and their reference fields to follow. The fields of the classes
+     * which can't be made accessible (the JDK ones since Java 9) are only counted in the shallow size.
+     */
+    private static final class Layout {
+
+        private final long size;
+        private final List<Field> references = new ArrayList<>();
+
+        private Layout(final Class<?> type) {
+            long fields = 0;
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                for (final Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    fields += sizeOf(field.getType());
+                    if (!field.getType().isPrimitive() && accessible(field)) {
+                        references.add(field);
+                    }
+                }
+            }
+            this.size = align(HEADER + fields);
+        }
+
+        private static boolean accessible(final Field field) {
+            try {
+                field.setAccessible(true);
+                return true;
+            } catch (RuntimeException re) {
+                return false;
+            }
+        }
+    }
+}